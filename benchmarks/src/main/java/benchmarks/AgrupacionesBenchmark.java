@@ -0,0 +1,85 @@
+package benchmarks;
+
+import model.DashboardSnapshot;
+import model.HuellaFila;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import services.HuellaService;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Agrupaciones de la pantalla de Análisis. Las dos primeras son las que hacía
+ * el controlador con streams sobre el historial ya cargado (por categoría y por
+ * mes, sumando el impacto de cada fila); {@link #agruparEnMemoria} incluye además
+ * la carga del historial, que era el coste real de abrir la pantalla. La última
+ * es el resumen que la sustituye, calculado en la base de datos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class AgrupacionesBenchmark {
+
+    private HuellaService huellaService;
+
+    private List<HuellaFila> historial;
+
+    @Setup(Level.Trial)
+    public void cargar(HistorialSembrado datos) {
+        huellaService = new HuellaService();
+        historial = huellaService.obtenerHistorial(HistorialSembrado.USUARIO);
+    }
+
+    @Benchmark
+    public Map<String, Double> sumarPorCategoria() {
+        return porCategoria(historial);
+    }
+
+    @Benchmark
+    public Map<YearMonth, Double> sumarPorMes() {
+        return porMes(historial);
+    }
+
+    @Benchmark
+    public Object[] agruparEnMemoria(HistorialSembrado datos) {
+        List<HuellaFila> huellas = huellaService.obtenerHistorial(HistorialSembrado.USUARIO);
+        return new Object[]{porCategoria(huellas), porMes(huellas)};
+    }
+
+    @Benchmark
+    public DashboardSnapshot agruparEnBaseDatos(HistorialSembrado datos) {
+        return huellaService.obtenerDashboard(HistorialSembrado.USUARIO, 3);
+    }
+
+    private static Map<String, Double> porCategoria(List<HuellaFila> huellas) {
+        return huellas.stream()
+                .collect(Collectors.groupingBy(
+                        HuellaFila::categoria,
+                        Collectors.summingDouble(HuellaFila::impactoKg)
+                ));
+    }
+
+    private static Map<YearMonth, Double> porMes(List<HuellaFila> huellas) {
+        return huellas.stream()
+                .collect(Collectors.groupingBy(
+                        h -> YearMonth.from(h.fecha()),
+                        Collectors.summingDouble(HuellaFila::impactoKg)
+                ));
+    }
+}
@@ -0,0 +1,103 @@
+package benchmarks;
+
+import DAO.HuellaDAO;
+import connection.Connection;
+import connection.PerfilBaseDatos;
+import model.RegistroImportado;
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import services.CatalogoEmisiones;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Prepara la base de datos H2 en memoria sobre la que corren las pruebas de
+ * rendimiento. La aplicación arranca con el perfil embebido, que crea el esquema
+ * con las mismas migraciones que se aplican en MySQL (índices incluidos) y carga
+ * el catálogo del volcado SQL; solo se sustituye la URL para que la base de datos
+ * viva en memoria.
+ * Los datos se generan con una semilla fija para que dos ejecuciones sean comparables.
+ */
+public final class BaseDatosEmbebida {
+
+    /**
+     * Registros que se guardan en cada transacción al sembrar el historial.
+     */
+    private static final int TAMANO_BLOQUE = 5000;
+
+    private static final int TAMANO_BATCH = 500;
+
+    /**
+     * Fecha del registro más reciente. Es fija para que el reparto por meses no
+     * dependa del día en que se ejecuta la prueba.
+     */
+    private static final LocalDate HASTA = LocalDate.of(2025, 12, 31);
+
+    private static final int DIAS_DE_HISTORIAL = 3 * 365;
+
+    private static final String INSERTAR_USUARIO =
+            "INSERT INTO usuario (id_usuario, nombre, email, contrasena, fecha_registro) " +
+                    "VALUES (:id, :nombre, :email, 'x', DATE '2023-01-01')";
+
+    private BaseDatosEmbebida() {
+    }
+
+    /**
+     * Apunta la aplicación a una base de datos H2 en memoria en modo MySQL.
+     * Debe llamarse antes del primer uso de {@link Connection}.
+     * La caché de consultas por usuario se desactiva (tiempo de vida 0) salvo que
+     * se indique otra cosa, para medir las consultas y no los aciertos de caché.
+     */
+    public static void configurar() {
+        System.setProperty(PerfilBaseDatos.PROPIEDAD, PerfilBaseDatos.EMBEBIDO.name());
+        System.setProperty("hibernate.connection.url",
+                "jdbc:h2:mem:benchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        if (System.getProperty("cache.usuario.ttl.segundos") == null) {
+            System.setProperty("cache.usuario.ttl.segundos", "0");
+        }
+    }
+
+    /**
+     * Crea un usuario y le genera un historial aleatorio repartido en los últimos
+     * tres años, guardado por la misma vía masiva que la importación de CSV (que
+     * también mantiene el resumen mensual).
+     * @param idUsuario Identificador del usuario a crear.
+     * @param filas Número de registros de huella.
+     * @param semilla Semilla del generador aleatorio.
+     */
+    public static void sembrarHistorial(int idUsuario, int filas, long semilla) {
+        try (Session session = Connection.getInstance().openSession()) {
+            Transaction tx = session.beginTransaction();
+            session.createNativeMutationQuery(INSERTAR_USUARIO)
+                    .setParameter("id", idUsuario)
+                    .setParameter("nombre", "Usuario " + idUsuario)
+                    .setParameter("email", "usuario" + idUsuario + "@benchmark.local")
+                    .executeUpdate();
+            tx.commit();
+        }
+
+        CatalogoEmisiones.Instantanea catalogo = CatalogoEmisiones.getInstance().actual();
+        int numActividades = catalogo.actividades().size();
+        HuellaDAO huellaDAO = new HuellaDAO();
+        Random aleatorio = new Random(semilla);
+        List<RegistroImportado> bloque = new ArrayList<>(TAMANO_BLOQUE);
+
+        for (int i = 0; i < filas; i++) {
+            int idActividad = catalogo.actividades().get(aleatorio.nextInt(numActividades)).getId();
+            float valor = Math.round(aleatorio.nextFloat() * 20000) / 100f;
+            LocalDate fecha = HASTA.minusDays(aleatorio.nextInt(DIAS_DE_HISTORIAL));
+            bloque.add(new RegistroImportado(idActividad, catalogo.categoriaDe(idActividad), valor, "u",
+                    fecha, valor * (double) catalogo.factorEmision(idActividad)));
+
+            if (bloque.size() == TAMANO_BLOQUE || i == filas - 1) {
+                if (huellaDAO.insertarLote(idUsuario, bloque, TAMANO_BATCH) < 0) {
+                    throw new IllegalStateException("No se pudo sembrar el historial del usuario " + idUsuario);
+                }
+                bloque.clear();
+            }
+        }
+    }
+}
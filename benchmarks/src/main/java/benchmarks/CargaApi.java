@@ -0,0 +1,220 @@
+package benchmarks;
+
+import api.ServidorApi;
+import connection.Connection;
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.mindrot.jbcrypt.BCrypt;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Prueba de carga de la API JSON. Arranca el servidor sobre la base de datos
+ * H2 en memoria de las pruebas de rendimiento, siembra el historial de un
+ * usuario, inicia sesión y lanza varios clientes concurrentes (uno por hilo
+ * virtual) que repiten sin pausa la mezcla de lecturas de una aplicación
+ * móvil: primera página del historial, panel de análisis, estadísticas y hábitos.
+ * Tras un calentamiento, mide durante el tiempo indicado y escribe las
+ * peticiones por segundo y los percentiles de latencia.
+ * <pre>
+ *     java -cp benchmarks/target/benchmarks.jar benchmarks.CargaApi [clientes] [segundos] [filas]
+ * </pre>
+ * Por defecto: 64 clientes, 20 segundos y 100.000 filas de historial. Como en el
+ * resto de pruebas, la caché por usuario está desactivada salvo que se arranque
+ * con {@code -Dcache.usuario.ttl.segundos=<n>}. Los clientes comparten proceso y
+ * procesadores con el servidor, así que conviene comparar resultados de la misma máquina.
+ */
+public final class CargaApi {
+
+    private static final int ID_USUARIO = 1;
+    private static final String EMAIL = "usuario1@benchmark.local";
+    private static final String CONTRASENA = "carga";
+
+    private static final int SEGUNDOS_CALENTAMIENTO = 5;
+
+    /**
+     * Mezcla de peticiones que repite cada cliente, en este orden.
+     */
+    private static final List<String> MEZCLA = List.of(
+            "/api/huellas?tamano=100",
+            "/api/dashboard",
+            "/api/huellas?tamano=100",
+            "/api/estadisticas",
+            "/api/huellas?tamano=100&texto=coche",
+            "/api/habitos");
+
+    private static final String CAMBIAR_CREDENCIALES =
+            "UPDATE usuario SET contrasena = :hash WHERE id_usuario = :id";
+
+    private CargaApi() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int clientes = (args.length > 0) ? Integer.parseInt(args[0]) : 64;
+        int segundos = (args.length > 1) ? Integer.parseInt(args[1]) : 20;
+        int filas = (args.length > 2) ? Integer.parseInt(args[2]) : 100_000;
+
+        BaseDatosEmbebida.configurar();
+        BaseDatosEmbebida.sembrarHistorial(ID_USUARIO, filas, 42L);
+        ponerContrasena();
+
+        ServidorApi servidor = new ServidorApi(0);
+        servidor.iniciar();
+        String base = "http://localhost:" + servidor.getPuerto();
+        HttpClient cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        try {
+            String token = iniciarSesion(cliente, base);
+            System.out.printf("Calentando %d s con %d clientes...%n", SEGUNDOS_CALENTAMIENTO, clientes);
+            ejecutar(cliente, base, token, clientes, SEGUNDOS_CALENTAMIENTO);
+            System.out.printf("Midiendo %d s con %d clientes sobre %d filas...%n", segundos, clientes, filas);
+            System.out.println(ejecutar(cliente, base, token, clientes, segundos));
+        } finally {
+            servidor.detener();
+            Connection.shutdown();
+        }
+    }
+
+    /**
+     * Da al usuario sembrado una contraseña conocida para poder entrar por la API.
+     */
+    private static void ponerContrasena() {
+        try (Session session = Connection.getInstance().openSession()) {
+            Transaction tx = session.beginTransaction();
+            session.createNativeMutationQuery(CAMBIAR_CREDENCIALES)
+                    .setParameter("hash", BCrypt.hashpw(CONTRASENA, BCrypt.gensalt()))
+                    .setParameter("id", ID_USUARIO)
+                    .executeUpdate();
+            tx.commit();
+        }
+    }
+
+    private static String iniciarSesion(HttpClient cliente, String base) throws Exception {
+        HttpRequest peticion = HttpRequest.newBuilder(URI.create(base + "/api/login"))
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"email\":\"" + EMAIL + "\",\"contrasena\":\"" + CONTRASENA + "\"}"))
+                .build();
+        HttpResponse<String> respuesta = cliente.send(peticion, HttpResponse.BodyHandlers.ofString());
+        if (respuesta.statusCode() != 200) {
+            throw new IllegalStateException("No se pudo iniciar sesión: " + respuesta.body());
+        }
+        return respuesta.body().replaceAll(".*\"token\":\"([^\"]+)\".*", "$1");
+    }
+
+    /**
+     * Lanza los clientes durante el tiempo indicado y junta sus latencias.
+     */
+    private static Resultado ejecutar(HttpClient cliente, String base, String token,
+                                      int clientes, int segundos) throws Exception {
+        long fin = System.nanoTime() + segundos * 1_000_000_000L;
+        List<Future<Latencias>> tareas = new ArrayList<>();
+        try (ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clientes; i++) {
+                int desplazamiento = i;
+                tareas.add(hilos.submit(() -> cliente(cliente, base, token, desplazamiento, fin)));
+            }
+        }
+
+        Latencias total = new Latencias();
+        for (Future<Latencias> tarea : tareas) {
+            total.juntar(tarea.resultNow());
+        }
+        return total.resultado(segundos);
+    }
+
+    /**
+     * Un cliente: repite la mezcla de peticiones hasta que se acaba el tiempo.
+     */
+    private static Latencias cliente(HttpClient cliente, String base, String token, int inicio, long fin) {
+        List<HttpRequest> peticiones = MEZCLA.stream()
+                .map(ruta -> HttpRequest.newBuilder(URI.create(base + ruta))
+                        .header("Authorization", "Bearer " + token)
+                        .GET()
+                        .build())
+                .toList();
+        Latencias latencias = new Latencias();
+        for (int i = inicio; System.nanoTime() < fin; i++) {
+            long t0 = System.nanoTime();
+            try {
+                HttpResponse<Void> respuesta = cliente.send(peticiones.get(i % peticiones.size()),
+                        HttpResponse.BodyHandlers.discarding());
+                latencias.anotar(System.nanoTime() - t0, respuesta.statusCode() == 200);
+            } catch (Exception e) {
+                latencias.anotar(System.nanoTime() - t0, false);
+            }
+        }
+        return latencias;
+    }
+
+    /**
+     * Latencias de un cliente en nanosegundos, en un array que crece a saltos.
+     */
+    private static final class Latencias {
+
+        private long[] valores = new long[4096];
+        private int cuenta;
+        private long errores;
+
+        void anotar(long nanos, boolean correcta) {
+            if (cuenta == valores.length) valores = Arrays.copyOf(valores, cuenta * 2);
+            valores[cuenta++] = nanos;
+            if (!correcta) errores++;
+        }
+
+        void juntar(Latencias otras) {
+            if (cuenta + otras.cuenta > valores.length) {
+                valores = Arrays.copyOf(valores, Math.max(valores.length * 2, cuenta + otras.cuenta));
+            }
+            System.arraycopy(otras.valores, 0, valores, cuenta, otras.cuenta);
+            cuenta += otras.cuenta;
+            errores += otras.errores;
+        }
+
+        Resultado resultado(int segundos) {
+            long[] ordenadas = Arrays.copyOf(valores, cuenta);
+            Arrays.sort(ordenadas);
+            return new Resultado(cuenta, errores, (double) cuenta / segundos,
+                    percentil(ordenadas, 0.50), percentil(ordenadas, 0.95),
+                    percentil(ordenadas, 0.99), cuenta > 0 ? ordenadas[cuenta - 1] / 1e6 : 0);
+        }
+
+        private static double percentil(long[] ordenadas, double p) {
+            if (ordenadas.length == 0) return 0;
+            int i = (int) Math.ceil(p * ordenadas.length) - 1;
+            return ordenadas[Math.max(0, i)] / 1e6;
+        }
+    }
+
+    /**
+     * Resultado de una medición.
+     * @param peticiones Peticiones completadas.
+     * @param errores Peticiones fallidas o con un código distinto de 200.
+     * @param porSegundo Peticiones completadas por segundo.
+     * @param p50Ms Mediana de la latencia.
+     * @param p95Ms Percentil 95.
+     * @param p99Ms Percentil 99.
+     * @param maxMs Latencia máxima.
+     */
+    record Resultado(long peticiones, long errores, double porSegundo,
+                     double p50Ms, double p95Ms, double p99Ms, double maxMs) {
+
+        @Override
+        public String toString() {
+            return String.format("%d peticiones (%d errores): %.0f pet/s  p50 %.2f ms  p95 %.2f ms  p99 %.2f ms  máx %.2f ms",
+                    peticiones, errores, porSegundo, p50Ms, p95Ms, p99Ms, maxMs);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package benchmarks;
+
+import connection.Connection;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Estado compartido por las pruebas: una base de datos en memoria con el
+ * catálogo y un usuario con {@code filas} registros de historial, más un
+ * vecino con un historial pequeño para que las consultas tengan que filtrar.
+ * Cada tamaño se ejecuta en su propia JVM, así que la base de datos se siembra
+ * una vez por tamaño. Las pruebas deben crear los servicios en su {@code @Setup},
+ * que corre después de este, para que ya vean la configuración embebida.
+ */
+@State(Scope.Benchmark)
+public class HistorialSembrado {
+
+    /**
+     * Usuario cuyo historial se mide.
+     */
+    public static final int USUARIO = 1;
+
+    private static final int VECINO = 2;
+    private static final int FILAS_VECINO = 1000;
+    private static final long SEMILLA = 20250101L;
+
+    /**
+     * Tamaño del historial del usuario medido.
+     */
+    @Param({"1000", "100000", "1000000"})
+    public int filas;
+
+    @Setup(Level.Trial)
+    public void sembrar() {
+        BaseDatosEmbebida.configurar();
+        long inicio = System.nanoTime();
+        BaseDatosEmbebida.sembrarHistorial(USUARIO, filas, SEMILLA);
+        BaseDatosEmbebida.sembrarHistorial(VECINO, FILAS_VECINO, SEMILLA + 1);
+        System.out.println("[Benchmark] " + filas + " filas sembradas en "
+                + (System.nanoTime() - inicio) / 1_000_000 + " ms");
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        Connection.shutdown();
+    }
+}
@@ -0,0 +1,68 @@
+package benchmarks;
+
+import DAO.HuellaDAO;
+import model.Actividad;
+import model.Huella;
+import model.Usuario;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import services.CatalogoEmisiones;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rutas de persistencia del DAO de huellas: la suma del impacto total y el
+ * alta de un registro, que además de insertar la fila actualiza el resumen
+ * mensual en la misma transacción.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class HuellaDAOBenchmark {
+
+    private final HuellaDAO huellaDAO = new HuellaDAO();
+
+    private Usuario usuario;
+    private Actividad actividad;
+    private int idCategoria;
+    private float factor;
+
+    @Setup
+    public void preparar(HistorialSembrado datos) {
+        usuario = new Usuario();
+        usuario.setId(HistorialSembrado.USUARIO);
+        actividad = CatalogoEmisiones.getInstance().actividades().get(0);
+        idCategoria = CatalogoEmisiones.getInstance().categoriaDe(actividad.getId());
+        factor = CatalogoEmisiones.getInstance().factorEmision(actividad.getId());
+    }
+
+    @Benchmark
+    public Double obtenerImpactoTotal(HistorialSembrado datos) {
+        return huellaDAO.obtenerImpactoTotal(HistorialSembrado.USUARIO);
+    }
+
+    @Benchmark
+    public Huella guardar(HistorialSembrado datos) {
+        Huella h = new Huella();
+        h.setIdUsuario(usuario);
+        h.setIdActividad(actividad);
+        h.setValor(12.5f);
+        h.setUnidad("km");
+        h.setFecha(LocalDate.of(2025, 6, 15));
+        h.setImpactoKg(h.getValor() * (double) factor);
+        huellaDAO.guardar(h, idCategoria);
+        return h;
+    }
+}
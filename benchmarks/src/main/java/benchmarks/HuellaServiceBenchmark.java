@@ -0,0 +1,56 @@
+package benchmarks;
+
+import model.DashboardSnapshot;
+import model.HuellaFila;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import services.HuellaService;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lecturas del servicio de huellas que alimentan las pantallas de Inicio,
+ * Análisis y Mis Huellas. Las estadísticas y el panel leen del resumen mensual,
+ * así que su coste no debería crecer con el historial; el historial completo
+ * hidrata todas las entidades y sirve de referencia.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class HuellaServiceBenchmark {
+
+    private HuellaService huellaService;
+
+    @Setup
+    public void preparar(HistorialSembrado datos) {
+        huellaService = new HuellaService();
+    }
+
+    @Benchmark
+    public Map<String, Double> obtenerEstadisticas(HistorialSembrado datos) {
+        return huellaService.obtenerEstadisticas(HistorialSembrado.USUARIO);
+    }
+
+    @Benchmark
+    public DashboardSnapshot obtenerDashboard(HistorialSembrado datos) {
+        return huellaService.obtenerDashboard(HistorialSembrado.USUARIO, 3);
+    }
+
+    @Benchmark
+    public List<HuellaFila> obtenerHistorial(HistorialSembrado datos) {
+        return huellaService.obtenerHistorial(HistorialSembrado.USUARIO);
+    }
+}
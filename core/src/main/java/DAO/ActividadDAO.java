@@ -5,6 +5,8 @@ import model.Actividad;
 import org.hibernate.Session;
 import org.hibernate.Transaction;
 import org.hibernate.query.Query;
+import utils.Medicion;
+import utils.Metricas;
 import java.util.List;
 
 /**
@@ -17,8 +19,10 @@ public class ActividadDAO {
 
     /**
      * Consulta HQL para obtener todas las entidades de tipo Actividad.
+     * Trae también su categoría, ya que el catálogo se usa fuera de la sesión. La
+     * categoría es opcional, así que la unión es externa para no perder actividades.
      */
-    private static final String LISTAR_TODAS = "FROM Actividad";
+    private static final String LISTAR_TODAS = "SELECT a FROM Actividad a LEFT JOIN FETCH a.idCategoria ORDER BY a.id";
 
     /**
      * Recupera el listado completo de actividades almacenadas en el sistema.
@@ -27,12 +31,14 @@ public class ActividadDAO {
      * * @return Una lista de objetos {@link Actividad} o {@code null} si ocurre un error en la consulta.
      */
     public List<Actividad> listarTodas() {
+        Medicion m = Metricas.medir("ActividadDAO.listarTodas");
         // Abrimos la sesión a través de nuestra clase de conexión personalizada
-        try (Session session = Connection.getInstance().openSession()) {
+        try (m; Session session = Connection.getInstance().openSession()) {
             // Creamos la consulta tipada utilizando HQL
             Query<Actividad> query = session.createQuery(LISTAR_TODAS, Actividad.class);
-            return query.getResultList();
+            return m.filas(query.getResultList());
         } catch (Exception e) {
+            m.fallo();
             // Log de error técnico en consola para depuración
             System.err.println("Error al recuperar el catálogo de actividades: " + e.getMessage());
             e.printStackTrace();
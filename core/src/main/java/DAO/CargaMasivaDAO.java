@@ -0,0 +1,127 @@
+package DAO;
+
+import connection.Connection;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import utils.Medicion;
+import utils.Metricas;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+
+/**
+ * Clase de acceso a datos para las cargas masivas de filas ya preparadas, como
+ * los datos sintéticos de las pruebas de escala.
+ * Escribe con sentencias INSERT de varias filas ({@code VALUES (...), (...), ...}),
+ * de modo que cada viaje al servidor inserta cientos de registros, y trabaja con
+ * una sesión sin estado para no acumular entidades en memoria.
+ */
+public class CargaMasivaDAO {
+
+    /**
+     * Consulta del siguiente identificador libre de una tabla. Los nombres de tabla
+     * y columna los fija siempre el código, nunca el usuario.
+     */
+    private static final String SIGUIENTE_ID = "SELECT COALESCE(MAX(%s), 0) + 1 FROM %s";
+
+    /**
+     * Obtiene el siguiente identificador libre de una tabla, para insertar filas
+     * con identificador explícito que otras filas de la misma carga referencian.
+     * @param tabla Nombre de la tabla.
+     * @param columnaId Columna de la clave primaria.
+     * @return El mayor identificador actual más uno, o -1 si falla la consulta.
+     */
+    public int siguienteId(String tabla, String columnaId) {
+        Medicion m = Metricas.medir("CargaMasivaDAO.siguienteId");
+        try (m; StatelessSession session = Connection.getInstance().openStatelessSession()) {
+            return session.doReturningWork(conexion -> {
+                try (PreparedStatement ps = conexion.prepareStatement(String.format(SIGUIENTE_ID, columnaId, tabla));
+                     ResultSet rs = ps.executeQuery()) {
+                    return rs.next() ? rs.getInt(1) : 1;
+                }
+            });
+        } catch (Exception e) {
+            m.fallo();
+            System.err.println("Error al consultar el siguiente identificador de " + tabla + ": " + e.getMessage());
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
+    /**
+     * Inserta un bloque de filas en una única transacción, agrupadas en sentencias
+     * de varias filas. Si algo falla, el bloque completo se deshace.
+     * @param tabla Nombre de la tabla.
+     * @param columnas Columnas que se rellenan, en el orden de los valores de cada fila.
+     * @param filas Valores de cada fila; todas con tantos elementos como columnas.
+     * @param filasPorSentencia Número de filas que se envían en cada INSERT.
+     * @return Número de filas insertadas, o -1 si el bloque no se pudo guardar.
+     */
+    public int insertar(String tabla, String[] columnas, List<Object[]> filas, int filasPorSentencia) {
+        if (filas.isEmpty()) return 0;
+        Medicion m = Metricas.medir("CargaMasivaDAO.insertar");
+        Transaction tx = null;
+        try (m; StatelessSession session = Connection.getInstance().openStatelessSession()) {
+            tx = session.beginTransaction();
+            session.doWork(conexion -> {
+                int completas = filas.size() / filasPorSentencia;
+                int resto = filas.size() % filasPorSentencia;
+                int i = 0;
+                if (completas > 0) {
+                    try (PreparedStatement ps = conexion.prepareStatement(
+                            sentencia(tabla, columnas, filasPorSentencia))) {
+                        for (int s = 0; s < completas; s++) {
+                            i = asignar(ps, filas, i, filasPorSentencia);
+                            ps.executeUpdate();
+                        }
+                    }
+                }
+                if (resto > 0) {
+                    try (PreparedStatement ps = conexion.prepareStatement(sentencia(tabla, columnas, resto))) {
+                        asignar(ps, filas, i, resto);
+                        ps.executeUpdate();
+                    }
+                }
+            });
+            tx.commit();
+            return m.filas(filas.size());
+        } catch (Exception e) {
+            m.fallo();
+            if (tx != null && tx.isActive()) tx.rollback();
+            System.err.println("Error al insertar un bloque en " + tabla + ": " + e.getMessage());
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
+    /**
+     * Construye {@code INSERT INTO tabla (c1, c2) VALUES (?, ?), (?, ?), ...}.
+     */
+    private static String sentencia(String tabla, String[] columnas, int numFilas) {
+        String grupo = "(" + "?, ".repeat(columnas.length - 1) + "?)";
+        StringBuilder sql = new StringBuilder(64 + numFilas * (grupo.length() + 2))
+                .append("INSERT INTO ").append(tabla)
+                .append(" (").append(String.join(", ", columnas)).append(") VALUES ");
+        for (int f = 0; f < numFilas; f++) {
+            if (f > 0) sql.append(", ");
+            sql.append(grupo);
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Asigna los parámetros de {@code cuantas} filas a partir de la posición {@code desde}.
+     * @return La posición de la siguiente fila sin asignar.
+     */
+    private static int asignar(PreparedStatement ps, List<Object[]> filas, int desde, int cuantas)
+            throws java.sql.SQLException {
+        int p = 1;
+        for (int f = desde; f < desde + cuantas; f++) {
+            for (Object valor : filas.get(f)) {
+                ps.setObject(p++, valor);
+            }
+        }
+        return desde + cuantas;
+    }
+}
@@ -0,0 +1,79 @@
+package DAO;
+
+import connection.Connection;
+import model.Categoria;
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.query.Query;
+import utils.Medicion;
+import utils.Metricas;
+import java.util.List;
+
+/**
+ * Clase de acceso a datos (DAO) para la entidad Categoria.
+ * Se encarga de gestionar las consultas relacionadas con las grandes áreas de
+ * impacto ambiental (como Alimentación, Transporte o Energía), permitiendo
+ * organizar y filtrar los datos en la interfaz y los gráficos.
+ */
+public class CategoriaDAO {
+
+    /**
+     * Consulta HQL para recuperar todas las categorías de la base de datos.
+     */
+    private static final String LISTAR_TODAS = "FROM Categoria";
+
+    /**
+     * Sentencia HQL para cambiar el factor de emisión de una categoría.
+     */
+    private static final String ACTUALIZAR_FACTOR =
+            "UPDATE Categoria c SET c.factorEmision = :factor WHERE c.id = :idCategoria";
+
+    /**
+     * Obtiene la lista completa de categorías disponibles.
+     * Se utiliza principalmente para llenar los filtros de búsqueda y los
+     * selectores en las pantallas de registro de huella y análisis.
+     * * @return Una lista de objetos {@link Categoria} con su información
+     * y factores de emisión asociados.
+     */
+    public List<Categoria> listarTodas() {
+        Medicion m = Metricas.medir("CategoriaDAO.listarTodas");
+        // Utilizamos la sesión de Hibernate para realizar la consulta sobre el modelo de objetos
+        try (m; Session session = Connection.getInstance().openSession()) {
+            Query<Categoria> query = session.createQuery(LISTAR_TODAS, Categoria.class);
+            return m.filas(query.getResultList());
+        } catch (Exception e) {
+            m.fallo();
+            System.err.println("Error al listar las categorías: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Modifica el factor de emisión de una categoría.
+     * Los impactos ya guardados en las huellas no cambian aquí; de eso se encarga
+     * el recálculo en segundo plano que lanza el servicio.
+     * * @param idCategoria Identificador de la categoría.
+     * @param factor Nuevo factor de emisión (kg de CO2 por unidad).
+     * @return {@code true} si se actualizó la categoría, {@code false} en caso contrario.
+     */
+    public boolean actualizarFactor(int idCategoria, float factor) {
+        Medicion m = Metricas.medir("CategoriaDAO.actualizarFactor");
+        Transaction tx = null;
+        try (m; Session session = Connection.getInstance().openSession()) {
+            tx = session.beginTransaction();
+            int filas = session.createMutationQuery(ACTUALIZAR_FACTOR)
+                    .setParameter("factor", factor)
+                    .setParameter("idCategoria", idCategoria)
+                    .executeUpdate();
+            tx.commit();
+            return filas > 0;
+        } catch (Exception e) {
+            m.fallo();
+            if (tx != null) tx.rollback();
+            System.err.println("Error al actualizar el factor de emisión: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+}
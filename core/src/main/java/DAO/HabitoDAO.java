@@ -0,0 +1,118 @@
+package DAO;
+
+import connection.Connection;
+import model.Habito;
+import model.HabitoFila;
+import org.hibernate.Session;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import utils.Medicion;
+import utils.Metricas;
+import java.util.List;
+
+/**
+ * Clase de acceso a datos (DAO) para la gestión de hábitos sostenibles.
+ * Esta clase implementa la lógica de persistencia para los compromisos de usuario.
+ * Los listados se leen como filas {@link HabitoFila} con los nombres de actividad
+ * y categoría ya resueltos, de modo que la interfaz nunca navega relaciones perezosas.
+ */
+public class HabitoDAO {
+
+    /**
+     * Proyección de los hábitos de un usuario.
+     * Recupera en una sola consulta las columnas que muestra la pantalla, incluidos
+     * los nombres de actividad y categoría, sin hidratar ninguna entidad.
+     */
+    private static final String LISTAR_COMPLETO =
+            "SELECT new model.HabitoFila(h.id.idUsuario, a.id, a.nombre, c.nombre, h.frecuencia, h.tipo, h.ultimaFecha) " +
+                    "FROM Habito h " +
+                    "JOIN h.idActividad a " +
+                    "JOIN a.idCategoria c " +
+                    "WHERE h.idUsuario.id = :idUsuario";
+
+    private static final String ELIMINAR =
+            "DELETE FROM Habito h WHERE h.id.idUsuario = :idUsuario AND h.id.idActividad = :idActividad";
+
+    /**
+     * Inserta o actualiza un hábito en la base de datos.
+     * Utiliza el método {@code merge()} para reasociar entidades que pueden estar
+     * en estado 'detached' (desconectadas), asegurando que las relaciones con
+     * Usuario y Actividad se mantengan íntegras.
+     * * @param h El objeto {@link Habito} a persistir.
+     * @return {@code true} si la transacción se completó con éxito, {@code false} en caso de error.
+     */
+    public boolean insertar(Habito h) {
+        Medicion m = Metricas.medir("HabitoDAO.insertar");
+        try (m; Session session = Connection.getInstance().openSession()) {
+            Transaction transaction = session.beginTransaction();
+            try {
+                // Sincronización del estado del objeto con la sesión actual
+                session.merge(h);
+
+                transaction.commit();
+            } catch (RuntimeException e) {
+                // Se deshace con la sesión abierta: en el catch exterior ya está cerrada
+                if (transaction.isActive()) transaction.rollback();
+                throw e;
+            }
+            System.out.println("Hábito guardado correctamente.");
+            return true;
+        } catch (Exception e) {
+            m.fallo();
+            System.err.println("Error en HabitoDAO al insertar: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Elimina un registro de hábito de la base de datos a partir de su clave
+     * compuesta, sin necesidad de cargar antes la entidad.
+     * * @param idUsuario Usuario dueño del hábito.
+     * @param idActividad Actividad del hábito.
+     * @return {@code true} si el borrado se confirmó, {@code false} si la transacción falló.
+     */
+    public boolean eliminar(int idUsuario, int idActividad) {
+        Medicion m = Metricas.medir("HabitoDAO.eliminar").usuario(idUsuario);
+        try (m; Session session = Connection.getInstance().openSession()) {
+            Transaction tx = session.beginTransaction();
+            try {
+                session.createMutationQuery(ELIMINAR)
+                        .setParameter("idUsuario", idUsuario)
+                        .setParameter("idActividad", idActividad)
+                        .executeUpdate();
+                tx.commit();
+            } catch (RuntimeException e) {
+                if (tx.isActive()) tx.rollback();
+                throw e;
+            }
+            return true;
+        } catch (Exception e) {
+            m.fallo();
+            System.err.println("Error al eliminar hábito: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Recupera el listado detallado de hábitos de un usuario específico.
+     * La lectura usa una sesión sin estado: las filas son de solo lectura y no
+     * pasan por el contexto de persistencia.
+     * * @param idUsuario Identificador del usuario.
+     * @return Una lista de {@link HabitoFila} asociados al usuario, o {@code null} si ocurre un error.
+     */
+    public List<HabitoFila> listarPorUsuario(int idUsuario) {
+        Medicion m = Metricas.medir("HabitoDAO.listarPorUsuario").usuario(idUsuario);
+        try (m; StatelessSession session = Connection.getInstance().openStatelessSession()) {
+            return m.filas(session.createQuery(LISTAR_COMPLETO, HabitoFila.class)
+                    .setParameter("idUsuario", idUsuario)
+                    .getResultList());
+        } catch (Exception e) {
+            m.fallo();
+            System.err.println("Error al listar hábitos por usuario: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,809 @@
+package DAO;
+
+import connection.Connection;
+import model.CursorHuella;
+import model.FiltroHuellas;
+import model.Huella;
+import model.HuellaFila;
+import model.HuellaMensualActividadId;
+import model.HuellaMensualId;
+import model.Pagina;
+import model.RegistroImportado;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.SharedSessionContract;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.hibernate.query.MutationQuery;
+import org.hibernate.query.Query;
+import utils.Medicion;
+import utils.Metricas;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Clase de acceso a datos (DAO) para la entidad Huella.
+ * Es el componente principal para la gestión del impacto ambiental del usuario.
+ * Implementa operaciones CRUD y consultas avanzadas que integran lógica aritmética
+ * (factores de emisión) directamente en las peticiones a la base de datos.
+ */
+public class HuellaDAO {
+
+    /**
+     * Proyección de un registro para las pantallas de consulta y la exportación.
+     * Construye directamente cada {@link HuellaFila} con las columnas que se
+     * muestran, sin hidratar la huella ni su actividad y categoría. Actividad y
+     * categoría se cruzan con LEFT JOIN, como en {@link #CONTAR_POR_USUARIO}, que no
+     * cruza nada: un registro sin actividad o cuya actividad no tiene categoría se
+     * cuenta y también se lista, con esos nombres a {@code null}.
+     */
+    private static final String PROYECCION_FILA =
+            "SELECT new model.HuellaFila(h.id, h.fecha, a.nombre, c.nombre, h.valor, h.unidad, h.impactoKg) " +
+                    "FROM Huella h LEFT JOIN h.idActividad a LEFT JOIN a.idCategoria c ";
+
+    /**
+     * Historial completo del usuario, del más reciente al más antiguo, con el
+     * nombre de la actividad y de la categoría de cada registro.
+     */
+    private static final String LISTAR_POR_USUARIO_COMPLETO =
+            PROYECCION_FILA +
+                    "WHERE h.idUsuario.id = :idUsuario " +
+                    "ORDER BY h.fecha DESC, h.id DESC";
+
+    /**
+     * Base de las páginas del historial. Ordenada con {@link #ORDEN_HISTORIAL}, recorre
+     * el índice (id_usuario, fecha, id_registro) en sentido descendente y se detiene al
+     * llegar al límite de filas, así que su coste no depende de la longitud del historial.
+     */
+    private static final String PAGINA_HISTORIAL =
+            PROYECCION_FILA + "WHERE h.idUsuario.id = :idUsuario ";
+
+    /**
+     * Páginas siguientes: continúa justo después del último registro visto
+     * (búsqueda por cursor) en lugar de saltar filas con OFFSET.
+     */
+    private static final String DESPUES_DEL_CURSOR =
+            "AND (h.fecha < :fecha OR (h.fecha = :fecha AND h.id < :id)) ";
+
+    private static final String ORDEN_HISTORIAL = "ORDER BY h.fecha DESC, h.id DESC";
+
+    /**
+     * Número de registros de un usuario. Se resuelve recorriendo solo el índice
+     * (id_usuario, fecha, id_registro), sin leer las filas.
+     */
+    private static final String CONTAR_POR_USUARIO =
+            "SELECT COUNT(h) FROM Huella h WHERE h.idUsuario.id = :idUsuario ";
+
+    /**
+     * Filtros de búsqueda del historial. Se resuelven primero sobre la tabla de
+     * actividades, que es pequeña, y la lista de actividades resultante se cruza
+     * con el índice (id_usuario, id_actividad, fecha) de las huellas.
+     */
+    private static final String FILTRO_TEXTO =
+            "AND h.idActividad.id IN (SELECT x.id FROM Actividad x WHERE LOWER(x.nombre) LIKE :texto ESCAPE '!') ";
+
+    private static final String FILTRO_CATEGORIA_ACTIVIDAD =
+            "AND h.idActividad.id IN (SELECT x.id FROM Actividad x WHERE x.idCategoria.id = :idCategoria) ";
+
+    /**
+     * Consulta HQL para el cálculo del impacto total.
+     * Suma el resumen mensual precalculado, cuyo tamaño depende del número de
+     * meses con actividad y no del número de registros.
+     */
+    private static final String SUMA_IMPACTO_TOTAL =
+            "SELECT SUM(m.kgCo2) FROM HuellaMensual m WHERE m.id.idUsuario = :idUsuario";
+
+    /**
+     * Estado guardado de un registro (usuario, categoría, actividad, fecha e impacto)
+     * antes de modificarlo o borrarlo, para poder descontarlo de los resúmenes mensuales.
+     */
+    private static final String ESTADO_PREVIO =
+            "SELECT h.idUsuario.id, a.idCategoria.id, a.id, h.fecha, h.impactoKg " +
+                    "FROM Huella h JOIN h.idActividad a WHERE h.id = :id";
+
+    private static final String ELIMINAR_POR_ID = "DELETE FROM Huella h WHERE h.id = :id";
+
+    /**
+     * Un registro concreto, solo si pertenece al usuario indicado.
+     */
+    private static final String BUSCAR_FILA =
+            PROYECCION_FILA + "WHERE h.id = :id AND h.idUsuario.id = :idUsuario";
+
+    /**
+     * Suma (o resta, con valores negativos) un delta a una celda del resumen mensual,
+     * creándola si todavía no existe.
+     */
+    private static final String UPSERT_RESUMEN =
+            "INSERT INTO huella_mensual (id_usuario, id_categoria, anio_mes, kg_co2, num_registros) " +
+                    "VALUES (:usuario, :categoria, :mes, :kg, :n) " +
+                    "ON DUPLICATE KEY UPDATE kg_co2 = kg_co2 + VALUES(kg_co2), " +
+                    "num_registros = num_registros + VALUES(num_registros)";
+
+    /**
+     * Elimina las celdas del resumen que se han quedado sin registros.
+     */
+    private static final String PURGAR_RESUMEN_VACIO =
+            "DELETE FROM huella_mensual WHERE id_usuario = :usuario AND id_categoria = :categoria " +
+                    "AND anio_mes = :mes AND num_registros <= 0";
+
+    private static final String BORRAR_RESUMEN = "DELETE FROM huella_mensual";
+
+    private static final String BORRAR_RESUMEN_CATEGORIA = "DELETE FROM huella_mensual WHERE id_categoria = :categoria";
+
+    /**
+     * Equivalentes de {@link #UPSERT_RESUMEN} y {@link #PURGAR_RESUMEN_VACIO} para el
+     * resumen mensual por actividad.
+     */
+    private static final String UPSERT_RESUMEN_ACTIVIDAD =
+            "INSERT INTO huella_mensual_actividad (id_usuario, id_actividad, anio_mes, kg_co2, num_registros) " +
+                    "VALUES (:usuario, :actividad, :mes, :kg, :n) " +
+                    "ON DUPLICATE KEY UPDATE kg_co2 = kg_co2 + VALUES(kg_co2), " +
+                    "num_registros = num_registros + VALUES(num_registros)";
+
+    private static final String PURGAR_RESUMEN_ACTIVIDAD_VACIO =
+            "DELETE FROM huella_mensual_actividad WHERE id_usuario = :usuario AND id_actividad = :actividad " +
+                    "AND anio_mes = :mes AND num_registros <= 0";
+
+    private static final String BORRAR_RESUMEN_ACTIVIDAD = "DELETE FROM huella_mensual_actividad";
+
+    private static final String BORRAR_RESUMEN_ACTIVIDAD_CATEGORIA =
+            "DELETE FROM huella_mensual_actividad " +
+                    "WHERE id_actividad IN (SELECT id_actividad FROM actividad WHERE id_categoria = :categoria)";
+
+    /**
+     * Recalcula el resumen mensual a partir de la tabla de huellas. Admite un filtro
+     * adicional (por ejemplo, por categoría) antes de la agrupación.
+     * Sigue la misma regla que las actualizaciones incrementales
+     * ({@link #sumarAlResumen}, {@link #restarDelResumen}): un registro sin impacto
+     * cuenta con 0 kg, y los de actividades sin categoría solo entran en el resumen
+     * por actividad.
+     */
+    private static final String RECONSTRUIR_RESUMEN =
+            "INSERT INTO huella_mensual (id_usuario, id_categoria, anio_mes, kg_co2, num_registros) " +
+                    "SELECT h.id_usuario, a.id_categoria, YEAR(h.fecha) * 100 + MONTH(h.fecha), " +
+                    "COALESCE(SUM(h.impacto_kg), 0), COUNT(*) " +
+                    "FROM huella h " +
+                    "JOIN actividad a ON a.id_actividad = h.id_actividad " +
+                    "WHERE h.id_usuario IS NOT NULL AND a.id_categoria IS NOT NULL %s" +
+                    "GROUP BY h.id_usuario, a.id_categoria, YEAR(h.fecha) * 100 + MONTH(h.fecha)";
+
+    private static final String RECONSTRUIR_RESUMEN_ACTIVIDAD =
+            "INSERT INTO huella_mensual_actividad (id_usuario, id_actividad, anio_mes, kg_co2, num_registros) " +
+                    "SELECT h.id_usuario, h.id_actividad, YEAR(h.fecha) * 100 + MONTH(h.fecha), " +
+                    "COALESCE(SUM(h.impacto_kg), 0), COUNT(*) " +
+                    "FROM huella h " +
+                    "JOIN actividad a ON a.id_actividad = h.id_actividad " +
+                    "WHERE h.id_usuario IS NOT NULL %s" +
+                    "GROUP BY h.id_usuario, h.id_actividad, YEAR(h.fecha) * 100 + MONTH(h.fecha)";
+
+    /**
+     * Inserción directa de un registro ya validado, usada por las cargas masivas.
+     */
+    private static final String INSERTAR_REGISTRO =
+            "INSERT INTO huella (id_usuario, id_actividad, valor, unidad, fecha, impacto_kg) " +
+                    "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String RANGO_IDENTIFICADORES = "SELECT MIN(id_registro), MAX(id_registro) FROM huella";
+
+    /**
+     * Recalcula el impacto guardado de un tramo de registros con el factor de emisión
+     * vigente de su categoría. Se completa con un filtro que decide qué filas tocar.
+     */
+    private static final String RECALCULAR_IMPACTO =
+            "UPDATE huella SET impacto_kg = valor * (" +
+                    "SELECT c.factor_emision FROM actividad a " +
+                    "JOIN categoria c ON c.id_categoria = a.id_categoria " +
+                    "WHERE a.id_actividad = huella.id_actividad) " +
+                    "WHERE id_registro > :desde AND id_registro <= :hasta AND ";
+
+    private static final String FILTRO_CATEGORIA =
+            "id_actividad IN (SELECT id_actividad FROM actividad WHERE id_categoria = :categoria)";
+
+    private static final String FILTRO_PENDIENTES = "impacto_kg IS NULL AND id_actividad IS NOT NULL";
+
+    /**
+     * Persiste un nuevo registro de huella en la base de datos.
+     * Gestiona su propia transacción, en la que también suma el registro a los
+     * resúmenes mensuales, para asegurar la integridad de la operación. El
+     * impacto y la categoría los resuelve quien llama con el catálogo en memoria,
+     * igual que en {@link #insertarLote}, para no consultarlos dentro de la transacción.
+     * @param huella Objeto {@link Huella} con los datos de consumo y su impacto ya calculado.
+     * @param idCategoria Categoría de la actividad del registro, o {@code null} si no tiene.
+     */
+    public void guardar(Huella huella, Integer idCategoria) {
+        Medicion m = Metricas.medir("HuellaDAO.guardar");
+        Transaction tx = null;
+        try (m; Session session = Connection.getInstance().openSession()) {
+            tx = session.beginTransaction();
+            session.persist(huella);
+            sumarAlResumen(session, huella, idCategoria);
+            tx.commit();
+        } catch (Exception e) {
+            m.fallo();
+            if (tx != null) tx.rollback();
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Actualiza un registro existente mediante la sincronización de estados (merge).
+     * Descuenta de los resúmenes mensuales el estado anterior y suma el nuevo.
+     * @param huella Registro de huella modificado, con su impacto ya recalculado.
+     * @param idCategoria Categoría de la nueva actividad del registro, o {@code null} si no tiene.
+     * @return {@code true} si el cambio se guardó, {@code false} si la transacción falló.
+     */
+    public boolean actualizar(Huella huella, Integer idCategoria) {
+        Medicion m = Metricas.medir("HuellaDAO.actualizar");
+        try (m; Session session = Connection.getInstance().openSession()) {
+            Transaction tx = session.beginTransaction();
+            try {
+                restarDelResumen(session, huella.getId());
+                session.merge(huella);
+                sumarAlResumen(session, huella, idCategoria);
+                tx.commit();
+            } catch (RuntimeException e) {
+                // Se deshace con la sesión abierta: en el catch exterior ya está cerrada
+                if (tx.isActive()) tx.rollback();
+                throw e;
+            }
+            return true;
+        } catch (Exception e) {
+            m.fallo();
+            System.err.println("Error al actualizar la huella " + huella.getId() + ": " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Elimina físicamente un registro de huella del sistema a partir de su
+     * identificador, sin necesidad de tener cargada la entidad.
+     * @param idRegistro Identificador del registro a eliminar.
+     * @return {@code true} si el borrado se confirmó, {@code false} si la transacción falló.
+     */
+    public boolean eliminar(int idRegistro) {
+        Medicion m = Metricas.medir("HuellaDAO.eliminar");
+        try (m; Session session = Connection.getInstance().openSession()) {
+            Transaction tx = session.beginTransaction();
+            try {
+                restarDelResumen(session, idRegistro);
+                session.createMutationQuery(ELIMINAR_POR_ID)
+                        .setParameter("id", idRegistro)
+                        .executeUpdate();
+                tx.commit();
+            } catch (RuntimeException e) {
+                if (tx.isActive()) tx.rollback();
+                throw e;
+            }
+            return true;
+        } catch (Exception e) {
+            m.fallo();
+            System.err.println("Error al eliminar la huella " + idRegistro + ": " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Suma un registro recién guardado a sus celdas de los resúmenes mensuales
+     * por categoría y por actividad. Un registro sin impacto cuenta con 0 kg, y si
+     * su actividad no tiene categoría solo se suma al resumen por actividad, igual
+     * que al reconstruirlos.
+     * @param session Sesión con la transacción en curso.
+     * @param huella Registro ya persistido, con su impacto calculado.
+     * @param idCategoria Categoría de la actividad del registro, o {@code null} si no tiene.
+     */
+    private void sumarAlResumen(Session session, Huella huella, Integer idCategoria) {
+        if (huella.getIdUsuario() == null || huella.getIdActividad() == null) return;
+        int usuario = huella.getIdUsuario().getId();
+        int mes = HuellaMensualId.claveMes(huella.getFecha());
+        double impacto = (huella.getImpactoKg() != null) ? huella.getImpactoKg() : 0.0;
+        if (idCategoria != null) aplicarDelta(session, usuario, idCategoria, mes, impacto, 1);
+        aplicarDeltaActividad(session, usuario, huella.getIdActividad().getId(), mes, impacto, 1);
+    }
+
+    /**
+     * Descuenta de los resúmenes mensuales el estado actualmente guardado de un
+     * registro, con la misma regla con la que se sumó: sin impacto cuenta con 0 kg
+     * y sin categoría solo se descuenta del resumen por actividad.
+     * @param session Sesión con la transacción en curso.
+     * @param idHuella Identificador del registro que se va a modificar o borrar.
+     */
+    private void restarDelResumen(Session session, Integer idHuella) {
+        if (idHuella == null) return;
+        Object[] previo = session.createQuery(ESTADO_PREVIO, Object[].class)
+                .setParameter("id", idHuella)
+                .uniqueResult();
+        if (previo == null || previo[0] == null) return;
+        int usuario = (Integer) previo[0];
+        Integer categoria = (Integer) previo[1];
+        int actividad = (Integer) previo[2];
+        int mes = HuellaMensualId.claveMes((LocalDate) previo[3]);
+        double impacto = (previo[4] != null) ? ((Number) previo[4]).doubleValue() : 0.0;
+        if (categoria != null) {
+            aplicarDelta(session, usuario, categoria, mes, -impacto, -1);
+            session.createNativeMutationQuery(PURGAR_RESUMEN_VACIO)
+                    .setParameter("usuario", usuario)
+                    .setParameter("categoria", categoria)
+                    .setParameter("mes", mes)
+                    .executeUpdate();
+        }
+        aplicarDeltaActividad(session, usuario, actividad, mes, -impacto, -1);
+        session.createNativeMutationQuery(PURGAR_RESUMEN_ACTIVIDAD_VACIO)
+                .setParameter("usuario", usuario)
+                .setParameter("actividad", actividad)
+                .setParameter("mes", mes)
+                .executeUpdate();
+    }
+
+    private void aplicarDelta(SharedSessionContract session, int usuario, int categoria, int mes, double kg, int n) {
+        session.createNativeMutationQuery(UPSERT_RESUMEN)
+                .setParameter("usuario", usuario)
+                .setParameter("categoria", categoria)
+                .setParameter("mes", mes)
+                .setParameter("kg", kg)
+                .setParameter("n", n)
+                .executeUpdate();
+    }
+
+    private void aplicarDeltaActividad(SharedSessionContract session, int usuario, int actividad, int mes,
+                                       double kg, int n) {
+        session.createNativeMutationQuery(UPSERT_RESUMEN_ACTIVIDAD)
+                .setParameter("usuario", usuario)
+                .setParameter("actividad", actividad)
+                .setParameter("mes", mes)
+                .setParameter("kg", kg)
+                .setParameter("n", n)
+                .executeUpdate();
+    }
+
+    /**
+     * Inserta un bloque de registros de un usuario en una única transacción.
+     * @param idUsuario Usuario dueño de los registros.
+     * @param lote Registros validados con su impacto ya calculado.
+     * @param tamanoBatch Número de inserciones por envío al servidor.
+     * @return Número de registros insertados, o -1 si el bloque no se pudo guardar.
+     * @see #insertarLote(Map, int)
+     */
+    public int insertarLote(int idUsuario, List<RegistroImportado> lote, int tamanoBatch) {
+        return insertarLote(Map.of(idUsuario, lote), tamanoBatch);
+    }
+
+    /**
+     * Inserta en una única transacción los registros de uno o varios usuarios.
+     * Usa una sesión sin estado y envía las inserciones por lotes JDBC (con
+     * identificadores autoincrementales Hibernate no puede agruparlas por sí mismo);
+     * después suma a los resúmenes mensuales una sola vez por celda afectada.
+     * Si algo falla, el bloque completo se deshace.
+     * @param porUsuario Registros validados, con su impacto ya calculado, agrupados por usuario.
+     * @param tamanoBatch Número de inserciones por envío al servidor.
+     * @return Número de registros insertados, o -1 si el bloque no se pudo guardar.
+     */
+    public int insertarLote(Map<Integer, List<RegistroImportado>> porUsuario, int tamanoBatch) {
+        Medicion m = Metricas.medir("HuellaDAO.insertarLote");
+        Transaction tx = null;
+        try (m; StatelessSession session = Connection.getInstance().openStatelessSession()) {
+            tx = session.beginTransaction();
+            session.doWork(conexion -> {
+                try (PreparedStatement ps = conexion.prepareStatement(INSERTAR_REGISTRO)) {
+                    int enBatch = 0;
+                    for (Map.Entry<Integer, List<RegistroImportado>> grupo : porUsuario.entrySet()) {
+                        for (RegistroImportado r : grupo.getValue()) {
+                            ps.setInt(1, grupo.getKey());
+                            ps.setInt(2, r.idActividad());
+                            ps.setFloat(3, r.valor());
+                            ps.setString(4, r.unidad());
+                            ps.setObject(5, r.fecha());
+                            ps.setDouble(6, r.impactoKg());
+                            ps.addBatch();
+                            if (++enBatch == tamanoBatch) {
+                                ps.executeBatch();
+                                enBatch = 0;
+                            }
+                        }
+                    }
+                    if (enBatch > 0) ps.executeBatch();
+                }
+            });
+
+            // Un único ajuste de cada resumen por celda (usuario, categoría o actividad, mes)
+            // en lugar de uno por fila
+            Map<HuellaMensualId, double[]> deltas = new HashMap<>();
+            Map<HuellaMensualActividadId, double[]> deltasActividad = new HashMap<>();
+            int filas = 0;
+            for (Map.Entry<Integer, List<RegistroImportado>> grupo : porUsuario.entrySet()) {
+                for (RegistroImportado r : grupo.getValue()) {
+                    int mes = HuellaMensualId.claveMes(r.fecha());
+                    acumular(deltas.computeIfAbsent(
+                            new HuellaMensualId(grupo.getKey(), r.idCategoria(), mes), k -> new double[2]), r);
+                    acumular(deltasActividad.computeIfAbsent(
+                            new HuellaMensualActividadId(grupo.getKey(), r.idActividad(), mes), k -> new double[2]), r);
+                    filas++;
+                }
+            }
+            for (Map.Entry<HuellaMensualId, double[]> d : deltas.entrySet()) {
+                HuellaMensualId celda = d.getKey();
+                aplicarDelta(session, celda.getIdUsuario(), celda.getIdCategoria(), celda.getAnioMes(),
+                        d.getValue()[0], (int) d.getValue()[1]);
+            }
+            for (Map.Entry<HuellaMensualActividadId, double[]> d : deltasActividad.entrySet()) {
+                HuellaMensualActividadId celda = d.getKey();
+                aplicarDeltaActividad(session, celda.getIdUsuario(), celda.getIdActividad(), celda.getAnioMes(),
+                        d.getValue()[0], (int) d.getValue()[1]);
+            }
+
+            tx.commit();
+            return m.filas(filas);
+        } catch (Exception e) {
+            m.fallo();
+            if (tx != null && tx.isActive()) tx.rollback();
+            System.err.println("Error al insertar un bloque de huellas: " + e.getMessage());
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
+    /**
+     * Suma un registro al acumulado {kg, registros} de una celda.
+     */
+    private static void acumular(double[] acumulado, RegistroImportado r) {
+        acumulado[0] += r.impactoKg();
+        acumulado[1]++;
+    }
+
+    /**
+     * Vuelve a generar los resúmenes mensuales completos (por categoría y por
+     * actividad) a partir de los registros de huella.
+     * Sirve para poblarlos sobre datos cargados sin pasar por este DAO o para corregir
+     * cualquier desviación. Se ejecuta en una única transacción.
+     * @return Número de celdas (usuario, categoría, mes) generadas, o -1 si falla.
+     */
+    public int reconstruirResumenMensual() {
+        Medicion m = Metricas.medir("HuellaDAO.reconstruirResumenMensual");
+        Transaction tx = null;
+        try (m; Session session = Connection.getInstance().openSession()) {
+            tx = session.beginTransaction();
+            session.createNativeMutationQuery(BORRAR_RESUMEN).executeUpdate();
+            int celdas = session.createNativeMutationQuery(String.format(RECONSTRUIR_RESUMEN, ""))
+                    .executeUpdate();
+            session.createNativeMutationQuery(BORRAR_RESUMEN_ACTIVIDAD).executeUpdate();
+            session.createNativeMutationQuery(String.format(RECONSTRUIR_RESUMEN_ACTIVIDAD, ""))
+                    .executeUpdate();
+            tx.commit();
+            return m.filas(celdas);
+        } catch (Exception e) {
+            m.fallo();
+            if (tx != null) tx.rollback();
+            System.err.println("Error al reconstruir el resumen mensual: " + e.getMessage());
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
+    /**
+     * Vuelve a generar las celdas de los resúmenes mensuales de una sola categoría
+     * y de sus actividades, por ejemplo tras recalcular los impactos por un cambio
+     * en su factor de emisión.
+     * @param idCategoria Categoría cuyas celdas se regeneran.
+     * @return Número de celdas generadas, o -1 si falla.
+     */
+    public int reconstruirResumenCategoria(int idCategoria) {
+        Medicion m = Metricas.medir("HuellaDAO.reconstruirResumenCategoria");
+        Transaction tx = null;
+        try (m; Session session = Connection.getInstance().openSession()) {
+            tx = session.beginTransaction();
+            session.createNativeMutationQuery(BORRAR_RESUMEN_CATEGORIA)
+                    .setParameter("categoria", idCategoria)
+                    .executeUpdate();
+            int celdas = session.createNativeMutationQuery(
+                            String.format(RECONSTRUIR_RESUMEN, "AND a.id_categoria = :categoria "))
+                    .setParameter("categoria", idCategoria)
+                    .executeUpdate();
+            session.createNativeMutationQuery(BORRAR_RESUMEN_ACTIVIDAD_CATEGORIA)
+                    .setParameter("categoria", idCategoria)
+                    .executeUpdate();
+            session.createNativeMutationQuery(
+                            String.format(RECONSTRUIR_RESUMEN_ACTIVIDAD, "AND a.id_categoria = :categoria "))
+                    .setParameter("categoria", idCategoria)
+                    .executeUpdate();
+            tx.commit();
+            return m.filas(celdas);
+        } catch (Exception e) {
+            m.fallo();
+            if (tx != null) tx.rollback();
+            System.err.println("Error al reconstruir el resumen de la categoría " + idCategoria + ": " + e.getMessage());
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
+    /**
+     * Obtiene el menor y el mayor identificador de registro, para poder recorrer
+     * la tabla por tramos.
+     * @return Un array {mínimo, máximo}, o {@code null} si la tabla está vacía.
+     */
+    public int[] rangoIdentificadores() {
+        Medicion m = Metricas.medir("HuellaDAO.rangoIdentificadores");
+        try (m; Session session = Connection.getInstance().openSession()) {
+            Object[] rango = session.createNativeQuery(RANGO_IDENTIFICADORES, Object[].class).getSingleResult();
+            if (rango[0] == null) return null;
+            return new int[]{((Number) rango[0]).intValue(), ((Number) rango[1]).intValue()};
+        } catch (Exception e) {
+            m.fallo();
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Recalcula en su propia transacción el impacto guardado de los registros con
+     * identificador en (desde, hasta].
+     * @param idCategoria Si no es {@code null}, solo se tocan los registros de esa
+     *                    categoría; si lo es, solo los que aún no tienen impacto.
+     * @param desde Identificador de inicio del tramo (excluido).
+     * @param hasta Identificador de fin del tramo (incluido).
+     * @return Número de filas actualizadas, o -1 si falla.
+     */
+    public int recalcularImpactoTramo(Integer idCategoria, int desde, int hasta) {
+        Medicion m = Metricas.medir("HuellaDAO.recalcularImpactoTramo");
+        Transaction tx = null;
+        try (m; Session session = Connection.getInstance().openSession()) {
+            tx = session.beginTransaction();
+            MutationQuery update = session.createNativeMutationQuery(
+                            RECALCULAR_IMPACTO + (idCategoria != null ? FILTRO_CATEGORIA : FILTRO_PENDIENTES))
+                    .setParameter("desde", desde)
+                    .setParameter("hasta", hasta);
+            if (idCategoria != null) update.setParameter("categoria", idCategoria);
+            int filas = update.executeUpdate();
+            tx.commit();
+            return m.filas(filas);
+        } catch (Exception e) {
+            m.fallo();
+            if (tx != null) tx.rollback();
+            System.err.println("Error al recalcular impactos: " + e.getMessage());
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
+    /**
+     * Recupera el historial detallado de un usuario específico.
+     * Ordena los resultados por fecha descendente para mostrar primero
+     * los registros más recientes.
+     * @param idUsuario Identificador del usuario.
+     * @return Lista de filas {@link HuellaFila} con el nombre de la actividad y de la categoría.
+     */
+    public List<HuellaFila> listarPorUsuario(int idUsuario) {
+        Medicion m = Metricas.medir("HuellaDAO.listarPorUsuario").usuario(idUsuario);
+        try (m; StatelessSession session = Connection.getInstance().openStatelessSession()) {
+            Query<HuellaFila> query = session.createQuery(LISTAR_POR_USUARIO_COMPLETO, HuellaFila.class);
+            query.setParameter("idUsuario", idUsuario);
+            return m.filas(query.getResultList());
+        } catch (Exception e) {
+            m.fallo();
+            System.err.println("Error al listar huellas: " + e.getMessage());
+            e.printStackTrace();
+            return java.util.Collections.emptyList();
+        }
+    }
+
+    /**
+     * Recupera una página del historial de un usuario, de más reciente a más antiguo.
+     * Pide una fila de más para saber si existe una página posterior sin tener que
+     * contar el historial completo.
+     * @param idUsuario Identificador del usuario.
+     * @param despuesDe Cursor devuelto por la página anterior, o {@code null} para la primera.
+     * @param tamano Número máximo de registros de la página.
+     * @return La página con sus registros y el cursor de la siguiente, si la hay.
+     */
+    public Pagina<HuellaFila> listarPagina(int idUsuario, CursorHuella despuesDe, int tamano) {
+        return listarPagina(idUsuario, FiltroHuellas.NINGUNO, despuesDe, tamano);
+    }
+
+    /**
+     * Recupera una página del historial de un usuario restringida por un filtro de
+     * búsqueda, con la misma paginación por cursor que {@link #listarPagina(int, CursorHuella, int)}.
+     * @param idUsuario Identificador del usuario.
+     * @param filtro Texto y categoría que deben cumplir los registros.
+     * @param despuesDe Cursor de la página anterior, o {@code null} para la primera.
+     * @param tamano Número máximo de registros de la página.
+     * @return La página con sus registros y el cursor para continuar, o {@code null} si
+     * ocurre un error (para que no se confunda con un historial vacío).
+     */
+    public Pagina<HuellaFila> listarPagina(int idUsuario, FiltroHuellas filtro, CursorHuella despuesDe, int tamano) {
+        Medicion m = Metricas.medir("HuellaDAO.listarPagina").usuario(idUsuario);
+        try (m; StatelessSession session = Connection.getInstance().openStatelessSession()) {
+            String hql = PAGINA_HISTORIAL + condicionesFiltro(filtro)
+                    + (despuesDe == null ? "" : DESPUES_DEL_CURSOR) + ORDEN_HISTORIAL;
+            Query<HuellaFila> query = session.createQuery(hql, HuellaFila.class);
+            query.setParameter("idUsuario", idUsuario);
+            asignarFiltro(query, filtro);
+            if (despuesDe != null) {
+                query.setParameter("fecha", despuesDe.fecha());
+                query.setParameter("id", despuesDe.id());
+            }
+            query.setMaxResults(tamano + 1);
+            List<HuellaFila> filas = m.filas(query.getResultList());
+
+            if (filas.size() <= tamano) {
+                return new Pagina<>(filas, null);
+            }
+            List<HuellaFila> pagina = filas.subList(0, tamano);
+            return new Pagina<>(pagina, CursorHuella.de(pagina.get(tamano - 1)));
+        } catch (Exception e) {
+            m.fallo();
+            System.err.println("Error al paginar huellas: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Recupera los registros de un usuario a partir de una posición concreta del
+     * historial. Es la alternativa a {@link #listarPagina} cuando se salta a una zona
+     * del historial de la que no se conoce ningún cursor (por ejemplo, al arrastrar
+     * la barra de desplazamiento).
+     * @param idUsuario Identificador del usuario.
+     * @param posicion Número de registros a saltar desde el más reciente.
+     * @param tamano Número máximo de registros a devolver.
+     * @return Lista de registros con actividad y categoría precargadas.
+     */
+    public List<HuellaFila> listarPorPosicion(int idUsuario, int posicion, int tamano) {
+        return listarPorPosicion(idUsuario, FiltroHuellas.NINGUNO, posicion, tamano);
+    }
+
+    /**
+     * Recupera los registros que cumplen un filtro a partir de una posición concreta
+     * de los resultados.
+     * @param idUsuario Identificador del usuario.
+     * @param filtro Texto y categoría que deben cumplir los registros.
+     * @param posicion Número de resultados a saltar desde el más reciente.
+     * @param tamano Número máximo de registros a devolver.
+     * @return Lista de registros con actividad y categoría precargadas, o {@code null} si ocurre un error.
+     */
+    public List<HuellaFila> listarPorPosicion(int idUsuario, FiltroHuellas filtro, int posicion, int tamano) {
+        Medicion m = Metricas.medir("HuellaDAO.listarPorPosicion").usuario(idUsuario);
+        try (m; StatelessSession session = Connection.getInstance().openStatelessSession()) {
+            Query<HuellaFila> query = session.createQuery(
+                    PAGINA_HISTORIAL + condicionesFiltro(filtro) + ORDEN_HISTORIAL, HuellaFila.class);
+            query.setParameter("idUsuario", idUsuario);
+            asignarFiltro(query, filtro);
+            return m.filas(query.setFirstResult(posicion)
+                    .setMaxResults(tamano)
+                    .getResultList());
+        } catch (Exception e) {
+            m.fallo();
+            System.err.println("Error al listar huellas por posición: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Recupera un registro del historial de un usuario.
+     * @param idUsuario Identificador del dueño del registro.
+     * @param idRegistro Identificador del registro.
+     * @return La fila del registro, o {@code null} si no existe, es de otro usuario o hay un error.
+     */
+    public HuellaFila buscarFila(int idUsuario, int idRegistro) {
+        Medicion m = Metricas.medir("HuellaDAO.buscarFila").usuario(idUsuario);
+        try (m; StatelessSession session = Connection.getInstance().openStatelessSession()) {
+            return session.createQuery(BUSCAR_FILA, HuellaFila.class)
+                    .setParameter("id", idRegistro)
+                    .setParameter("idUsuario", idUsuario)
+                    .uniqueResult();
+        } catch (Exception e) {
+            m.fallo();
+            System.err.println("Error al buscar la huella " + idRegistro + ": " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Cuenta los registros de huella de un usuario.
+     * @param idUsuario Identificador del usuario.
+     * @return Número de registros, o {@code null} si ocurre un error.
+     */
+    public Long contarPorUsuario(int idUsuario) {
+        return contarPorUsuario(idUsuario, FiltroHuellas.NINGUNO);
+    }
+
+    /**
+     * Cuenta los registros de un usuario que cumplen un filtro de búsqueda.
+     * @param idUsuario Identificador del usuario.
+     * @param filtro Texto y categoría que deben cumplir los registros.
+     * @return Número de registros, o {@code null} si ocurre un error.
+     */
+    public Long contarPorUsuario(int idUsuario, FiltroHuellas filtro) {
+        Medicion m = Metricas.medir("HuellaDAO.contarPorUsuario").usuario(idUsuario);
+        try (m; Session session = Connection.getInstance().openSession()) {
+            Query<Long> query = session.createQuery(CONTAR_POR_USUARIO + condicionesFiltro(filtro), Long.class);
+            query.setParameter("idUsuario", idUsuario);
+            asignarFiltro(query, filtro);
+            Long total = query.uniqueResult();
+            return (total != null) ? total : 0L;
+        } catch (Exception e) {
+            m.fallo();
+            System.err.println("Error al contar huellas: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Fragmento HQL con las condiciones que aporta un filtro de búsqueda.
+     */
+    private static String condicionesFiltro(FiltroHuellas filtro) {
+        return (filtro.tieneTexto() ? FILTRO_TEXTO : "")
+                + (filtro.tieneCategoria() ? FILTRO_CATEGORIA_ACTIVIDAD : "");
+    }
+
+    /**
+     * Asigna los parámetros de las condiciones añadidas por {@link #condicionesFiltro}.
+     */
+    private static void asignarFiltro(Query<?> query, FiltroHuellas filtro) {
+        if (filtro.tieneTexto()) query.setParameter("texto", filtro.patronTexto());
+        if (filtro.tieneCategoria()) query.setParameter("idCategoria", filtro.idCategoria());
+    }
+
+    /**
+     * Recorre el historial completo de un usuario fila a fila, sin mantenerlo en
+     * memoria. Usa un cursor de solo avance sobre una sesión sin estado y pide las
+     * filas al servidor en tandas de {@code tamanoFetch}, de modo que el consumo de
+     * memoria no depende de la longitud del historial.
+     * @param idUsuario Identificador del usuario.
+     * @param tamanoFetch Número de filas que se traen del servidor en cada viaje.
+     * @param porFila Recibe cada fila; si devuelve {@code false} el recorrido se detiene.
+     * @return Número de filas entregadas, o -1 si ocurre un error.
+     */
+    public long recorrerHistorial(int idUsuario, int tamanoFetch, Predicate<HuellaFila> porFila) {
+        Medicion m = Metricas.medir("HuellaDAO.recorrerHistorial").usuario(idUsuario);
+        try (m; StatelessSession session = Connection.getInstance().openStatelessSession();
+             ScrollableResults<HuellaFila> filas = session
+                     .createQuery(LISTAR_POR_USUARIO_COMPLETO, HuellaFila.class)
+                     .setParameter("idUsuario", idUsuario)
+                     .setFetchSize(tamanoFetch)
+                     .setReadOnly(true)
+                     .scroll(ScrollMode.FORWARD_ONLY)) {
+            long entregadas = 0;
+            while (filas.next()) {
+                entregadas++;
+                if (!porFila.test(filas.get())) break;
+            }
+            return m.filas(entregadas);
+        } catch (Exception e) {
+            m.fallo();
+            System.err.println("Error al recorrer el historial: " + e.getMessage());
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
+    /**
+     * Realiza el cálculo matemático de la huella de carbono total del usuario.
+     * Suma las celdas del resumen mensual, por lo que su coste no crece con el
+     * tamaño del historial.
+     * @param idUsuario Identificador del usuario.
+     * @return Suma total de CO2 equivalente, 0.0 si no existen registros o {@code null} si ocurre un error.
+     */
+    public Double obtenerImpactoTotal(int idUsuario) {
+        Medicion m = Metricas.medir("HuellaDAO.obtenerImpactoTotal").usuario(idUsuario);
+        try (m; Session session = Connection.getInstance().openSession()) {
+            Query<Double> query = session.createQuery(SUMA_IMPACTO_TOTAL, Double.class);
+            query.setParameter("idUsuario", idUsuario);
+            Double resultado = query.uniqueResult();
+            return (resultado != null) ? resultado : 0.0;
+        } catch (Exception e) {
+            m.fallo();
+            System.err.println("Error al sumar el impacto total: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+}
\ No newline at end of file
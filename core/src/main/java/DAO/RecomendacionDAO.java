@@ -4,6 +4,8 @@ import connection.Connection;
 import model.Recomendacion;
 import org.hibernate.Session;
 import org.hibernate.query.Query;
+import utils.Medicion;
+import utils.Metricas;
 import java.util.List;
 
 /**
@@ -19,6 +21,29 @@ public class RecomendacionDAO {
      */
     private static final String LISTAR_POR_CATEGORIA = "FROM Recomendacion WHERE idCategoria.id = :idCat";
 
+    /**
+     * Consulta HQL para obtener todas las recomendaciones junto con su categoría.
+     */
+    private static final String LISTAR_TODAS = "SELECT r FROM Recomendacion r JOIN FETCH r.idCategoria ORDER BY r.id";
+
+    /**
+     * Recupera todas las recomendaciones del sistema con su categoría precargada.
+     * Es la consulta que usa el catálogo en memoria para no tener que filtrar
+     * contra la base de datos en cada pantalla.
+     * * @return Lista de {@link Recomendacion}, o {@code null} si ocurre un error.
+     */
+    public List<Recomendacion> listarTodas() {
+        Medicion m = Metricas.medir("RecomendacionDAO.listarTodas");
+        try (m; Session session = Connection.getInstance().openSession()) {
+            return m.filas(session.createQuery(LISTAR_TODAS, Recomendacion.class).getResultList());
+        } catch (Exception e) {
+            m.fallo();
+            System.err.println("Error al listar las recomendaciones: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+
     /**
      * Recupera una lista de recomendaciones vinculadas a una categoría específica.
      * Utiliza parámetros nombrados en la consulta para prevenir ataques de
@@ -28,13 +53,15 @@ public class RecomendacionDAO {
      * o {@code null} si ocurre una anomalía en la conexión.
      */
     public List<Recomendacion> listarPorCategoria(int idCategoria) {
+        Medicion m = Metricas.medir("RecomendacionDAO.listarPorCategoria");
         // Apertura de sesión mediante el Singleton de conexión
-        try (Session session = Connection.getInstance().openSession()) {
+        try (m; Session session = Connection.getInstance().openSession()) {
             Query<Recomendacion> query = session.createQuery(LISTAR_POR_CATEGORIA, Recomendacion.class);
             // Asignación segura del parámetro de filtrado
             query.setParameter("idCat", idCategoria);
-            return query.getResultList();
+            return m.filas(query.getResultList());
         } catch (Exception e) {
+            m.fallo();
             System.err.println("Error al filtrar recomendaciones por categoría: " + e.getMessage());
             e.printStackTrace();
             return null;
@@ -5,6 +5,8 @@ import model.Usuario;
 import org.hibernate.Session;
 import org.hibernate.Transaction;
 import org.hibernate.query.Query;
+import utils.Medicion;
+import utils.Metricas;
 
 /**
  * Clase de acceso a datos (DAO) para la entidad Usuario.
@@ -28,12 +30,14 @@ public class UsuarioDAO {
      * @return El objeto {@link Usuario} correspondiente o {@code null} si no se encuentra.
      */
     public Usuario buscarPorEmail(String email) {
-        try (Session session = Connection.getInstance().openSession()) {
+        Medicion m = Metricas.medir("UsuarioDAO.buscarPorEmail");
+        try (m; Session session = Connection.getInstance().openSession()) {
             Query<Usuario> query = session.createQuery(BUSCAR_POR_EMAIL, Usuario.class);
             query.setParameter("email", email);
             // uniqueResult devuelve un solo objeto o lanza excepción si hay duplicados
             return query.uniqueResult();
         } catch (Exception e) {
+            m.fallo();
             System.err.println("Error al buscar usuario por email: " + e.getMessage());
             e.printStackTrace();
             return null;
@@ -47,14 +51,16 @@ public class UsuarioDAO {
      * * @param usuario Instancia de {@link Usuario} con los datos de registro.
      */
     public void guardar(Usuario usuario) {
+        Medicion m = Metricas.medir("UsuarioDAO.guardar");
         Transaction transaction = null;
-        try (Session session = Connection.getInstance().openSession()) {
+        try (m; Session session = Connection.getInstance().openSession()) {
             transaction = session.beginTransaction();
             // persist transfiere el objeto al estado 'managed' dentro del contexto de Hibernate
             session.persist(usuario);
             transaction.commit();
             System.out.println("Usuario registrado correctamente en la base de datos.");
         } catch (Exception e) {
+            m.fallo();
             if (transaction != null) {
                 transaction.rollback();
             }
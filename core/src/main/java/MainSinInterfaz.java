@@ -0,0 +1,151 @@
+import DAO.HuellaDAO;
+import api.ServidorApi;
+import connection.Connection;
+import connection.PerfilBaseDatos;
+import model.ResultadoImportacion;
+import services.Diagnostico;
+import services.EscrituraDiferida;
+import services.GeneradorDatos;
+import services.ImportadorHuellas;
+import services.RecalculoImpacto;
+import utils.GrabacionContinua;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Lanza las tareas de la aplicación que no necesitan interfaz gráfica. Vive en
+ * el módulo {@code core}, sin JavaFX en el classpath, para que los procesos sin
+ * ventana (servidor de la API, importaciones, regeneración de datos) arranquen
+ * antes y ocupen menos memoria; el {@code Main} del módulo {@code desktop} lo
+ * consulta primero y solo abre la interfaz si no se pidió ninguna tarea.
+ * Con {@code --embebido} trabaja sobre una base de datos H2 local en lugar del
+ * servidor MySQL; se puede combinar con el resto de opciones.
+ * Con {@code --reconstruir-resumen} calcula el impacto de los registros antiguos que
+ * aún no lo tienen, regenera el resumen mensual de huellas a partir de los registros
+ * existentes y termina.
+ * Con {@code --importar-csv <archivo> <idUsuario>} importa las huellas de un CSV
+ * exportado desde la aplicación y termina.
+ * Con {@code --generar-datos <usuarios> <años> [semilla]} crea usuarios sintéticos
+ * con su historial de huellas y sus hábitos, para pruebas de escala, y termina.
+ * Con {@code -Dmetricas.archivo=<ruta>} se vuelca periódicamente el informe de
+ * diagnóstico (tiempos, Hibernate, pool y cachés) en ese archivo.
+ * Con {@code --jfr} mantiene una grabación continua de Java Flight Recorder con
+ * los eventos de consultas y pantallas, que se guarda al cerrar.
+ * Con {@code --server [puerto]} arranca sin interfaz y sirve la API JSON
+ * ({@link ServidorApi}) hasta que se detiene el proceso.
+ */
+public class MainSinInterfaz {
+
+    private static final String USO = """
+            Uso: [--embebido] [--jfr] <tarea>
+              --server [puerto]
+              --reconstruir-resumen
+              --importar-csv <archivo> <idUsuario>
+              --generar-datos <usuarios> <años> [semilla]""";
+
+    public static void main(String[] args) {
+        if (!ejecutar(args)) {
+            System.err.println(USO);
+        }
+    }
+
+    /**
+     * Aplica las opciones globales y ejecuta la tarea sin interfaz pedida, si la hay.
+     * * @param args Argumentos de la línea de órdenes.
+     * @return true si se ejecutó (o se intentó) una tarea; false si no se pidió
+     * ninguna y hay que abrir la interfaz.
+     */
+    public static boolean ejecutar(String[] args) {
+        List<String> opciones = Arrays.asList(args);
+
+        if (opciones.contains("--embebido")) {
+            System.setProperty(PerfilBaseDatos.PROPIEDAD, PerfilBaseDatos.EMBEBIDO.name());
+        }
+        if (opciones.contains("--jfr")) {
+            System.setProperty(GrabacionContinua.PROPIEDAD, "true");
+        }
+        GrabacionContinua.iniciar();
+        Diagnostico.iniciarVolcado();
+
+        if (opciones.contains("--reconstruir-resumen")) {
+            new RecalculoImpacto().recalcularPendientes();
+            int celdas = new HuellaDAO().reconstruirResumenMensual();
+            System.out.println(celdas >= 0
+                    ? "Resumen mensual reconstruido: " + celdas + " celdas."
+                    : "No se pudo reconstruir el resumen mensual.");
+            Diagnostico.detenerVolcado();
+            Connection.shutdown();
+            return true;
+        }
+
+        int importar = opciones.indexOf("--importar-csv");
+        if (importar >= 0) {
+            if (importar + 2 >= args.length) {
+                System.err.println("Uso: --importar-csv <archivo> <idUsuario>");
+                return true;
+            }
+            try {
+                ResultadoImportacion r = new ImportadorHuellas()
+                        .importar(Path.of(args[importar + 1]), Integer.parseInt(args[importar + 2]));
+                r.motivos().forEach(m -> System.err.println("Rechazada: " + m));
+            } catch (Exception e) {
+                System.err.println("No se pudo importar el archivo: " + e.getMessage());
+            } finally {
+                Diagnostico.detenerVolcado();
+                Connection.shutdown();
+            }
+            return true;
+        }
+
+        int generar = opciones.indexOf("--generar-datos");
+        if (generar >= 0) {
+            if (generar + 2 >= args.length) {
+                System.err.println("Uso: --generar-datos <usuarios> <años> [semilla]");
+                return true;
+            }
+            try {
+                long semilla = (generar + 3 < args.length) ? Long.parseLong(args[generar + 3]) : 42L;
+                new GeneradorDatos().generar(Integer.parseInt(args[generar + 1]),
+                        Integer.parseInt(args[generar + 2]), semilla);
+            } catch (Exception e) {
+                System.err.println("No se pudieron generar los datos: " + e.getMessage());
+            } finally {
+                Diagnostico.detenerVolcado();
+                Connection.shutdown();
+            }
+            return true;
+        }
+
+        int servidor = opciones.indexOf("--server");
+        if (servidor >= 0) {
+            try {
+                int puerto = (servidor + 1 < args.length && args[servidor + 1].matches("\\d+"))
+                        ? Integer.parseInt(args[servidor + 1]) : ServidorApi.puertoPorDefecto();
+                // La base de datos se prepara antes de aceptar la primera petición
+                Connection.getInstance();
+                ServidorApi api = new ServidorApi(puerto);
+                // Una única parada ordenada: primero se dejan de aceptar peticiones, después
+                // se vacía la cola de escritura diferida (registros ya respondidos con 202)
+                // y solo entonces se cierra la conexión
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                    api.detener();
+                    EscrituraDiferida.detener();
+                    Diagnostico.detenerVolcado();
+                    Connection.shutdown();
+                }, "parada-api"));
+                api.iniciar();
+            } catch (Exception e) {
+                System.err.println("No se pudo arrancar el servidor de la API: " + e.getMessage());
+                e.printStackTrace();
+                EscrituraDiferida.detener();
+                Diagnostico.detenerVolcado();
+                Connection.shutdown();
+            }
+            return true;
+        }
+
+        return false;
+    }
+}
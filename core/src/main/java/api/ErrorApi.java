@@ -0,0 +1,23 @@
+package api;
+
+/**
+ * Error de una petición que se devuelve al cliente con su código HTTP y un
+ * mensaje, en lugar de un error interno.
+ */
+class ErrorApi extends RuntimeException {
+
+    private final int estado;
+
+    /**
+     * @param estado Código HTTP de la respuesta.
+     * @param mensaje Motivo, que se envía al cliente.
+     */
+    ErrorApi(int estado, String mensaje) {
+        super(mensaje);
+        this.estado = estado;
+    }
+
+    int getEstado() {
+        return estado;
+    }
+}
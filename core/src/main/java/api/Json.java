@@ -0,0 +1,242 @@
+package api;
+
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Conversión mínima entre objetos de Java y JSON para la API, sin dependencias.
+ * Al escribir admite mapas, colecciones, records (por sus componentes), números,
+ * booleanos y texto; el resto de valores (fechas, meses, enumerados) se escriben
+ * como texto con su {@code toString()}. Al leer devuelve mapas, listas, texto,
+ * números {@code Double}, booleanos y {@code null}.
+ */
+final class Json {
+
+    private Json() {
+    }
+
+    /**
+     * Escribe un valor como JSON.
+     * @param valor Valor a convertir.
+     * @return El texto JSON.
+     */
+    static String escribir(Object valor) {
+        StringBuilder sb = new StringBuilder(256);
+        escribir(sb, valor);
+        return sb.toString();
+    }
+
+    private static void escribir(StringBuilder sb, Object valor) {
+        if (valor == null) {
+            sb.append("null");
+        } else if (valor instanceof CharSequence texto) {
+            escribirTexto(sb, texto.toString());
+        } else if (valor instanceof Boolean || valor instanceof Integer || valor instanceof Long) {
+            sb.append(valor);
+        } else if (valor instanceof Float f) {
+            // Se escribe como float para no arrastrar los decimales de la conversión a double
+            if (f.isNaN() || f.isInfinite()) sb.append("null");
+            else sb.append(f.floatValue());
+        } else if (valor instanceof Number n) {
+            double d = n.doubleValue();
+            if (Double.isNaN(d) || Double.isInfinite(d)) sb.append("null");
+            else sb.append(d);
+        } else if (valor instanceof Map<?, ?> mapa) {
+            sb.append('{');
+            boolean primero = true;
+            for (Map.Entry<?, ?> e : mapa.entrySet()) {
+                if (!primero) sb.append(',');
+                primero = false;
+                escribirTexto(sb, String.valueOf(e.getKey()));
+                sb.append(':');
+                escribir(sb, e.getValue());
+            }
+            sb.append('}');
+        } else if (valor instanceof Iterable<?> lista) {
+            sb.append('[');
+            boolean primero = true;
+            for (Object elemento : lista) {
+                if (!primero) sb.append(',');
+                primero = false;
+                escribir(sb, elemento);
+            }
+            sb.append(']');
+        } else if (valor instanceof Record registro) {
+            sb.append('{');
+            boolean primero = true;
+            for (RecordComponent componente : registro.getClass().getRecordComponents()) {
+                if (!primero) sb.append(',');
+                primero = false;
+                escribirTexto(sb, componente.getName());
+                sb.append(':');
+                try {
+                    escribir(sb, componente.getAccessor().invoke(registro));
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException("No se puede leer " + componente.getName(), e);
+                }
+            }
+            sb.append('}');
+        } else {
+            escribirTexto(sb, valor.toString());
+        }
+    }
+
+    private static void escribirTexto(StringBuilder sb, String texto) {
+        sb.append('"');
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+                }
+            }
+        }
+        sb.append('"');
+    }
+
+    /**
+     * Lee un objeto JSON.
+     * @param texto Texto a interpretar.
+     * @return Los campos del objeto, en su orden.
+     * @throws IllegalArgumentException Si el texto no es un objeto JSON válido.
+     */
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> leerObjeto(String texto) {
+        Lector lector = new Lector(texto);
+        Object valor = lector.valor();
+        lector.saltarEspacios();
+        if (lector.pos != texto.length()) throw lector.error("contenido sobrante");
+        if (!(valor instanceof Map)) throw new IllegalArgumentException("Se esperaba un objeto JSON");
+        return (Map<String, Object>) valor;
+    }
+
+    /**
+     * Analizador descendente recursivo sobre el texto completo.
+     */
+    private static final class Lector {
+
+        private final String texto;
+        private int pos;
+
+        Lector(String texto) {
+            this.texto = texto;
+        }
+
+        Object valor() {
+            saltarEspacios();
+            if (pos >= texto.length()) throw error("fin inesperado");
+            char c = texto.charAt(pos);
+            return switch (c) {
+                case '{' -> objeto();
+                case '[' -> lista();
+                case '"' -> texto();
+                case 't' -> literal("true", Boolean.TRUE);
+                case 'f' -> literal("false", Boolean.FALSE);
+                case 'n' -> literal("null", null);
+                default -> numero();
+            };
+        }
+
+        private Map<String, Object> objeto() {
+            Map<String, Object> campos = new LinkedHashMap<>();
+            pos++;
+            saltarEspacios();
+            if (consumir('}')) return campos;
+            do {
+                saltarEspacios();
+                if (pos >= texto.length() || texto.charAt(pos) != '"') throw error("se esperaba un nombre de campo");
+                String nombre = texto();
+                saltarEspacios();
+                if (!consumir(':')) throw error("se esperaba ':'");
+                campos.put(nombre, valor());
+                saltarEspacios();
+            } while (consumir(','));
+            if (!consumir('}')) throw error("se esperaba '}'");
+            return campos;
+        }
+
+        private List<Object> lista() {
+            List<Object> elementos = new ArrayList<>();
+            pos++;
+            saltarEspacios();
+            if (consumir(']')) return elementos;
+            do {
+                elementos.add(valor());
+                saltarEspacios();
+            } while (consumir(','));
+            if (!consumir(']')) throw error("se esperaba ']'");
+            return elementos;
+        }
+
+        private String texto() {
+            StringBuilder sb = new StringBuilder();
+            pos++;
+            while (pos < texto.length()) {
+                char c = texto.charAt(pos++);
+                if (c == '"') return sb.toString();
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                if (pos >= texto.length()) break;
+                char escape = texto.charAt(pos++);
+                switch (escape) {
+                    case 'n' -> sb.append('\n');
+                    case 'r' -> sb.append('\r');
+                    case 't' -> sb.append('\t');
+                    case 'b' -> sb.append('\b');
+                    case 'f' -> sb.append('\f');
+                    case 'u' -> {
+                        if (pos + 4 > texto.length()) throw error("escape \\u incompleto");
+                        sb.append((char) Integer.parseInt(texto.substring(pos, pos + 4), 16));
+                        pos += 4;
+                    }
+                    default -> sb.append(escape);
+                }
+            }
+            throw error("texto sin cerrar");
+        }
+
+        private Object literal(String palabra, Object valor) {
+            if (!texto.startsWith(palabra, pos)) throw error("valor desconocido");
+            pos += palabra.length();
+            return valor;
+        }
+
+        private Double numero() {
+            int inicio = pos;
+            while (pos < texto.length() && "+-0123456789.eE".indexOf(texto.charAt(pos)) >= 0) pos++;
+            if (inicio == pos) throw error("valor desconocido");
+            try {
+                return Double.valueOf(texto.substring(inicio, pos));
+            } catch (NumberFormatException e) {
+                throw error("número no válido");
+            }
+        }
+
+        private boolean consumir(char c) {
+            if (pos < texto.length() && texto.charAt(pos) == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        void saltarEspacios() {
+            while (pos < texto.length() && Character.isWhitespace(texto.charAt(pos))) pos++;
+        }
+
+        IllegalArgumentException error(String motivo) {
+            return new IllegalArgumentException("JSON no válido en la posición " + pos + ": " + motivo);
+        }
+    }
+}
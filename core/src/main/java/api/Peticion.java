@@ -0,0 +1,153 @@
+package api;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+
+/**
+ * Petición recibida por la API, con el usuario de la sesión ya resuelto y
+ * métodos para leer los parámetros de la URL y los campos del cuerpo JSON.
+ * Los datos que faltan o no tienen el formato esperado se rechazan con un
+ * {@link ErrorApi} 400.
+ */
+final class Peticion {
+
+    /**
+     * Tamaño máximo del cuerpo de una petición.
+     */
+    private static final int MAX_CUERPO = 64 * 1024;
+
+    private final HttpExchange intercambio;
+    private final Matcher ruta;
+    private final Integer idUsuario;
+    private final String token;
+    private Map<String, String> parametros;
+
+    Peticion(HttpExchange intercambio, Matcher ruta, Integer idUsuario, String token) {
+        this.intercambio = intercambio;
+        this.ruta = ruta;
+        this.idUsuario = idUsuario;
+        this.token = token;
+    }
+
+    /**
+     * Usuario de la sesión. Solo es nulo en las rutas públicas.
+     */
+    int idUsuario() {
+        return idUsuario;
+    }
+
+    String token() {
+        return token;
+    }
+
+    /**
+     * Identificador numérico de la ruta ({@code {id}} en la plantilla).
+     */
+    int idRuta() {
+        try {
+            return Integer.parseInt(ruta.group(1));
+        } catch (NumberFormatException e) {
+            throw new ErrorApi(404, "Recurso no encontrado");
+        }
+    }
+
+    /**
+     * Valor de un parámetro de la URL.
+     * @return El valor, o {@code null} si no viene o está vacío.
+     */
+    String parametro(String nombre) {
+        if (parametros == null) {
+            parametros = new HashMap<>();
+            String consulta = intercambio.getRequestURI().getRawQuery();
+            if (consulta != null) {
+                for (String par : consulta.split("&")) {
+                    int igual = par.indexOf('=');
+                    if (igual <= 0) continue;
+                    parametros.put(URLDecoder.decode(par.substring(0, igual), StandardCharsets.UTF_8),
+                            URLDecoder.decode(par.substring(igual + 1), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        String valor = parametros.get(nombre);
+        return (valor == null || valor.isBlank()) ? null : valor;
+    }
+
+    /**
+     * Valor entero de un parámetro de la URL dentro de un rango.
+     */
+    int parametroEntero(String nombre, int porDefecto, int minimo, int maximo) {
+        String valor = parametro(nombre);
+        if (valor == null) return porDefecto;
+        try {
+            int n = Integer.parseInt(valor.trim());
+            if (n < minimo || n > maximo) {
+                throw new ErrorApi(400, "El parámetro '" + nombre + "' debe estar entre " + minimo + " y " + maximo);
+            }
+            return n;
+        } catch (NumberFormatException e) {
+            throw new ErrorApi(400, "El parámetro '" + nombre + "' debe ser un número entero");
+        }
+    }
+
+    /**
+     * Lee el cuerpo de la petición como un objeto JSON.
+     */
+    Map<String, Object> cuerpo() throws IOException {
+        try (InputStream entrada = intercambio.getRequestBody()) {
+            byte[] bytes = entrada.readNBytes(MAX_CUERPO + 1);
+            if (bytes.length > MAX_CUERPO) throw new ErrorApi(413, "El cuerpo de la petición es demasiado grande");
+            if (bytes.length == 0) throw new ErrorApi(400, "Falta el cuerpo JSON de la petición");
+            return Json.leerObjeto(new String(bytes, StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new ErrorApi(400, e.getMessage());
+        }
+    }
+
+    /**
+     * Campo de texto obligatorio de un cuerpo JSON.
+     */
+    static String texto(Map<String, Object> cuerpo, String campo) {
+        String valor = textoOpcional(cuerpo, campo);
+        if (valor == null) throw new ErrorApi(400, "Falta el campo '" + campo + "'");
+        return valor;
+    }
+
+    /**
+     * Campo de texto opcional de un cuerpo JSON.
+     * @return El texto, o {@code null} si no viene o está vacío.
+     */
+    static String textoOpcional(Map<String, Object> cuerpo, String campo) {
+        Object valor = cuerpo.get(campo);
+        if (valor == null) return null;
+        if (!(valor instanceof String texto)) throw new ErrorApi(400, "El campo '" + campo + "' debe ser un texto");
+        return texto.isBlank() ? null : texto.trim();
+    }
+
+    /**
+     * Campo numérico obligatorio de un cuerpo JSON.
+     */
+    static double numero(Map<String, Object> cuerpo, String campo) {
+        Object valor = cuerpo.get(campo);
+        if (valor == null) throw new ErrorApi(400, "Falta el campo '" + campo + "'");
+        if (!(valor instanceof Number n)) throw new ErrorApi(400, "El campo '" + campo + "' debe ser un número");
+        return n.doubleValue();
+    }
+
+    /**
+     * Campo entero obligatorio de un cuerpo JSON.
+     */
+    static int entero(Map<String, Object> cuerpo, String campo) {
+        double valor = numero(cuerpo, campo);
+        if (valor != Math.rint(valor) || Math.abs(valor) > Integer.MAX_VALUE) {
+            throw new ErrorApi(400, "El campo '" + campo + "' debe ser un número entero");
+        }
+        return (int) valor;
+    }
+}
@@ -0,0 +1,314 @@
+package api;
+
+import model.Actividad;
+import model.Categoria;
+import model.CursorHuella;
+import model.DashboardSnapshot;
+import model.FiltroHuellas;
+import model.Habito;
+import model.HabitoFila;
+import model.Huella;
+import model.HuellaFila;
+import model.Pagina;
+import model.Usuario;
+import services.ActividadService;
+import services.CategoriaService;
+import services.EscrituraDiferida;
+import services.HabitoService;
+import services.HuellaService;
+import services.UsuarioService;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Operaciones de la API. Cada una traduce la petición a una llamada a los
+ * servicios de la aplicación y su resultado a JSON; no hay lógica de negocio ni
+ * consultas propias, así que la API se beneficia de las mismas cachés que la
+ * interfaz de escritorio.
+ * <pre>
+ * POST   /api/login                 {email, contrasena} → {token, usuario}
+ * POST   /api/logout
+ * GET    /api/categorias
+ * GET    /api/actividades
+ * GET    /api/huellas               ?tamano=&amp;cursor=&amp;texto=&amp;categoria= → {elementos, siguiente}
+ * POST   /api/huellas               {idActividad, valor, unidad?, fecha?}
+ * GET    /api/huellas/{id}
+ * PUT    /api/huellas/{id}          {idActividad, valor, unidad?, fecha?}
+ * DELETE /api/huellas/{id}
+ * GET    /api/estadisticas
+ * GET    /api/dashboard             ?top=
+ * GET    /api/habitos
+ * PUT    /api/habitos/{idActividad} {frecuencia, tipo}
+ * DELETE /api/habitos/{idActividad}
+ * </pre>
+ */
+class RecursosApi {
+
+    /**
+     * Registros máximos por página del historial.
+     */
+    private static final int TAMANO_MAXIMO_PAGINA = 500;
+
+    private static final int TOP_MAXIMO_DASHBOARD = 20;
+
+    /**
+     * Frecuencias admitidas para un hábito, las mismas que ofrece la interfaz.
+     */
+    private static final Set<String> TIPOS_HABITO = Set.of("Diario", "Semanal", "Mensual");
+
+    private final Tokens tokens;
+    private final UsuarioService usuarioService = new UsuarioService();
+    private final HuellaService huellaService = new HuellaService();
+    private final HabitoService habitoService = new HabitoService();
+    private final CategoriaService categoriaService = new CategoriaService();
+    private final ActividadService actividadService = new ActividadService();
+
+    RecursosApi(Tokens tokens) {
+        this.tokens = tokens;
+    }
+
+    /**
+     * Tabla de rutas del servidor.
+     */
+    List<Ruta> rutas() {
+        return List.of(
+                Ruta.publica("POST", "/api/login", this::login),
+                Ruta.de("POST", "/api/logout", this::logout),
+                Ruta.de("GET", "/api/categorias", p -> Respuesta.ok(categorias())),
+                Ruta.de("GET", "/api/actividades", p -> Respuesta.ok(actividades())),
+                Ruta.de("GET", "/api/huellas", this::paginaHistorial),
+                Ruta.de("POST", "/api/huellas", this::crearHuella),
+                Ruta.de("GET", "/api/huellas/{id}", p -> Respuesta.ok(huellaDelUsuario(p))),
+                Ruta.de("PUT", "/api/huellas/{id}", this::modificarHuella),
+                Ruta.de("DELETE", "/api/huellas/{id}", this::borrarHuella),
+                Ruta.de("GET", "/api/estadisticas",
+                        p -> Respuesta.ok(disponible(huellaService.obtenerEstadisticas(p.idUsuario())))),
+                Ruta.de("GET", "/api/dashboard", this::dashboard),
+                Ruta.de("GET", "/api/habitos", p -> Respuesta.ok(disponible(habitoService.misHabitos(p.idUsuario())))),
+                Ruta.de("PUT", "/api/habitos/{id}", this::guardarHabito),
+                Ruta.de("DELETE", "/api/habitos/{id}", this::borrarHabito));
+    }
+
+    /**
+     * Los servicios devuelven {@code null} cuando la consulta falla; se responde con
+     * un error en lugar de enviar un resultado vacío como si fuera correcto.
+     */
+    private static <T> T disponible(T resultado) {
+        if (resultado == null) throw new ErrorApi(503, "No se pudieron consultar los datos, inténtalo de nuevo");
+        return resultado;
+    }
+
+    /**
+     * Los servicios devuelven {@code false} cuando una escritura falla; se responde con
+     * un error en lugar de confirmar un cambio que no se ha guardado.
+     */
+    private static void escrito(boolean ok) {
+        if (!ok) throw new ErrorApi(503, "No se pudieron guardar los cambios, inténtalo de nuevo");
+    }
+
+    // --- SESIÓN ---
+
+    private Respuesta login(Peticion p) throws IOException {
+        Map<String, Object> cuerpo = p.cuerpo();
+        Usuario usuario = usuarioService.login(Peticion.texto(cuerpo, "email"), Peticion.texto(cuerpo, "contrasena"));
+        if (usuario == null) throw new ErrorApi(401, "Email o contraseña incorrectos");
+
+        Map<String, Object> datos = new LinkedHashMap<>();
+        datos.put("id", usuario.getId());
+        datos.put("nombre", usuario.getNombre());
+        datos.put("email", usuario.getEmail());
+        return Respuesta.ok(Map.of("token", tokens.emitir(usuario.getId()), "usuario", datos));
+    }
+
+    private Respuesta logout(Peticion p) {
+        tokens.revocar(p.token());
+        return Respuesta.sinContenido();
+    }
+
+    // --- CATÁLOGO ---
+
+    private List<Map<String, Object>> categorias() {
+        return categoriaService.obtenerCategorias().stream().map(c -> {
+            Map<String, Object> fila = new LinkedHashMap<>();
+            fila.put("id", c.getId());
+            fila.put("nombre", c.getNombre());
+            fila.put("factorEmision", c.getFactorEmision());
+            fila.put("unidad", c.getUnidad());
+            return fila;
+        }).toList();
+    }
+
+    private List<Map<String, Object>> actividades() {
+        return actividadService.listarTodasLasActividades().stream().map(a -> {
+            Map<String, Object> fila = new LinkedHashMap<>();
+            fila.put("id", a.getId());
+            fila.put("nombre", a.getNombre());
+            fila.put("idCategoria", a.getIdCategoria() != null ? a.getIdCategoria().getId() : null);
+            return fila;
+        }).toList();
+    }
+
+    private Actividad buscarActividad(int idActividad) {
+        return actividadService.listarTodasLasActividades().stream()
+                .filter(a -> a.getId() == idActividad)
+                .findFirst()
+                .orElseThrow(() -> new ErrorApi(400, "No existe la actividad " + idActividad));
+    }
+
+    // --- HUELLAS ---
+
+    private Respuesta paginaHistorial(Peticion p) {
+        int tamano = p.parametroEntero("tamano", HuellaService.TAMANO_PAGINA_HISTORIAL, 1, TAMANO_MAXIMO_PAGINA);
+        String categoria = p.parametro("categoria");
+        FiltroHuellas filtro = new FiltroHuellas(p.parametro("texto"),
+                categoria != null ? p.parametroEntero("categoria", 0, 1, Integer.MAX_VALUE) : null);
+
+        Pagina<HuellaFila> pagina = disponible(huellaService.buscarPaginaHistorial(
+                p.idUsuario(), filtro, leerCursor(p.parametro("cursor")), tamano));
+        Map<String, Object> cuerpo = new LinkedHashMap<>();
+        cuerpo.put("elementos", pagina.elementos());
+        cuerpo.put("siguiente", pagina.hayMas() ? escribirCursor(pagina.siguiente()) : null);
+        return Respuesta.ok(cuerpo);
+    }
+
+    /**
+     * El cursor viaja como {@code <fecha>_<id>} del último registro de la página anterior.
+     */
+    private static String escribirCursor(CursorHuella cursor) {
+        return cursor.fecha() + "_" + cursor.id();
+    }
+
+    private static CursorHuella leerCursor(String texto) {
+        if (texto == null) return null;
+        int separador = texto.indexOf('_');
+        try {
+            if (separador < 0) throw new IllegalArgumentException();
+            return new CursorHuella(LocalDate.parse(texto.substring(0, separador)),
+                    Integer.parseInt(texto.substring(separador + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ErrorApi(400, "Cursor no válido: " + texto);
+        }
+    }
+
+    private HuellaFila huellaDelUsuario(Peticion p) {
+        HuellaFila fila = huellaService.obtenerHuella(p.idUsuario(), p.idRuta());
+        if (fila == null) throw new ErrorApi(404, "No existe la huella " + p.idRuta());
+        return fila;
+    }
+
+    private Respuesta crearHuella(Peticion p) throws IOException {
+        Huella h = leerHuella(p);
+        huellaService.registrarNuevaHuella(h);
+        // Con la escritura diferida el registro se guarda poco después, todavía sin identificador
+        if (h.getId() == null && EscrituraDiferida.activada()) return Respuesta.aceptada(Map.of("encolada", true));
+        escrito(h.getId() != null);
+        return Respuesta.creada(huellaService.obtenerHuella(p.idUsuario(), h.getId()));
+    }
+
+    private Respuesta modificarHuella(Peticion p) throws IOException {
+        HuellaFila actual = huellaDelUsuario(p);
+        Huella h = leerHuella(p);
+        h.setId(actual.id());
+        escrito(huellaService.modificarHuella(h));
+        return Respuesta.ok(huellaService.obtenerHuella(p.idUsuario(), actual.id()));
+    }
+
+    private Respuesta borrarHuella(Peticion p) {
+        escrito(huellaService.borrarRegistro(p.idUsuario(), huellaDelUsuario(p)));
+        return Respuesta.sinContenido();
+    }
+
+    /**
+     * Construye una huella del usuario de la sesión con los campos del cuerpo. Si
+     * no se indica, la unidad es la de la categoría y la fecha, la de hoy.
+     */
+    private Huella leerHuella(Peticion p) throws IOException {
+        Map<String, Object> cuerpo = p.cuerpo();
+        Actividad actividad = buscarActividad(Peticion.entero(cuerpo, "idActividad"));
+        double valor = Peticion.numero(cuerpo, "valor");
+        if (valor < 0) throw new ErrorApi(400, "El valor no puede ser negativo");
+
+        String unidad = Peticion.textoOpcional(cuerpo, "unidad");
+        Categoria categoria = actividad.getIdCategoria();
+        if (unidad == null && categoria != null) unidad = categoria.getUnidad();
+        if (unidad == null) throw new ErrorApi(400, "Falta el campo 'unidad'");
+
+        String fecha = Peticion.textoOpcional(cuerpo, "fecha");
+        Huella h = new Huella();
+        h.setIdUsuario(usuario(p.idUsuario()));
+        h.setIdActividad(actividad);
+        h.setValor((float) valor);
+        h.setUnidad(unidad);
+        try {
+            h.setFecha(fecha != null ? LocalDate.parse(fecha) : LocalDate.now());
+        } catch (DateTimeParseException e) {
+            throw new ErrorApi(400, "La fecha debe tener el formato AAAA-MM-DD");
+        }
+        return h;
+    }
+
+    /**
+     * Referencia al usuario de la sesión; para guardar solo hace falta su identificador.
+     */
+    private static Usuario usuario(int idUsuario) {
+        Usuario u = new Usuario();
+        u.setId(idUsuario);
+        return u;
+    }
+
+    // --- ANÁLISIS ---
+
+    private Respuesta dashboard(Peticion p) {
+        int top = p.parametroEntero("top", HuellaService.TOP_ACTIVIDADES_DASHBOARD, 1, TOP_MAXIMO_DASHBOARD);
+        DashboardSnapshot d = disponible(huellaService.obtenerDashboard(p.idUsuario(), top));
+        Map<String, Object> cuerpo = new LinkedHashMap<>();
+        cuerpo.put("total", d.total());
+        cuerpo.put("conteo", d.conteo());
+        cuerpo.put("promedio", d.promedio());
+        cuerpo.put("porCategoria", d.porCategoria());
+        cuerpo.put("porMes", d.porMes());
+        cuerpo.put("topActividades", d.topActividades());
+        return Respuesta.ok(cuerpo);
+    }
+
+    // --- HÁBITOS ---
+
+    private Respuesta guardarHabito(Peticion p) throws IOException {
+        Actividad actividad = buscarActividad(p.idRuta());
+        Map<String, Object> cuerpo = p.cuerpo();
+        int frecuencia = Peticion.entero(cuerpo, "frecuencia");
+        if (frecuencia <= 0) throw new ErrorApi(400, "La frecuencia debe ser mayor que cero");
+        String tipo = Peticion.texto(cuerpo, "tipo");
+        if (!TIPOS_HABITO.contains(tipo)) throw new ErrorApi(400, "El tipo debe ser uno de " + TIPOS_HABITO);
+
+        Habito h = new Habito();
+        h.getId().setIdUsuario(p.idUsuario());
+        h.getId().setIdActividad(actividad.getId());
+        h.setIdUsuario(usuario(p.idUsuario()));
+        h.setIdActividad(actividad);
+        h.setFrecuencia(frecuencia);
+        h.setTipo(tipo);
+        h.setUltimaFecha(LocalDate.now());
+        escrito(habitoService.guardar(h));
+        return Respuesta.ok(habitoDelUsuario(p));
+    }
+
+    private Respuesta borrarHabito(Peticion p) {
+        escrito(habitoService.eliminar(habitoDelUsuario(p)));
+        return Respuesta.sinContenido();
+    }
+
+    private HabitoFila habitoDelUsuario(Peticion p) {
+        int idActividad = p.idRuta();
+        return disponible(habitoService.misHabitos(p.idUsuario())).stream()
+                .filter(h -> h.idActividad() == idActividad)
+                .findFirst()
+                .orElseThrow(() -> new ErrorApi(404, "No hay un hábito para la actividad " + idActividad));
+    }
+}
@@ -0,0 +1,25 @@
+package api;
+
+/**
+ * Respuesta de una operación de la API antes de convertirla a JSON.
+ * @param estado Código HTTP.
+ * @param cuerpo Contenido, o {@code null} si la respuesta no lleva cuerpo.
+ */
+record Respuesta(int estado, Object cuerpo) {
+
+    static Respuesta ok(Object cuerpo) {
+        return new Respuesta(200, cuerpo);
+    }
+
+    static Respuesta creada(Object cuerpo) {
+        return new Respuesta(201, cuerpo);
+    }
+
+    static Respuesta aceptada(Object cuerpo) {
+        return new Respuesta(202, cuerpo);
+    }
+
+    static Respuesta sinContenido() {
+        return new Respuesta(204, null);
+    }
+}
@@ -0,0 +1,46 @@
+package api;
+
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+/**
+ * Una operación de la API: método HTTP, plantilla de la ruta y acción que la atiende.
+ * En la plantilla, {@code {id}} representa un identificador numérico que la
+ * acción recupera con {@link Peticion#idRuta()}.
+ * @param metodo Método HTTP.
+ * @param plantilla Ruta con sus marcadores, por ejemplo {@code /api/huellas/{id}}.
+ * @param patron Expresión regular equivalente a la plantilla.
+ * @param autenticada {@code true} si exige un token de sesión válido.
+ * @param accion Código que atiende la petición.
+ */
+record Ruta(String metodo, String plantilla, Pattern patron, boolean autenticada, Accion accion) {
+
+    /**
+     * Atiende una petición ya autenticada y devuelve la respuesta que hay que enviar.
+     */
+    @FunctionalInterface
+    interface Accion {
+        Respuesta atender(Peticion peticion) throws IOException;
+    }
+
+    /**
+     * Crea una ruta que exige sesión.
+     */
+    static Ruta de(String metodo, String plantilla, Accion accion) {
+        return new Ruta(metodo, plantilla, Pattern.compile(plantilla.replace("{id}", "(\\d+)")), true, accion);
+    }
+
+    /**
+     * Crea una ruta abierta, sin token.
+     */
+    static Ruta publica(String metodo, String plantilla, Accion accion) {
+        return new Ruta(metodo, plantilla, Pattern.compile(plantilla.replace("{id}", "(\\d+)")), false, accion);
+    }
+
+    /**
+     * Nombre de la operación en las métricas, por ejemplo {@code "API GET /api/huellas/{id}"}.
+     */
+    String nombre() {
+        return "API " + metodo + " " + plantilla;
+    }
+}
@@ -0,0 +1,186 @@
+package api;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import utils.Medicion;
+import utils.Metricas;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+
+/**
+ * Servidor de la API JSON, para clientes web y móviles, sobre los mismos
+ * servicios que usa la interfaz de escritorio. Usa el servidor HTTP incluido en
+ * el JDK y atiende cada petición en su propio hilo virtual, de modo que una
+ * petición que espera a la base de datos no ocupa un hilo del sistema.
+ * <p>
+ * Todas las rutas cuelgan de {@code /api/} (ver {@link RecursosApi}); salvo el
+ * inicio de sesión, exigen la cabecera {@code Authorization: Bearer <token>}.
+ * Los errores se devuelven como {@code {"error": "..."}} con su código HTTP. Cada
+ * operación se mide en {@link Metricas} con el nombre {@code API <método> <ruta>},
+ * así que aparece en la pantalla de Diagnóstico y en el volcado periódico.
+ * Se arranca con {@code MainSinInterfaz --server [puerto]}, sin JavaFX en el
+ * classpath; el puerto por defecto se cambia con {@value #PROPIEDAD_PUERTO}.
+ */
+public class ServidorApi {
+
+    /**
+     * Propiedad del sistema con el puerto por defecto.
+     */
+    public static final String PROPIEDAD_PUERTO = "api.puerto";
+
+    private static final int PUERTO_POR_DEFECTO = 8080;
+
+    /**
+     * Segundos que se esperan al detener el servidor para que terminen las peticiones en curso.
+     */
+    private static final int ESPERA_PARADA = 2;
+
+    private final HttpServer servidor;
+    private final ExecutorService hilos;
+    private final Tokens tokens = new Tokens();
+    private final List<Ruta> rutas;
+
+    /**
+     * Prepara el servidor sin empezar a aceptar peticiones.
+     * @param puerto Puerto de escucha; con 0 se elige uno libre.
+     * @throws IOException Si el puerto no está disponible.
+     */
+    public ServidorApi(int puerto) throws IOException {
+        // El servidor del JDK escribe cabeceras y cuerpo por separado; sin TCP_NODELAY,
+        // el algoritmo de Nagle y el ACK retardado del cliente suman unos 40 ms a cada
+        // respuesta. El ajuste se lee una sola vez, al crear el primer servidor.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        this.servidor = HttpServer.create(new InetSocketAddress(puerto), 0);
+        this.hilos = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("api-", 0).factory());
+        this.rutas = new RecursosApi(tokens).rutas();
+        servidor.setExecutor(hilos);
+        servidor.createContext("/api/", this::atender);
+    }
+
+    /**
+     * Puerto indicado en {@value #PROPIEDAD_PUERTO}, o 8080.
+     * @return El puerto por defecto del servidor.
+     */
+    public static int puertoPorDefecto() {
+        return Integer.getInteger(PROPIEDAD_PUERTO, PUERTO_POR_DEFECTO);
+    }
+
+    /**
+     * Empieza a aceptar peticiones.
+     */
+    public void iniciar() {
+        servidor.start();
+        System.out.println("[API] Escuchando en http://localhost:" + getPuerto() + "/api/");
+    }
+
+    /**
+     * Deja de aceptar peticiones y espera brevemente a las que están en curso.
+     */
+    public void detener() {
+        servidor.stop(ESPERA_PARADA);
+        hilos.close();
+    }
+
+    /**
+     * Puerto en el que escucha el servidor.
+     * @return El puerto real, también cuando se pidió el 0.
+     */
+    public int getPuerto() {
+        return servidor.getAddress().getPort();
+    }
+
+    /**
+     * Busca la ruta de la petición, comprueba la sesión, ejecuta la operación y
+     * envía su respuesta.
+     */
+    private void atender(HttpExchange intercambio) {
+        try {
+            String metodo = intercambio.getRequestMethod();
+            String camino = intercambio.getRequestURI().getPath();
+            Ruta elegida = null;
+            Matcher coincidencia = null;
+            boolean caminoConocido = false;
+            for (Ruta ruta : rutas) {
+                Matcher m = ruta.patron().matcher(camino);
+                if (!m.matches()) continue;
+                caminoConocido = true;
+                if (ruta.metodo().equals(metodo)) {
+                    elegida = ruta;
+                    coincidencia = m;
+                    break;
+                }
+            }
+            if (elegida == null) {
+                responder(intercambio, caminoConocido ? 405 : 404,
+                        error(caminoConocido ? "Método no permitido" : "Recurso no encontrado"));
+                return;
+            }
+            ejecutar(intercambio, elegida, coincidencia);
+        } catch (IOException e) {
+            // El cliente cerró la conexión antes de recibir la respuesta
+            System.err.println("[API] No se pudo responder: " + e.getMessage());
+        } finally {
+            intercambio.close();
+        }
+    }
+
+    private void ejecutar(HttpExchange intercambio, Ruta ruta, Matcher coincidencia) throws IOException {
+        Medicion m = Metricas.medir(ruta.nombre());
+        try (m) {
+            String token = token(intercambio);
+            Integer idUsuario = null;
+            if (ruta.autenticada()) {
+                idUsuario = tokens.usuarioDe(token);
+                if (idUsuario == null) throw new ErrorApi(401, "Sesión no válida o caducada");
+                m.usuario(idUsuario);
+            }
+            Respuesta respuesta = ruta.accion().atender(new Peticion(intercambio, coincidencia, idUsuario, token));
+            responder(intercambio, respuesta.estado(), respuesta.cuerpo());
+        } catch (ErrorApi e) {
+            responder(intercambio, e.getEstado(), error(e.getMessage()));
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            m.fallo();
+            System.err.println("[API] Error en " + ruta.nombre() + ": " + e.getMessage());
+            e.printStackTrace();
+            responder(intercambio, 500, error("Error interno del servidor"));
+        }
+    }
+
+    /**
+     * Token de la cabecera {@code Authorization}, o {@code null} si no viene.
+     */
+    private static String token(HttpExchange intercambio) {
+        String cabecera = intercambio.getRequestHeaders().getFirst("Authorization");
+        if (cabecera == null || !cabecera.regionMatches(true, 0, "Bearer ", 0, 7)) return null;
+        return cabecera.substring(7).trim();
+    }
+
+    private static Map<String, Object> error(String mensaje) {
+        return Map.of("error", mensaje != null ? mensaje : "Error");
+    }
+
+    private static void responder(HttpExchange intercambio, int estado, Object cuerpo) throws IOException {
+        if (cuerpo == null) {
+            intercambio.sendResponseHeaders(estado, -1);
+            return;
+        }
+        byte[] bytes = Json.escribir(cuerpo).getBytes(StandardCharsets.UTF_8);
+        intercambio.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        intercambio.sendResponseHeaders(estado, bytes.length);
+        try (OutputStream salida = intercambio.getResponseBody()) {
+            salida.write(bytes);
+        }
+    }
+}
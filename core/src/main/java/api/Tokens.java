@@ -0,0 +1,69 @@
+package api;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sesiones de la API. Cada inicio de sesión correcto recibe un token aleatorio
+ * que el cliente envía después en la cabecera {@code Authorization: Bearer <token>}.
+ * Los tokens viven en memoria, así que se pierden al reiniciar el servidor, y
+ * caducan tras {@code api.token.minutos} minutos sin usarse (720 por defecto).
+ */
+class Tokens {
+
+    private static final int MINUTOS_POR_DEFECTO = 720;
+
+    private static final int BYTES_TOKEN = 32;
+
+    /**
+     * Usuario de una sesión y momento en que deja de valer si no se usa.
+     */
+    private record Sesion(int idUsuario, long caducaEn) {}
+
+    private final Map<String, Sesion> sesiones = new ConcurrentHashMap<>();
+    private final SecureRandom aleatorio = new SecureRandom();
+    private final long duracionMs;
+
+    Tokens() {
+        this.duracionMs = Integer.getInteger("api.token.minutos", MINUTOS_POR_DEFECTO) * 60_000L;
+    }
+
+    /**
+     * Abre una sesión para un usuario autenticado.
+     * @param idUsuario Usuario que ha iniciado sesión.
+     * @return El token de la sesión.
+     */
+    String emitir(int idUsuario) {
+        byte[] bytes = new byte[BYTES_TOKEN];
+        aleatorio.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        long ahora = System.currentTimeMillis();
+        // Las sesiones abandonadas se descartan al abrir otras
+        sesiones.values().removeIf(s -> s.caducaEn() < ahora);
+        sesiones.put(token, new Sesion(idUsuario, ahora + duracionMs));
+        return token;
+    }
+
+    /**
+     * Comprueba un token y, si es válido, alarga su caducidad.
+     * @param token Token recibido en la petición.
+     * @return El usuario de la sesión, o {@code null} si no existe o ha caducado.
+     */
+    Integer usuarioDe(String token) {
+        if (token == null) return null;
+        long ahora = System.currentTimeMillis();
+        Sesion sesion = sesiones.computeIfPresent(token,
+                (k, s) -> s.caducaEn() < ahora ? null : new Sesion(s.idUsuario(), ahora + duracionMs));
+        return sesion != null ? sesion.idUsuario() : null;
+    }
+
+    /**
+     * Cierra una sesión.
+     * @param token Token de la sesión.
+     */
+    void revocar(String token) {
+        if (token != null) sesiones.remove(token);
+    }
+}
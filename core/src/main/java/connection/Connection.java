@@ -0,0 +1,313 @@
+package connection;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.tool.schema.spi.DelayedDropRegistryNotAvailableImpl;
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+import utils.Arranque;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Clase encargada de gestionar la conexión con la base de datos mediante Hibernate.
+ * Implementa el patrón Singleton para asegurar que solo exista una factoría de
+ * sesiones y un único pool de conexiones JDBC en toda la aplicación. Todos los DAO
+ * y servicios abren sus sesiones a través de esta clase.
+ * La interfaz la construye en segundo plano nada más mostrar el login
+ * ({@link #iniciarEnSegundoPlano()}); quien la pida antes de que termine espera
+ * en {@link #getInstance()} solo lo que falte. Cada fase del arranque de Hibernate
+ * se registra en {@link Arranque}.
+ */
+public class Connection {
+
+    /**
+     * Única instancia de la clase Connection.
+     */
+    private static Connection instance;
+
+    /**
+     * Consulta trivial que recorre todo el camino (pool, sesión, traducción HQL a SQL)
+     * antes de que el usuario pulse el botón de entrar.
+     */
+    private static final String PRIMERA_CONSULTA = "SELECT COUNT(u) FROM Usuario u";
+
+    /**
+     * Pool acotado de conexiones JDBC compartido por toda la aplicación.
+     */
+    private final HikariDataSource dataSource;
+
+    /**
+     * Factoría de sesiones de Hibernate para gestionar el ciclo de vida de las conexiones.
+     */
+    private final SessionFactory sessionFactory;
+
+    /**
+     * Perfil de base de datos elegido al arrancar.
+     */
+    private final PerfilBaseDatos perfil;
+
+    /**
+     * Acumulador de tiempos de espera y timeouts registrados por el pool.
+     */
+    private final MetricasPool metricasPool = new MetricasPool();
+
+    /**
+     * Constructor privado que inicializa la configuración de Hibernate.
+     * Lee el archivo hibernate.cfg.xml, aplica encima los ajustes del perfil elegido
+     * y después las propiedades del sistema que empiecen por {@code hibernate.},
+     * levanta el pool de conexiones con los mismos datos de acceso y se lo entrega
+     * a Hibernate como DataSource. Antes de construir el metamodelo aplica las
+     * migraciones pendientes del esquema ({@link Migraciones}); {@code hbm2ddl.auto}
+     * solo se ejecuta si se pide expresamente, por ejemplo {@code validate}. Cada fase
+     * se mide por separado. Con el perfil embebido, además, carga el catálogo si la
+     * base de datos está recién creada. Si algo falla, cierra el pool y la factoría
+     * que ya se hubieran creado antes de propagar el error.
+     * * @throws RuntimeException Si hay un fallo crítico al configurar la base de datos.
+     */
+    private Connection() {
+        HikariDataSource pool = null;
+        SessionFactory factoria = null;
+        try {
+            Configuration configuration;
+            Properties props;
+            String accionEsquema;
+            try (Arranque.Tramo t = Arranque.fase("hibernate.configuracion")) {
+                perfil = PerfilBaseDatos.actual();
+                configuration = new Configuration().configure();
+                perfil.aplicar(configuration);
+                aplicarPropiedadesSistema(configuration);
+                props = configuration.getProperties();
+                pool = crearPool(props);
+                dataSource = pool;
+                // Las credenciales ya las gestiona el pool; Hibernate solo recibe el DataSource
+                Map<String, Object> ajustes = configuration.getStandardServiceRegistryBuilder().getSettings();
+                for (String clave : new String[]{"connection.username", "connection.password"}) {
+                    props.remove(clave);
+                    props.remove("hibernate." + clave);
+                    ajustes.remove("hibernate." + clave);
+                }
+                props.put(AvailableSettings.JAKARTA_NON_JTA_DATASOURCE, dataSource);
+                // El esquema lo crean las migraciones; hbm2ddl solo se ejecuta aparte si se pide
+                accionEsquema = leer(props, "hbm2ddl.auto", "none");
+                props.remove("hbm2ddl.auto");
+                props.remove(AvailableSettings.HBM2DDL_AUTO);
+                ajustes.remove(AvailableSettings.HBM2DDL_AUTO);
+            }
+
+            if (Boolean.parseBoolean(System.getProperty(Migraciones.PROPIEDAD, "true"))) {
+                try (Arranque.Tramo t = Arranque.fase("esquema.migraciones")) {
+                    int version = Migraciones.migrar(dataSource);
+                    System.out.println("[BD] Esquema en la versión " + version + ".");
+                }
+            }
+
+            StandardServiceRegistry registro;
+            Metadata metadata;
+            try (Arranque.Tramo t = Arranque.fase("hibernate.metamodelo")) {
+                registro = configuration.getStandardServiceRegistryBuilder().applySettings(props).build();
+                metadata = new MetadataSources(registro).buildMetadata();
+            }
+
+            if (!"none".equals(accionEsquema)) {
+                try (Arranque.Tramo t = Arranque.fase("hibernate.esquema (" + accionEsquema + ")")) {
+                    Map<String, Object> ajustesEsquema =
+                            new HashMap<>(registro.requireService(ConfigurationService.class).getSettings());
+                    ajustesEsquema.put(AvailableSettings.HBM2DDL_AUTO, accionEsquema);
+                    SchemaManagementToolCoordinator.process(metadata, registro, ajustesEsquema,
+                            DelayedDropRegistryNotAvailableImpl.INSTANCE);
+                }
+            }
+
+            try (Arranque.Tramo t = Arranque.fase("hibernate.sessionFactory")) {
+                factoria = metadata.buildSessionFactory();
+                sessionFactory = factoria;
+            }
+            if (perfil.isEmbebido()) {
+                try (Arranque.Tramo t = Arranque.fase("hibernate.semilla")) {
+                    SemillaCatalogo.sembrarSiVacio(sessionFactory);
+                }
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            if (factoria != null) factoria.close();
+            if (pool != null) pool.close();
+            throw new RuntimeException("Error al construir la SessionFactory", e);
+        }
+    }
+
+    /**
+     * Permite sustituir cualquier ajuste de hibernate.cfg.xml al arrancar, por
+     * ejemplo {@code -Dhibernate.connection.url=...}, sin tocar el archivo. Lo usan
+     * las pruebas de rendimiento para trabajar contra una base de datos embebida.
+     */
+    private static void aplicarPropiedadesSistema(Configuration configuration) {
+        Properties sistema = System.getProperties();
+        for (String clave : sistema.stringPropertyNames()) {
+            if (clave.startsWith("hibernate.")) {
+                configuration.setProperty(clave, sistema.getProperty(clave));
+            }
+        }
+    }
+
+    /**
+     * Construye el pool de conexiones a partir de las propiedades de Hibernate.
+     * Los parámetros del pool se leen de las claves {@code hibernate.hikari.*}.
+     * @param props Propiedades cargadas desde hibernate.cfg.xml.
+     * @return El DataSource con el pool ya arrancado.
+     */
+    private HikariDataSource crearPool(Properties props) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("EcoTrackPool");
+        config.setDriverClassName(leer(props, "connection.driver_class", null));
+        config.setJdbcUrl(leer(props, "connection.url", null));
+        config.setUsername(leer(props, "connection.username", null));
+        config.setPassword(leer(props, "connection.password", ""));
+        config.setMaximumPoolSize(Integer.parseInt(leer(props, "hikari.maximumPoolSize", "10")));
+        config.setMinimumIdle(Integer.parseInt(leer(props, "hikari.minimumIdle", "2")));
+        config.setConnectionTimeout(Long.parseLong(leer(props, "hikari.connectionTimeout", "5000")));
+        config.setIdleTimeout(Long.parseLong(leer(props, "hikari.idleTimeout", "300000")));
+        config.setMetricsTrackerFactory((nombre, poolStats) -> metricasPool);
+        return new HikariDataSource(config);
+    }
+
+    /**
+     * Lee una propiedad admitiendo tanto la forma corta ({@code connection.url})
+     * como la forma con prefijo ({@code hibernate.connection.url}).
+     */
+    private static String leer(Properties props, String clave, String porDefecto) {
+        String valor = props.getProperty("hibernate." + clave);
+        if (valor == null) valor = props.getProperty(clave);
+        return (valor != null) ? valor.trim() : porDefecto;
+    }
+
+    /**
+     * Obtiene la instancia única de esta clase. Si no existe, la crea.
+     * Es el punto de acceso global para obtener conexiones.
+     * * @return La instancia activa de Connection.
+     */
+    public static synchronized Connection getInstance() {
+        if (instance == null) {
+            instance = new Connection();
+        }
+        return instance;
+    }
+
+    /**
+     * Construye la conexión en un hilo aparte y lanza una primera consulta para
+     * dejar preparados el pool y la traducción de consultas. Quien llame a
+     * {@link #getInstance()} mientras tanto espera a que termine la construcción
+     * en lugar de empezar otra. Llamarlo con la conexión ya creada no tiene efecto.
+     */
+    public static void iniciarEnSegundoPlano() {
+        if (isIniciada()) return;
+        Thread hilo = new Thread(() -> {
+            try {
+                Connection conexion = getInstance();
+                try (Arranque.Tramo t = Arranque.fase("primera consulta");
+                     Session session = conexion.openSession()) {
+                    session.createSelectionQuery(PRIMERA_CONSULTA, Long.class).getSingleResult();
+                }
+            } catch (Exception e) {
+                // getInstance() ya ha dejado el error; se volverá a intentar al primer uso
+                System.err.println("No se pudo iniciar la base de datos en segundo plano: " + e.getMessage());
+            }
+        }, "arranque-hibernate");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    /**
+     * Indica si la conexión ya se creó, sin forzar su arranque.
+     * * @return {@code true} si hay una instancia activa.
+     */
+    public static synchronized boolean isIniciada() {
+        return instance != null;
+    }
+
+    /**
+     * Abre y devuelve una nueva sesión de Hibernate.
+     * Debe usarse cada vez que necesitemos interactuar con los DAO.
+     * * @return Una instancia de {@link Session} lista para operar.
+     */
+    public Session openSession() {
+        return sessionFactory.openSession();
+    }
+
+    /**
+     * Abre una sesión sin estado, sin caché de primer nivel ni seguimiento de
+     * cambios. Está pensada para operaciones masivas como las importaciones.
+     * * @return Una instancia de {@link StatelessSession} lista para operar.
+     */
+    public StatelessSession openStatelessSession() {
+        return sessionFactory.openStatelessSession();
+    }
+
+    /**
+     * Proporciona acceso a la factoría de sesiones compartida.
+     * * @return La instancia única de {@link SessionFactory}.
+     */
+    public SessionFactory getSessionFactory() {
+        return sessionFactory;
+    }
+
+    /**
+     * Indica contra qué base de datos está trabajando la aplicación.
+     * * @return El {@link PerfilBaseDatos} elegido al arrancar.
+     */
+    public PerfilBaseDatos getPerfil() {
+        return perfil;
+    }
+
+    /**
+     * Devuelve una fotografía del estado actual del pool: conexiones activas e
+     * inactivas, hilos en espera, tiempos de adquisición y timeouts acumulados.
+     * * @return Un {@link EstadoPool} con los valores en este instante.
+     */
+    public EstadoPool getEstadoPool() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        return new EstadoPool(
+                pool.getActiveConnections(),
+                pool.getIdleConnections(),
+                pool.getTotalConnections(),
+                pool.getThreadsAwaitingConnection(),
+                dataSource.getMaximumPoolSize(),
+                metricasPool.getAdquisiciones(),
+                metricasPool.getEsperaMediaMs(),
+                metricasPool.getEsperaMaximaMs(),
+                metricasPool.getTimeouts());
+    }
+
+    /**
+     * Cierra la factoría de sesiones y el pool de conexiones.
+     * Debe invocarse al cerrar la aplicación para no dejar conexiones huérfanas
+     * en el servidor de base de datos.
+     */
+    public void close() {
+        if (!sessionFactory.isClosed()) {
+            sessionFactory.close();
+        }
+        dataSource.close();
+    }
+
+    /**
+     * Cierra la conexión solo si llegó a crearse, sin forzar su arranque.
+     */
+    public static synchronized void shutdown() {
+        if (instance != null) {
+            instance.close();
+            instance = null;
+        }
+    }
+}
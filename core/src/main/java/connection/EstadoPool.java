@@ -0,0 +1,25 @@
+package connection;
+
+/**
+ * Fotografía del estado del pool de conexiones en un instante dado.
+ * @param activas Conexiones prestadas en este momento.
+ * @param inactivas Conexiones abiertas y libres.
+ * @param total Conexiones abiertas en total.
+ * @param enEspera Hilos bloqueados esperando una conexión.
+ * @param maximo Tamaño máximo configurado del pool.
+ * @param adquisiciones Número de préstamos realizados desde el arranque.
+ * @param esperaMediaMs Tiempo medio de espera para obtener una conexión.
+ * @param esperaMaximaMs Peor tiempo de espera observado.
+ * @param timeouts Peticiones que agotaron el tiempo máximo de espera.
+ */
+public record EstadoPool(int activas, int inactivas, int total, int enEspera, int maximo,
+                         long adquisiciones, double esperaMediaMs, double esperaMaximaMs, long timeouts) {
+
+    @Override
+    public String toString() {
+        return String.format("Pool[activas=%d, inactivas=%d, total=%d/%d, en espera=%d, " +
+                        "adquisiciones=%d, espera media=%.2f ms, espera máx=%.2f ms, timeouts=%d]",
+                activas, inactivas, total, maximo, enEspera,
+                adquisiciones, esperaMediaMs, esperaMaximaMs, timeouts);
+    }
+}
@@ -0,0 +1,49 @@
+package connection;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Receptor de las métricas que publica el pool de conexiones.
+ * Acumula cuántas conexiones se han prestado, cuánto tiempo ha tenido que
+ * esperar cada hilo para conseguir una y cuántas peticiones agotaron el
+ * tiempo máximo de espera.
+ */
+class MetricasPool implements IMetricsTracker {
+
+    private final LongAdder adquisiciones = new LongAdder();
+    private final LongAdder esperaTotalNanos = new LongAdder();
+    private final AtomicLong esperaMaximaNanos = new AtomicLong();
+    private final LongAdder timeouts = new LongAdder();
+
+    @Override
+    public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+        adquisiciones.increment();
+        esperaTotalNanos.add(elapsedAcquiredNanos);
+        esperaMaximaNanos.accumulateAndGet(elapsedAcquiredNanos, Math::max);
+    }
+
+    @Override
+    public void recordConnectionTimeout() {
+        timeouts.increment();
+    }
+
+    long getAdquisiciones() {
+        return adquisiciones.sum();
+    }
+
+    double getEsperaMediaMs() {
+        long n = adquisiciones.sum();
+        return (n == 0) ? 0.0 : esperaTotalNanos.sum() / (double) n / 1_000_000.0;
+    }
+
+    double getEsperaMaximaMs() {
+        return esperaMaximaNanos.get() / 1_000_000.0;
+    }
+
+    long getTimeouts() {
+        return timeouts.sum();
+    }
+}
@@ -0,0 +1,346 @@
+package connection;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Migraciones versionadas del esquema de la base de datos. Sustituyen a
+ * {@code hbm2ddl.auto=update}, que en cada arranque recorría los metadatos de
+ * todas las tablas y no sabe crear índices compuestos ni tablas de resumen a medida.
+ * <p>
+ * Cada migración es un script {@code V<n>__<descripcion>.sql} de la carpeta
+ * {@value #CARPETA} de los recursos. Las aplicadas se anotan en la tabla
+ * {@code esquema_version} junto con la suma SHA-256 del script, de modo que cada
+ * una se ejecuta una sola vez. En un arranque normal solo se lee la versión
+ * actual; los scripts se leen y se comprueban sus sumas únicamente cuando hay
+ * migraciones pendientes.
+ * <p>
+ * Una base de datos creada antes de existir las migraciones (a partir del volcado
+ * o con {@code hbm2ddl.auto}) se reconoce por las tablas que ya tiene y se da por
+ * migrada hasta la última versión cuya tabla existe, sin ejecutar nada.
+ * <p>
+ * La aplicación de escritorio y el servidor de la API migran al arrancar, así que
+ * en MySQL la comprobación y la aplicación de las pendientes se hacen bajo el
+ * bloqueo con nombre {@value #BLOQUEO}: el segundo proceso espera a que termine el
+ * primero y, al obtenerlo, vuelve a leer la versión y ya no encuentra nada pendiente.
+ * La base de datos H2 del perfil embebido es un archivo que solo puede abrir un
+ * proceso a la vez, así que allí no hace falta.
+ * Se desactiva con la propiedad del sistema {@value #PROPIEDAD}{@code =false}.
+ */
+class Migraciones {
+
+    /**
+     * Propiedad del sistema que permite desactivar las migraciones.
+     */
+    static final String PROPIEDAD = "ecotrack.migraciones";
+
+    /**
+     * Carpeta de los recursos donde están los scripts.
+     */
+    private static final String CARPETA = "/db/migraciones/";
+
+    /**
+     * Migraciones conocidas, en el orden en que deben aplicarse. Para añadir una
+     * se crea su script en {@link #CARPETA} y se añade al final de esta lista.
+     */
+    private static final List<Migracion> MIGRACIONES = List.of(
+            new Migracion(1, "esquema_inicial", "huella"),
+            new Migracion(2, "impacto_y_resumen_mensual", "huella_mensual"),
+            new Migracion(3, "resumen_mensual_actividad", "huella_mensual_actividad"));
+
+    private static final String TABLA_VERSION = "esquema_version";
+
+    /**
+     * Nombre del bloqueo de MySQL que serializa las migraciones entre procesos.
+     */
+    private static final String BLOQUEO = "esquema_version";
+
+    /**
+     * Tiempo máximo que se espera a que otro proceso termine de migrar.
+     */
+    private static final int ESPERA_BLOQUEO_SEGUNDOS = 300;
+
+    private static final String OBTENER_BLOQUEO = "SELECT GET_LOCK(?, ?)";
+
+    private static final String LIBERAR_BLOQUEO = "SELECT RELEASE_LOCK(?)";
+
+    private static final String CREAR_TABLA_VERSION =
+            "CREATE TABLE IF NOT EXISTS esquema_version (" +
+                    "version INT NOT NULL PRIMARY KEY, " +
+                    "descripcion VARCHAR(200) NOT NULL, " +
+                    "suma_sha256 CHAR(64) NOT NULL, " +
+                    "aplicada_en TIMESTAMP NOT NULL, " +
+                    "duracion_ms BIGINT NOT NULL)";
+
+    private static final String VERSION_ACTUAL = "SELECT MAX(version) FROM esquema_version";
+
+    private static final String APLICADAS = "SELECT version, suma_sha256 FROM esquema_version ORDER BY version";
+
+    private static final String REGISTRAR =
+            "INSERT INTO esquema_version (version, descripcion, suma_sha256, aplicada_en, duracion_ms) " +
+                    "VALUES (?, ?, ?, ?, ?)";
+
+    private Migraciones() {
+    }
+
+    /**
+     * Deja el esquema en la última versión conocida.
+     * @param dataSource Pool de conexiones de la aplicación.
+     * @return La versión del esquema tras migrar.
+     * @throws SQLException Si falla una migración; las anteriores quedan anotadas.
+     * @throws IOException Si no se puede leer un script.
+     * @throws IllegalStateException Si un script ya aplicado ha cambiado, si la base
+     * de datos está en una versión más nueva que la aplicación o si otro proceso
+     * no termina de migrar a tiempo.
+     */
+    static int migrar(DataSource dataSource) throws SQLException, IOException {
+        try (java.sql.Connection conexion = dataSource.getConnection()) {
+            // Arranque normal: el esquema ya está al día y no hace falta bloquear nada
+            Integer actual = versionActual(conexion);
+            if (actual != null && actual == MIGRACIONES.getLast().version()) return actual;
+
+            boolean bloqueado = obtenerBloqueo(conexion);
+            try {
+                return aplicarPendientes(conexion);
+            } finally {
+                if (bloqueado) liberarBloqueo(conexion);
+            }
+        }
+    }
+
+    /**
+     * Aplica las migraciones pendientes. Se llama con el bloqueo ya obtenido, así que
+     * vuelve a leer la versión: otro proceso puede haber migrado mientras se esperaba.
+     */
+    private static int aplicarPendientes(java.sql.Connection conexion) throws SQLException, IOException {
+        Integer actual = versionActual(conexion);
+        if (actual != null && actual == MIGRACIONES.getLast().version()) return actual;
+
+        try (Statement st = conexion.createStatement()) {
+            st.execute(CREAR_TABLA_VERSION);
+        }
+        if (actual == null) {
+            actual = registrarBase(conexion);
+        }
+        comprobarSumas(conexion);
+
+        for (Migracion migracion : MIGRACIONES) {
+            if (migracion.version() > actual) {
+                aplicar(conexion, migracion);
+                actual = migracion.version();
+            }
+        }
+        return actual;
+    }
+
+    /**
+     * Versión anotada del esquema, o {@code null} si aún no hay tabla de versiones.
+     * @throws IllegalStateException Si es más nueva que la última que conoce la aplicación.
+     */
+    private static Integer versionActual(java.sql.Connection conexion) throws SQLException {
+        Integer actual = existeTabla(conexion, TABLA_VERSION) ? leerVersion(conexion) : null;
+        int ultima = MIGRACIONES.getLast().version();
+        if (actual != null && actual > ultima) {
+            throw new IllegalStateException("La base de datos está en la versión " + actual
+                    + " del esquema y esta aplicación solo conoce hasta la " + ultima);
+        }
+        return actual;
+    }
+
+    /**
+     * Obtiene el bloqueo de migraciones en las bases de datos que lo admiten (MySQL y
+     * MariaDB). El bloqueo pertenece a la conexión, que es la misma que aplica las migraciones.
+     * @return {@code true} si se obtuvo y hay que liberarlo; {@code false} si la base
+     * de datos no usa bloqueo.
+     * @throws IllegalStateException Si otro proceso lo mantiene más de {@value #ESPERA_BLOQUEO_SEGUNDOS} s.
+     */
+    private static boolean obtenerBloqueo(java.sql.Connection conexion) throws SQLException {
+        String producto = conexion.getMetaData().getDatabaseProductName();
+        if (!producto.contains("MySQL") && !producto.contains("MariaDB")) return false;
+
+        try (PreparedStatement ps = conexion.prepareStatement(OBTENER_BLOQUEO)) {
+            ps.setString(1, BLOQUEO);
+            ps.setInt(2, ESPERA_BLOQUEO_SEGUNDOS);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next() && rs.getInt(1) == 1) return true;
+            }
+        }
+        throw new IllegalStateException("Otro proceso lleva más de " + ESPERA_BLOQUEO_SEGUNDOS
+                + " s migrando el esquema; vuelve a arrancar cuando termine");
+    }
+
+    private static void liberarBloqueo(java.sql.Connection conexion) {
+        try (PreparedStatement ps = conexion.prepareStatement(LIBERAR_BLOQUEO)) {
+            ps.setString(1, BLOQUEO);
+            ps.executeQuery().close();
+        } catch (SQLException e) {
+            // Si falla, la conexión está rota y el pool la descarta; MySQL libera el bloqueo al cerrarse la sesión
+            System.err.println("[BD] No se pudo liberar el bloqueo de migraciones: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Anota como aplicadas, sin ejecutarlas, las migraciones cuyas tablas ya existen
+     * en una base de datos anterior a las migraciones.
+     * @return La versión desde la que hay que seguir migrando (0 si está vacía).
+     */
+    private static int registrarBase(java.sql.Connection conexion) throws SQLException, IOException {
+        int base = 0;
+        for (Migracion migracion : MIGRACIONES) {
+            if (existeTabla(conexion, migracion.tabla())) base = migracion.version();
+        }
+        for (Migracion migracion : MIGRACIONES) {
+            if (migracion.version() > base) break;
+            registrar(conexion, migracion, suma(leerScript(migracion)), 0);
+        }
+        if (base > 0) {
+            System.out.println("[BD] Esquema existente registrado en la versión " + base + ".");
+        }
+        return base;
+    }
+
+    /**
+     * Comprueba que ninguno de los scripts ya aplicados se ha modificado después.
+     */
+    private static void comprobarSumas(java.sql.Connection conexion) throws SQLException, IOException {
+        Map<Integer, String> aplicadas = new LinkedHashMap<>();
+        try (Statement st = conexion.createStatement();
+             ResultSet rs = st.executeQuery(APLICADAS)) {
+            while (rs.next()) {
+                aplicadas.put(rs.getInt(1), rs.getString(2));
+            }
+        }
+        for (Migracion migracion : MIGRACIONES) {
+            String anotada = aplicadas.get(migracion.version());
+            if (anotada != null && !anotada.equals(suma(leerScript(migracion)))) {
+                throw new IllegalStateException("El script " + migracion.recurso()
+                        + " ha cambiado después de aplicarse; crea una migración nueva en su lugar");
+            }
+        }
+    }
+
+    /**
+     * Ejecuta una migración y la anota en la misma transacción. En MySQL cada
+     * sentencia DDL se confirma por sí sola, así que un fallo a mitad deja aplicadas
+     * las sentencias anteriores y la migración sin anotar.
+     */
+    private static void aplicar(java.sql.Connection conexion, Migracion migracion) throws SQLException, IOException {
+        String script = leerScript(migracion);
+        long inicio = System.nanoTime();
+        boolean autoCommit = conexion.getAutoCommit();
+        conexion.setAutoCommit(false);
+        try (Statement st = conexion.createStatement()) {
+            for (String sentencia : sentencias(script)) {
+                st.execute(sentencia);
+            }
+            long ms = (System.nanoTime() - inicio) / 1_000_000;
+            registrar(conexion, migracion, suma(script), ms);
+            conexion.commit();
+            System.out.println("[BD] Migración " + migracion.recurso() + " aplicada en " + ms + " ms.");
+        } catch (SQLException e) {
+            conexion.rollback();
+            throw new SQLException("Error al aplicar la migración " + migracion.recurso() + ": " + e.getMessage(), e);
+        } finally {
+            conexion.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static void registrar(java.sql.Connection conexion, Migracion migracion, String suma, long ms)
+            throws SQLException {
+        try (PreparedStatement ps = conexion.prepareStatement(REGISTRAR)) {
+            ps.setInt(1, migracion.version());
+            ps.setString(2, migracion.descripcion());
+            ps.setString(3, suma);
+            ps.setTimestamp(4, Timestamp.valueOf(LocalDateTime.now()));
+            ps.setLong(5, ms);
+            ps.executeUpdate();
+        }
+    }
+
+    private static Integer leerVersion(java.sql.Connection conexion) throws SQLException {
+        try (Statement st = conexion.createStatement();
+             ResultSet rs = st.executeQuery(VERSION_ACTUAL)) {
+            rs.next();
+            int version = rs.getInt(1);
+            return rs.wasNull() ? null : version;
+        }
+    }
+
+    /**
+     * Busca una tabla en el esquema de la conexión, tal cual o en mayúsculas según
+     * cómo guarde los nombres la base de datos.
+     */
+    private static boolean existeTabla(java.sql.Connection conexion, String tabla) throws SQLException {
+        DatabaseMetaData meta = conexion.getMetaData();
+        String nombre = meta.storesUpperCaseIdentifiers() ? tabla.toUpperCase() : tabla;
+        try (ResultSet rs = meta.getTables(conexion.getCatalog(), conexion.getSchema(), nombre, new String[]{"TABLE"})) {
+            return rs.next();
+        }
+    }
+
+    private static String leerScript(Migracion migracion) throws IOException {
+        try (InputStream entrada = Migraciones.class.getResourceAsStream(migracion.recurso())) {
+            if (entrada == null) throw new IOException("No se encuentra la migración " + migracion.recurso());
+            // Los saltos de línea se normalizan para que la suma no dependa del sistema
+            return new String(entrada.readAllBytes(), StandardCharsets.UTF_8).replace("\r\n", "\n");
+        }
+    }
+
+    /**
+     * Divide un script en sentencias. Como en el volcado, cada sentencia termina
+     * en {@code ;} al final de línea y los comentarios ocupan líneas completas.
+     */
+    private static List<String> sentencias(String script) {
+        List<String> sentencias = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        for (String linea : script.split("\n")) {
+            if (linea.isBlank() || linea.stripLeading().startsWith("--")) continue;
+            actual.append(linea).append('\n');
+            String fin = linea.stripTrailing();
+            if (fin.endsWith(";")) {
+                sentencias.add(actual.substring(0, actual.lastIndexOf(";")).trim());
+                actual.setLength(0);
+            }
+        }
+        if (!actual.isEmpty()) sentencias.add(actual.toString().trim());
+        return sentencias;
+    }
+
+    private static String suma(String script) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(script.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    /**
+     * Una migración del esquema.
+     * @param version Número de versión al que lleva el esquema.
+     * @param descripcion Parte descriptiva del nombre del script.
+     * @param tabla Tabla que crea la migración; sirve para reconocer esquemas anteriores a las migraciones.
+     */
+    private record Migracion(int version, String descripcion, String tabla) {
+
+        String recurso() {
+            return CARPETA + "V" + version + "__" + descripcion + ".sql";
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package connection;
+
+import org.hibernate.cfg.Configuration;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Base de datos contra la que trabaja la aplicación. Se elige al arrancar con la
+ * propiedad del sistema {@code ecotrack.perfil} (o con la opción {@code --embebido}).
+ * <ul>
+ *   <li>{@link #MYSQL}: el servidor configurado en hibernate.cfg.xml. Es el perfil por defecto.</li>
+ *   <li>{@link #EMBEBIDO}: una base de datos H2 en modo MySQL guardada en la carpeta
+ *   del usuario, con el mismo esquema (las mismas migraciones) y el catálogo cargado desde el volcado SQL.
+ *   Sirve para trabajar sin servidor y para pruebas que necesitan arrancar rápido.</li>
+ * </ul>
+ */
+public enum PerfilBaseDatos {
+
+    MYSQL(null),
+    EMBEBIDO("/perfil-embebido.properties");
+
+    /**
+     * Propiedad del sistema que selecciona el perfil.
+     */
+    public static final String PROPIEDAD = "ecotrack.perfil";
+
+    /**
+     * Recurso con los ajustes de Hibernate que el perfil sustituye, o {@code null}
+     * si usa hibernate.cfg.xml tal cual.
+     */
+    private final String ajustes;
+
+    PerfilBaseDatos(String ajustes) {
+        this.ajustes = ajustes;
+    }
+
+    /**
+     * Devuelve el perfil elegido al arrancar.
+     * * @return El perfil indicado en {@value #PROPIEDAD}, o {@link #MYSQL} si no se indicó.
+     * @throws IllegalArgumentException Si el valor no corresponde a ningún perfil.
+     */
+    public static PerfilBaseDatos actual() {
+        String valor = System.getProperty(PROPIEDAD);
+        if (valor == null || valor.isBlank()) return MYSQL;
+        return valueOf(valor.trim().toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Indica si la base de datos vive dentro del propio proceso.
+     */
+    public boolean isEmbebido() {
+        return this == EMBEBIDO;
+    }
+
+    /**
+     * Aplica sobre la configuración los ajustes propios del perfil.
+     * @param configuration Configuración ya cargada desde hibernate.cfg.xml.
+     */
+    void aplicar(Configuration configuration) {
+        if (ajustes == null) return;
+        try (InputStream entrada = PerfilBaseDatos.class.getResourceAsStream(ajustes)) {
+            if (entrada == null) throw new IllegalStateException("No se encuentra " + ajustes);
+            Properties props = new Properties();
+            props.load(entrada);
+            for (String clave : props.stringPropertyNames()) {
+                configuration.setProperty(clave, props.getProperty(clave));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo leer " + ajustes, e);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package connection;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Carga el catálogo (categorías, actividades y recomendaciones) en una base de
+ * datos embebida recién creada, a partir de las sentencias INSERT del volcado
+ * SQL del proyecto. Así el perfil embebido usa exactamente los mismos datos de
+ * partida que la instalación con MySQL. Los usuarios y huellas de ejemplo del
+ * volcado no se cargan.
+ */
+class SemillaCatalogo {
+
+    /**
+     * Volcado SQL incluido como recurso en el empaquetado.
+     */
+    private static final String VOLCADO = "/huella_carbono_db.sql";
+
+    /**
+     * Tablas del catálogo, en el orden en que deben insertarse por sus claves ajenas.
+     */
+    private static final String[] TABLAS = {"categoria", "actividad", "recomendacion"};
+
+    private static final String CONTAR_CATEGORIAS = "SELECT COUNT(*) FROM categoria";
+
+    private SemillaCatalogo() {
+    }
+
+    /**
+     * Inserta el catálogo si la tabla de categorías está vacía.
+     * @param sessionFactory Factoría ya construida, con el esquema creado.
+     */
+    static void sembrarSiVacio(SessionFactory sessionFactory) {
+        Transaction tx = null;
+        try (Session session = sessionFactory.openSession()) {
+            long categorias = session.createNativeQuery(CONTAR_CATEGORIAS, Long.class).getSingleResult();
+            if (categorias > 0) return;
+
+            Map<String, List<String>> inserciones = leerInserciones();
+            tx = session.beginTransaction();
+            int sentencias = 0;
+            for (String tabla : TABLAS) {
+                for (String sql : inserciones.getOrDefault(tabla, List.of())) {
+                    session.createNativeMutationQuery(sql).executeUpdate();
+                    sentencias++;
+                }
+            }
+            tx.commit();
+            System.out.println("[BD] Catálogo cargado desde el volcado (" + sentencias + " sentencias).");
+        } catch (Exception e) {
+            if (tx != null && tx.isActive()) tx.rollback();
+            System.err.println("Error al cargar el catálogo en la base de datos embebida: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Extrae del volcado las sentencias INSERT de las tablas del catálogo,
+     * agrupadas por tabla. Las sentencias del volcado terminan siempre en
+     * {@code ;} al final de línea y los comentarios ocupan líneas completas.
+     */
+    private static Map<String, List<String>> leerInserciones() throws IOException {
+        Map<String, List<String>> porTabla = new LinkedHashMap<>();
+        try (InputStream entrada = SemillaCatalogo.class.getResourceAsStream(VOLCADO)) {
+            if (entrada == null) throw new IOException("No se encuentra el volcado " + VOLCADO);
+            BufferedReader lector = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+
+            StringBuilder actual = new StringBuilder();
+            String linea;
+            while ((linea = lector.readLine()) != null) {
+                if (actual.isEmpty() && (linea.isBlank() || linea.startsWith("--") || linea.startsWith("/*"))) continue;
+                actual.append(linea).append('\n');
+                if (!linea.stripTrailing().endsWith(";")) continue;
+
+                String sentencia = actual.toString().trim();
+                actual.setLength(0);
+                for (String tabla : TABLAS) {
+                    if (sentencia.startsWith("INSERT INTO `" + tabla + "`")) {
+                        // Se quita el ; final: Hibernate ejecuta una sola sentencia cada vez
+                        porTabla.computeIfAbsent(tabla, k -> new ArrayList<>())
+                                .add(sentencia.substring(0, sentencia.length() - 1));
+                    }
+                }
+            }
+        }
+        return porTabla;
+    }
+}
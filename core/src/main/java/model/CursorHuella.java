@@ -0,0 +1,22 @@
+package model;
+
+import java.time.LocalDate;
+
+/**
+ * Posición dentro del historial de un usuario ordenado por fecha e identificador
+ * descendentes. La siguiente página empieza justo después de este punto, sin
+ * necesidad de saltar filas con OFFSET.
+ * @param fecha Fecha del último registro de la página anterior.
+ * @param id Identificador del último registro de la página anterior.
+ */
+public record CursorHuella(LocalDate fecha, int id) {
+
+    /**
+     * Crea el cursor que apunta justo detrás de un registro.
+     * @param huella Último registro mostrado.
+     * @return El cursor para pedir la página siguiente.
+     */
+    public static CursorHuella de(HuellaFila huella) {
+        return new CursorHuella(huella.fecha(), huella.id());
+    }
+}
@@ -0,0 +1,47 @@
+package model;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Resumen agregado de la huella de un usuario para la pantalla de Análisis.
+ * Se construye a partir de consultas de agregación, sin cargar entidades,
+ * y contiene todo lo necesario para pintar las tarjetas y los gráficos.
+ * @param total Impacto acumulado en kg de CO2.
+ * @param conteo Número de registros de huella.
+ * @param porCategoria Impacto acumulado por nombre de categoría.
+ * @param porMes Impacto acumulado por mes, en orden cronológico.
+ * @param topActividades Actividades con más impacto, de mayor a menor.
+ */
+public record DashboardSnapshot(double total,
+                                long conteo,
+                                Map<String, Double> porCategoria,
+                                SortedMap<YearMonth, Double> porMes,
+                                List<ImpactoActividad> topActividades) {
+
+    /**
+     * Impacto acumulado de una actividad concreta.
+     * @param nombre Nombre de la actividad.
+     * @param impacto Suma de kg de CO2 de todos sus registros.
+     */
+    public record ImpactoActividad(String nombre, double impacto) {}
+
+    /**
+     * Impacto medio por registro.
+     * @return El total dividido entre el número de registros, o 0 si no hay ninguno.
+     */
+    public double promedio() {
+        return (conteo == 0) ? 0.0 : total / conteo;
+    }
+
+    /**
+     * Resumen sin datos, usado cuando el usuario no tiene registros o falla la consulta.
+     * @return Un resumen con todos los valores a cero.
+     */
+    public static DashboardSnapshot vacio() {
+        return new DashboardSnapshot(0.0, 0, Map.of(), new TreeMap<>(), List.of());
+    }
+}
@@ -0,0 +1,51 @@
+package model;
+
+/**
+ * Criterios de búsqueda sobre el historial de huellas de un usuario.
+ * Ambos criterios son opcionales y se combinan entre sí.
+ * @param texto Fragmento del nombre de la actividad, sin distinguir mayúsculas, o {@code null}.
+ * @param idCategoria Categoría de la actividad, o {@code null} para todas.
+ */
+public record FiltroHuellas(String texto, Integer idCategoria) {
+
+    /**
+     * Filtro que no descarta ningún registro.
+     */
+    public static final FiltroHuellas NINGUNO = new FiltroHuellas(null, null);
+
+    public FiltroHuellas {
+        texto = (texto == null || texto.isBlank()) ? null : texto.trim().toLowerCase();
+    }
+
+    /**
+     * Indica si hay que filtrar por nombre de actividad.
+     */
+    public boolean tieneTexto() {
+        return texto != null;
+    }
+
+    /**
+     * Indica si hay que filtrar por categoría.
+     */
+    public boolean tieneCategoria() {
+        return idCategoria != null;
+    }
+
+    /**
+     * Indica si el filtro no restringe nada.
+     */
+    public boolean estaVacio() {
+        return !tieneTexto() && !tieneCategoria();
+    }
+
+    /**
+     * Patrón LIKE para buscar el texto en cualquier posición del nombre.
+     * Los comodines que escriba el usuario se escapan con {@code !}.
+     * @return El patrón listo para usar como parámetro, o {@code null} si no hay texto.
+     */
+    public String patronTexto() {
+        if (texto == null) return null;
+        String escapado = texto.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+        return "%" + escapado + "%";
+    }
+}
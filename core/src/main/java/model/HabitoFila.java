@@ -0,0 +1,17 @@
+package model;
+
+import java.time.LocalDate;
+
+/**
+ * Hábito de un usuario tal como lo muestra la pantalla de Hábitos. Se obtiene con
+ * una proyección, sin cargar la entidad {@link Habito} ni su actividad y categoría.
+ * @param idUsuario Usuario dueño del hábito.
+ * @param idActividad Actividad del hábito (junto con el usuario, su clave).
+ * @param actividad Nombre de la actividad.
+ * @param categoria Nombre de la categoría de la actividad.
+ * @param frecuencia Veces que se repite en cada periodo.
+ * @param tipo Periodo del hábito (Diario, Semanal o Mensual).
+ * @param ultimaFecha Última vez que se guardó el hábito.
+ */
+public record HabitoFila(Integer idUsuario, Integer idActividad, String actividad, String categoria,
+                         Integer frecuencia, String tipo, LocalDate ultimaFecha) {}
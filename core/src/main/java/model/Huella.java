@@ -5,7 +5,12 @@ import jakarta.persistence.*;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "huella")
+@Table(name = "huella", indexes = {
+        // Sirve el historial de cada usuario ya ordenado y la paginación por cursor
+        @Index(name = "idx_huella_usuario_fecha", columnList = "id_usuario, fecha, id_registro"),
+        // Resuelve las búsquedas por actividad o categoría dentro del historial de un usuario
+        @Index(name = "idx_huella_usuario_actividad", columnList = "id_usuario, id_actividad, fecha")
+})
 public class Huella {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -29,6 +34,13 @@ public class Huella {
     @Column(name = "fecha", nullable = false)
     private LocalDate fecha;
 
+    /**
+     * Impacto del registro en kg de CO2 (valor * factor de emisión de su categoría),
+     * calculado al guardar para no tener que recalcularlo en cada consulta.
+     */
+    @Column(name = "impacto_kg")
+    private Double impactoKg;
+
     public Integer getId() {
         return id;
     }
@@ -77,6 +89,14 @@ public class Huella {
         this.fecha = fecha;
     }
 
+    public Double getImpactoKg() {
+        return impactoKg;
+    }
+
+    public void setImpactoKg(Double impactoKg) {
+        this.impactoKg = impactoKg;
+    }
+
     public String getNombreActividad() {
         return (idActividad != null) ? idActividad.getNombre() : "Actividad";
     }
@@ -0,0 +1,19 @@
+package model;
+
+import java.time.LocalDate;
+
+/**
+ * Registro de huella tal como lo muestran las pantallas de consulta y lo escribe
+ * la exportación a CSV. Se obtiene con una proyección (expresión de constructor),
+ * sin cargar entidades en la sesión: no hay contexto de persistencia que revisar,
+ * ni copias para detectar cambios, ni proxies de actividad y categoría.
+ * @param id Identificador del registro.
+ * @param fecha Fecha del registro.
+ * @param actividad Nombre de la actividad, o {@code null} si el registro no tiene.
+ * @param categoria Nombre de la categoría de la actividad, o {@code null} si no tiene.
+ * @param valor Cantidad consumida.
+ * @param unidad Unidad de la cantidad.
+ * @param impactoKg Impacto en kg de CO2, o {@code null} si aún no está calculado.
+ */
+public record HuellaFila(Integer id, LocalDate fecha, String actividad, String categoria,
+                         Float valor, String unidad, Double impactoKg) {}
@@ -0,0 +1,47 @@
+package model;
+
+import jakarta.persistence.*;
+
+/**
+ * Resumen mensual precalculado de la huella de cada usuario por categoría.
+ * Se mantiene de forma incremental desde {@code HuellaDAO} en la misma transacción
+ * que cada alta, modificación o baja de huella, de modo que los totales y los
+ * gráficos no tienen que recorrer todo el historial.
+ */
+@Entity
+@Table(name = "huella_mensual")
+public class HuellaMensual {
+    @EmbeddedId
+    private HuellaMensualId id;
+
+    @Column(name = "kg_co2", nullable = false)
+    private Double kgCo2;
+
+    @Column(name = "num_registros", nullable = false)
+    private Long numRegistros;
+
+    public HuellaMensualId getId() {
+        return id;
+    }
+
+    public void setId(HuellaMensualId id) {
+        this.id = id;
+    }
+
+    public Double getKgCo2() {
+        return kgCo2;
+    }
+
+    public void setKgCo2(Double kgCo2) {
+        this.kgCo2 = kgCo2;
+    }
+
+    public Long getNumRegistros() {
+        return numRegistros;
+    }
+
+    public void setNumRegistros(Long numRegistros) {
+        this.numRegistros = numRegistros;
+    }
+
+}
@@ -0,0 +1,49 @@
+package model;
+
+import jakarta.persistence.*;
+
+/**
+ * Resumen mensual precalculado de la huella de cada usuario por actividad.
+ * Como {@link HuellaMensual}, se mantiene de forma incremental desde {@code HuellaDAO}
+ * en la misma transacción que cada alta, modificación o baja de huella. La
+ * actividad determina la categoría, así que el panel de Análisis obtiene de aquí
+ * en una sola consulta el reparto por categoría, la evolución mensual y el
+ * ranking de actividades, sin recorrer el historial.
+ */
+@Entity
+@Table(name = "huella_mensual_actividad")
+public class HuellaMensualActividad {
+    @EmbeddedId
+    private HuellaMensualActividadId id;
+
+    @Column(name = "kg_co2", nullable = false)
+    private Double kgCo2;
+
+    @Column(name = "num_registros", nullable = false)
+    private Long numRegistros;
+
+    public HuellaMensualActividadId getId() {
+        return id;
+    }
+
+    public void setId(HuellaMensualActividadId id) {
+        this.id = id;
+    }
+
+    public Double getKgCo2() {
+        return kgCo2;
+    }
+
+    public void setKgCo2(Double kgCo2) {
+        this.kgCo2 = kgCo2;
+    }
+
+    public Long getNumRegistros() {
+        return numRegistros;
+    }
+
+    public void setNumRegistros(Long numRegistros) {
+        this.numRegistros = numRegistros;
+    }
+
+}
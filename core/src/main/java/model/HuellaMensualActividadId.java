@@ -0,0 +1,73 @@
+package model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import org.hibernate.Hibernate;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+@Embeddable
+public class HuellaMensualActividadId implements Serializable {
+    private static final long serialVersionUID = 3160948275513904817L;
+    @Column(name = "id_usuario", nullable = false)
+    private Integer idUsuario;
+
+    @Column(name = "id_actividad", nullable = false)
+    private Integer idActividad;
+
+    /**
+     * Mes del resumen codificado como año * 100 + mes, igual que en {@link HuellaMensualId}.
+     */
+    @Column(name = "anio_mes", nullable = false)
+    private Integer anioMes;
+
+    public HuellaMensualActividadId() {
+    }
+
+    public HuellaMensualActividadId(Integer idUsuario, Integer idActividad, Integer anioMes) {
+        this.idUsuario = idUsuario;
+        this.idActividad = idActividad;
+        this.anioMes = anioMes;
+    }
+
+    public Integer getIdUsuario() {
+        return idUsuario;
+    }
+
+    public void setIdUsuario(Integer idUsuario) {
+        this.idUsuario = idUsuario;
+    }
+
+    public Integer getIdActividad() {
+        return idActividad;
+    }
+
+    public void setIdActividad(Integer idActividad) {
+        this.idActividad = idActividad;
+    }
+
+    public Integer getAnioMes() {
+        return anioMes;
+    }
+
+    public void setAnioMes(Integer anioMes) {
+        this.anioMes = anioMes;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
+        HuellaMensualActividadId entity = (HuellaMensualActividadId) o;
+        return Objects.equals(this.idUsuario, entity.idUsuario) &&
+                Objects.equals(this.idActividad, entity.idActividad) &&
+                Objects.equals(this.anioMes, entity.anioMes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(idUsuario, idActividad, anioMes);
+    }
+
+}
@@ -0,0 +1,89 @@
+package model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import org.hibernate.Hibernate;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Objects;
+
+@Embeddable
+public class HuellaMensualId implements Serializable {
+    private static final long serialVersionUID = 5728465192038471625L;
+    @Column(name = "id_usuario", nullable = false)
+    private Integer idUsuario;
+
+    @Column(name = "id_categoria", nullable = false)
+    private Integer idCategoria;
+
+    /**
+     * Mes del resumen codificado como año * 100 + mes (por ejemplo, 202601).
+     */
+    @Column(name = "anio_mes", nullable = false)
+    private Integer anioMes;
+
+    public HuellaMensualId() {
+    }
+
+    public HuellaMensualId(Integer idUsuario, Integer idCategoria, Integer anioMes) {
+        this.idUsuario = idUsuario;
+        this.idCategoria = idCategoria;
+        this.anioMes = anioMes;
+    }
+
+    public Integer getIdUsuario() {
+        return idUsuario;
+    }
+
+    public void setIdUsuario(Integer idUsuario) {
+        this.idUsuario = idUsuario;
+    }
+
+    public Integer getIdCategoria() {
+        return idCategoria;
+    }
+
+    public void setIdCategoria(Integer idCategoria) {
+        this.idCategoria = idCategoria;
+    }
+
+    public Integer getAnioMes() {
+        return anioMes;
+    }
+
+    public void setAnioMes(Integer anioMes) {
+        this.anioMes = anioMes;
+    }
+
+    /**
+     * Codifica la fecha de un registro en la clave de mes del resumen.
+     */
+    public static int claveMes(LocalDate fecha) {
+        return fecha.getYear() * 100 + fecha.getMonthValue();
+    }
+
+    /**
+     * Decodifica una clave de mes del resumen.
+     */
+    public static YearMonth aYearMonth(int anioMes) {
+        return YearMonth.of(anioMes / 100, anioMes % 100);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
+        HuellaMensualId entity = (HuellaMensualId) o;
+        return Objects.equals(this.idUsuario, entity.idUsuario) &&
+                Objects.equals(this.idCategoria, entity.idCategoria) &&
+                Objects.equals(this.anioMes, entity.anioMes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(idUsuario, idCategoria, anioMes);
+    }
+
+}
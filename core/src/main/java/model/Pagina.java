@@ -0,0 +1,26 @@
+package model;
+
+import java.util.List;
+
+/**
+ * Página de resultados obtenida con paginación por cursor.
+ * @param elementos Registros de la página, en orden.
+ * @param siguiente Cursor para pedir la página siguiente, o {@code null} si no hay más.
+ * @param <T> Tipo de los registros.
+ */
+public record Pagina<T>(List<T> elementos, CursorHuella siguiente) {
+
+    /**
+     * Indica si quedan más registros después de esta página.
+     */
+    public boolean hayMas() {
+        return siguiente != null;
+    }
+
+    /**
+     * Página sin registros ni continuación.
+     */
+    public static <T> Pagina<T> vacia() {
+        return new Pagina<>(List.of(), null);
+    }
+}
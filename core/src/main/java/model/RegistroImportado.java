@@ -0,0 +1,16 @@
+package model;
+
+import java.time.LocalDate;
+
+/**
+ * Fila de huella ya validada y lista para insertarse en bloque, con la actividad
+ * resuelta contra el catálogo y el impacto calculado.
+ * @param idActividad Actividad del registro.
+ * @param idCategoria Categoría de la actividad, para el resumen mensual.
+ * @param valor Cantidad consumida.
+ * @param unidad Unidad de la cantidad.
+ * @param fecha Fecha del registro.
+ * @param impactoKg Impacto en kg de CO2.
+ */
+public record RegistroImportado(int idActividad, int idCategoria, float valor, String unidad,
+                                LocalDate fecha, double impactoKg) {}
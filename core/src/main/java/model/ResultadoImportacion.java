@@ -0,0 +1,29 @@
+package model;
+
+import java.util.List;
+
+/**
+ * Resumen de una importación de huellas desde CSV.
+ * @param leidas Filas de datos leídas del archivo (sin contar la cabecera).
+ * @param importadas Filas guardadas en la base de datos.
+ * @param rechazadas Filas descartadas por datos incorrectos o por un fallo al guardar.
+ * @param motivos Motivo de rechazo de las primeras filas descartadas, con su número de línea.
+ * @param milisegundos Duración total de la importación.
+ */
+public record ResultadoImportacion(long leidas, long importadas, long rechazadas,
+                                   List<String> motivos, long milisegundos) {
+
+    /**
+     * Velocidad media de la importación.
+     * @return Filas importadas por segundo.
+     */
+    public double filasPorSegundo() {
+        return (milisegundos == 0) ? importadas : importadas * 1000.0 / milisegundos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Importación: %d leídas, %d importadas, %d rechazadas en %d ms (%.0f filas/s)",
+                leidas, importadas, rechazadas, milisegundos, filasPorSegundo());
+    }
+}
@@ -1,27 +1,28 @@
 package services;
 
-import DAO.ActividadDAO;
 import model.Actividad;
+import utils.Medicion;
+import utils.Metricas;
 import java.util.List;
 
 /**
  * Servicio encargado de gestionar la lógica de negocio para las actividades.
- * Proporciona una capa de abstracción sobre el DAO de Actividades, facilitando
+ * Proporciona una capa de abstracción sobre el catálogo de emisiones, facilitando
  * la obtención del catálogo de acciones que el usuario puede realizar para
- * registrar su impacto ambiental.
+ * registrar su impacto ambiental sin consultar la base de datos cada vez.
  */
 public class ActividadService {
 
     /**
-     * Instancia del DAO de Actividad para la interacción con la persistencia.
+     * Catálogo en memoria compartido del que se leen las actividades.
      */
-    private final ActividadDAO actividadDAO;
+    private final CatalogoEmisiones catalogo;
 
     /**
-     * Constructor por defecto que inicializa el acceso a datos.
+     * Constructor por defecto que enlaza el servicio con el catálogo compartido.
      */
     public ActividadService() {
-        this.actividadDAO = new ActividadDAO();
+        this.catalogo = CatalogoEmisiones.getInstance();
     }
 
     /**
@@ -31,7 +32,9 @@ public class ActividadService {
      * * @return Una lista de objetos {@link Actividad} con todas las opciones disponibles.
      */
     public List<Actividad> listarTodasLasActividades() {
-        return actividadDAO.listarTodas();
+        try (Medicion m = Metricas.medir("ActividadService.listarTodasLasActividades")) {
+            return catalogo.actividades();
+        }
     }
 
     /**
@@ -41,6 +44,8 @@ public class ActividadService {
      * * @return Lista exhaustiva de actividades del catálogo.
      */
     public List<Actividad> obtenerTodas() {
-        return actividadDAO.listarTodas();
+        try (Medicion m = Metricas.medir("ActividadService.obtenerTodas")) {
+            return catalogo.actividades();
+        }
     }
 }
\ No newline at end of file
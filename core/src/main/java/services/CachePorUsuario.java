@@ -0,0 +1,191 @@
+package services;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Caché de lectura de los resultados de consulta de cada usuario.
+ * Guarda páginas de historial, totales y resúmenes para no repetir la misma
+ * consulta cada vez que se abre una pantalla. Está acotada en número de entradas
+ * (se expulsa la menos usada) y en tiempo (cada entrada caduca a los pocos
+ * minutos), y los servicios la invalidan por usuario en cuanto modifican sus datos.
+ * El tamaño y el tiempo de vida se ajustan con las propiedades del sistema
+ * {@code cache.usuario.max} y {@code cache.usuario.ttl.segundos}.
+ */
+public class CachePorUsuario {
+
+    private static final int MAX_POR_DEFECTO = 500;
+    private static final long TTL_POR_DEFECTO = 120;
+
+    /**
+     * Clave de una entrada: usuario, tipo de consulta y sus parámetros.
+     */
+    private record Clave(int idUsuario, String consulta, Object parametros) {}
+
+    private record Entrada(Object valor, long guardadaEn) {}
+
+    private final String nombre;
+    private final int maxEntradas;
+    private final long ttlNanos;
+
+    /**
+     * Entradas en orden de uso (la menos usada primero). Protegida por {@code this}.
+     */
+    private final LinkedHashMap<Clave, Entrada> entradas;
+
+    /**
+     * Versión de los datos de cada usuario; sube con cada invalidación para que una
+     * consulta que empezó antes no guarde un resultado ya obsoleto.
+     */
+    private final Map<Integer, Long> versiones = new HashMap<>();
+    private long versionGlobal = 0;
+
+    private long aciertos;
+    private long fallos;
+    private long expulsiones;
+    private long caducadas;
+    private long invalidaciones;
+
+    /**
+     * Crea una caché con los límites configurados en las propiedades del sistema.
+     * @param nombre Nombre de la caché, usado en las estadísticas.
+     */
+    public CachePorUsuario(String nombre) {
+        this(nombre, Integer.getInteger("cache.usuario.max", MAX_POR_DEFECTO),
+                Long.getLong("cache.usuario.ttl.segundos", TTL_POR_DEFECTO));
+    }
+
+    /**
+     * Crea una caché con límites explícitos.
+     * @param nombre Nombre de la caché, usado en las estadísticas.
+     * @param maxEntradas Número máximo de resultados guardados.
+     * @param ttlSegundos Tiempo que un resultado se considera válido.
+     */
+    public CachePorUsuario(String nombre, int maxEntradas, long ttlSegundos) {
+        this.nombre = nombre;
+        this.maxEntradas = maxEntradas;
+        this.ttlNanos = ttlSegundos * 1_000_000_000L;
+        this.entradas = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Clave, Entrada> eldest) {
+                if (size() > CachePorUsuario.this.maxEntradas) {
+                    expulsiones++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Devuelve el resultado guardado para una consulta o, si no lo hay o ha
+     * caducado, ejecuta la consulta y guarda su resultado.
+     * La consulta se ejecuta fuera del bloqueo, así que no frena al resto de usuarios.
+     * Un resultado {@code null} significa que la consulta falló: se devuelve pero no
+     * se guarda, y la siguiente llamada vuelve a intentarlo.
+     * @param idUsuario Usuario al que pertenecen los datos.
+     * @param consulta Nombre de la consulta.
+     * @param parametros Parámetros que distinguen unas llamadas de otras (pueden ser {@code null}).
+     * @param cargar Código que consulta la base de datos.
+     * @param <T> Tipo del resultado.
+     * @return El resultado, de la caché o recién consultado, o {@code null} si la consulta falló.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T obtener(int idUsuario, String consulta, Object parametros, Supplier<T> cargar) {
+        Clave clave = new Clave(idUsuario, consulta, parametros);
+        long version;
+        synchronized (this) {
+            Entrada e = entradas.get(clave);
+            if (e != null) {
+                if (System.nanoTime() - e.guardadaEn() < ttlNanos) {
+                    aciertos++;
+                    return (T) e.valor();
+                }
+                entradas.remove(clave);
+                caducadas++;
+            }
+            fallos++;
+            version = versionDe(idUsuario);
+        }
+
+        T valor = cargar.get();
+
+        synchronized (this) {
+            if (valor != null && version == versionDe(idUsuario)) {
+                entradas.put(clave, new Entrada(valor, System.nanoTime()));
+            }
+        }
+        return valor;
+    }
+
+    /**
+     * Descarta todos los resultados de un usuario. Debe llamarse tras cualquier
+     * escritura que afecte a sus datos.
+     * @param idUsuario Usuario cuyos datos han cambiado.
+     */
+    public synchronized void invalidar(int idUsuario) {
+        versiones.merge(idUsuario, 1L, Long::sum);
+        invalidaciones++;
+        Iterator<Clave> it = entradas.keySet().iterator();
+        while (it.hasNext()) {
+            if (it.next().idUsuario() == idUsuario) it.remove();
+        }
+    }
+
+    /**
+     * Descarta todos los resultados de todos los usuarios, por ejemplo tras un
+     * recálculo de impactos que afecta a muchos usuarios a la vez.
+     */
+    public synchronized void invalidarTodo() {
+        versionGlobal++;
+        invalidaciones++;
+        entradas.clear();
+    }
+
+    private long versionDe(int idUsuario) {
+        return versionGlobal + versiones.getOrDefault(idUsuario, 0L);
+    }
+
+    /**
+     * Devuelve los contadores acumulados desde el arranque.
+     * @return Una fotografía de las estadísticas de la caché.
+     */
+    public synchronized Estadisticas getEstadisticas() {
+        return new Estadisticas(nombre, entradas.size(), maxEntradas,
+                aciertos, fallos, expulsiones, caducadas, invalidaciones);
+    }
+
+    /**
+     * Contadores de uso de una caché, para dimensionarla.
+     * @param nombre Nombre de la caché.
+     * @param entradas Resultados guardados ahora mismo.
+     * @param maximo Capacidad máxima configurada.
+     * @param aciertos Lecturas servidas desde la caché.
+     * @param fallos Lecturas que tuvieron que ir a la base de datos.
+     * @param expulsiones Entradas descartadas por falta de espacio.
+     * @param caducadas Entradas descartadas por haber superado su tiempo de vida.
+     * @param invalidaciones Invalidaciones por escrituras.
+     */
+    public record Estadisticas(String nombre, int entradas, int maximo, long aciertos, long fallos,
+                               long expulsiones, long caducadas, long invalidaciones) {
+
+        /**
+         * Proporción de lecturas servidas desde la caché.
+         */
+        public double tasaAciertos() {
+            long total = aciertos + fallos;
+            return (total == 0) ? 0.0 : (double) aciertos / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Cache[%s: entradas=%d/%d, aciertos=%d, fallos=%d (%.1f%%), " +
+                            "expulsiones=%d, caducadas=%d, invalidaciones=%d]",
+                    nombre, entradas, maximo, aciertos, fallos, tasaAciertos() * 100,
+                    expulsiones, caducadas, invalidaciones);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package services;
+
+import model.FiltroHuellas;
+import utils.Medicion;
+import utils.Metricas;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * Calentamiento de las cachés tras un inicio de sesión correcto.
+ * Mientras el usuario ve el tablero de Inicio, consulta en paralelo el catálogo
+ * de emisiones, la primera página del historial, el resumen del panel de Análisis
+ * y los hábitos, de modo que las pantallas los encuentren ya en la caché de
+ * {@link CatalogoEmisiones} y en las de {@link HuellaService} y {@link HabitoService}.
+ * Cada parte corre en su propio hilo virtual y el ejecutor se cierra (esperando
+ * a todas) antes de devolver el informe; una parte que falla no detiene las demás.
+ * Se desactiva con la propiedad del sistema {@value #PROPIEDAD}{@code =false}.
+ */
+public final class Calentamiento {
+
+    /**
+     * Propiedad del sistema que permite desactivar el calentamiento.
+     */
+    public static final String PROPIEDAD = "calentamiento.login";
+
+    private Calentamiento() {
+    }
+
+    /**
+     * Lanza el calentamiento en un hilo virtual y, al terminar, escribe el informe
+     * y ejecuta {@code alTerminar} en ese mismo hilo.
+     * @param idUsuario Usuario que acaba de iniciar sesión.
+     * @param alTerminar Acción posterior, por ejemplo precargar vistas que usarán las cachés.
+     */
+    public static void iniciar(int idUsuario, Runnable alTerminar) {
+        if (!Boolean.parseBoolean(System.getProperty(PROPIEDAD, "true"))) {
+            alTerminar.run();
+            return;
+        }
+        Thread.ofVirtual().name("calentamiento-" + idUsuario).start(() -> {
+            System.out.println(ejecutar(idUsuario));
+            alTerminar.run();
+        });
+    }
+
+    /**
+     * Ejecuta todas las partes en paralelo y espera a que terminen.
+     * @param idUsuario Usuario cuyos datos se cargan.
+     * @return El tiempo total y el de cada parte.
+     */
+    public static Informe ejecutar(int idUsuario) {
+        HuellaService huellaService = new HuellaService();
+        HabitoService habitoService = new HabitoService();
+        long inicio = System.nanoTime();
+        List<Future<Parte>> tareas = new ArrayList<>();
+
+        try (Medicion m = Metricas.medir("Calentamiento.ejecutar").usuario(idUsuario);
+             ExecutorService hilos = Executors.newThreadPerTaskExecutor(
+                     Thread.ofVirtual().name("calentamiento-parte-", 0).factory())) {
+            tareas.add(hilos.submit(() -> parte("catalogo",
+                    () -> CatalogoEmisiones.getInstance().actual())));
+            tareas.add(hilos.submit(() -> parte("historial", () -> {
+                if (huellaService.contarHuellas(idUsuario, FiltroHuellas.NINGUNO) > 0) {
+                    huellaService.buscarPaginaHistorial(idUsuario, FiltroHuellas.NINGUNO, null,
+                            HuellaService.TAMANO_PAGINA_HISTORIAL);
+                }
+            })));
+            tareas.add(hilos.submit(() -> parte("dashboard",
+                    () -> huellaService.obtenerDashboard(idUsuario, HuellaService.TOP_ACTIVIDADES_DASHBOARD))));
+            tareas.add(hilos.submit(() -> parte("habitos",
+                    () -> habitoService.misHabitos(idUsuario))));
+        }
+
+        // El ejecutor ya está cerrado: todas las partes han terminado
+        List<Parte> partes = new ArrayList<>();
+        for (Future<Parte> tarea : tareas) {
+            partes.add(tarea.resultNow());
+        }
+        return new Informe(idUsuario, (System.nanoTime() - inicio) / 1_000_000, partes);
+    }
+
+    /**
+     * Ejecuta una parte midiendo su duración. Los errores se registran y la parte
+     * se marca como fallida sin propagar la excepción.
+     */
+    private static Parte parte(String nombre, Runnable carga) {
+        long inicio = System.nanoTime();
+        try {
+            carga.run();
+            return new Parte(nombre, (System.nanoTime() - inicio) / 1_000_000, true);
+        } catch (Exception e) {
+            System.err.println("Error en el calentamiento (" + nombre + "): " + e.getMessage());
+            e.printStackTrace();
+            return new Parte(nombre, (System.nanoTime() - inicio) / 1_000_000, false);
+        }
+    }
+
+    /**
+     * Duración de una parte del calentamiento.
+     * @param nombre Datos que se cargaron.
+     * @param ms Tiempo que tardó.
+     * @param correcta {@code false} si la consulta falló.
+     */
+    public record Parte(String nombre, long ms, boolean correcta) {
+
+        @Override
+        public String toString() {
+            return nombre + " " + ms + " ms" + (correcta ? "" : " (error)");
+        }
+    }
+
+    /**
+     * Resultado de un calentamiento.
+     * @param idUsuario Usuario cuyos datos se cargaron.
+     * @param totalMs Tiempo hasta que terminó la última parte.
+     * @param partes Duración de cada parte, en el orden en que se lanzaron.
+     */
+    public record Informe(int idUsuario, long totalMs, List<Parte> partes) {
+
+        @Override
+        public String toString() {
+            return "[Calentamiento] usuario " + idUsuario + " listo en " + totalMs + " ms: "
+                    + partes.stream().map(Parte::toString).collect(Collectors.joining(", "));
+        }
+    }
+}
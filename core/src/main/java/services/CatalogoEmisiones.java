@@ -0,0 +1,217 @@
+package services;
+
+import DAO.ActividadDAO;
+import DAO.CategoriaDAO;
+import DAO.RecomendacionDAO;
+import model.Actividad;
+import model.Categoria;
+import model.Recomendacion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Copia en memoria del catálogo de emisiones: actividades, categorías con sus
+ * factores y recomendaciones. Son tablas pequeñas que casi nunca cambian, así
+ * que se leen una sola vez y se sirven desde una instantánea inmutable que todas
+ * las pantallas comparten.
+ * La instantánea se sustituye de golpe (nunca se modifica) cuando cambia un
+ * factor de emisión o cuando caduca su tiempo de vida, configurable con la
+ * propiedad del sistema {@code catalogo.ttl.segundos}.
+ */
+public class CatalogoEmisiones {
+
+    /**
+     * Tiempo de vida por defecto de la instantánea, en segundos.
+     */
+    private static final long TTL_POR_DEFECTO = 600;
+
+    private static CatalogoEmisiones instance;
+
+    private final ActividadDAO actividadDAO = new ActividadDAO();
+    private final CategoriaDAO categoriaDAO = new CategoriaDAO();
+    private final RecomendacionDAO recomendacionDAO = new RecomendacionDAO();
+
+    private final AtomicReference<Instantanea> actual = new AtomicReference<>();
+    private final long ttlNanos;
+
+    private CatalogoEmisiones() {
+        long segundos = Long.getLong("catalogo.ttl.segundos", TTL_POR_DEFECTO);
+        this.ttlNanos = segundos * 1_000_000_000L;
+    }
+
+    /**
+     * Obtiene el catálogo compartido de la aplicación.
+     * * @return La instancia única de {@link CatalogoEmisiones}.
+     */
+    public static synchronized CatalogoEmisiones getInstance() {
+        if (instance == null) {
+            instance = new CatalogoEmisiones();
+        }
+        return instance;
+    }
+
+    /**
+     * Devuelve la instantánea vigente, cargándola si aún no existe o si ha caducado.
+     * Si la recarga falla se sigue sirviendo la última instantánea válida.
+     * * @return La instantánea actual del catálogo; nunca {@code null}.
+     */
+    public Instantanea actual() {
+        Instantanea foto = actual.get();
+        if (foto != null && System.nanoTime() - foto.cargadaEn < ttlNanos) {
+            return foto;
+        }
+        return recargar(foto, false);
+    }
+
+    /**
+     * Descarta la instantánea actual y carga una nueva desde la base de datos.
+     * Debe llamarse después de modificar cualquier tabla del catálogo.
+     * * @return La instantánea recién cargada, o la anterior si la carga falla.
+     */
+    public Instantanea invalidar() {
+        return recargar(null, true);
+    }
+
+    /**
+     * Carga una instantánea nueva y la publica. Una recarga por caducidad no se
+     * repite si otro hilo ya publicó una instantánea mientras este esperaba; una
+     * invalidación siempre vuelve a leer, porque esa otra lectura pudo ser anterior
+     * al cambio.
+     */
+    private synchronized Instantanea recargar(Instantanea vista, boolean forzar) {
+        Instantanea vigente = actual.get();
+        if (!forzar && vigente != vista) return vigente;
+
+        Instantanea nueva = cargar();
+        if (nueva == null) {
+            return (vigente != null) ? vigente : Instantanea.VACIA;
+        }
+        actual.set(nueva);
+        return nueva;
+    }
+
+    /**
+     * Lee las tres tablas del catálogo. Si alguna falla, no se construye la instantánea.
+     */
+    private Instantanea cargar() {
+        List<Actividad> actividades = actividadDAO.listarTodas();
+        List<Categoria> categorias = categoriaDAO.listarTodas();
+        List<Recomendacion> recomendaciones = recomendacionDAO.listarTodas();
+        if (actividades == null || categorias == null || recomendaciones == null) {
+            System.err.println("No se pudo cargar el catálogo de emisiones; se mantiene el anterior.");
+            return null;
+        }
+        return new Instantanea(actividades, categorias, recomendaciones, System.nanoTime());
+    }
+
+    // --- ACCESOS DIRECTOS A LA INSTANTÁNEA VIGENTE ---
+
+    /**
+     * Todas las actividades del catálogo, con su categoría ya cargada.
+     */
+    public List<Actividad> actividades() {
+        return actual().actividades();
+    }
+
+    /**
+     * Todas las categorías con sus factores de emisión.
+     */
+    public List<Categoria> categorias() {
+        return actual().categorias();
+    }
+
+    /**
+     * Recomendaciones asociadas a una categoría.
+     * * @param idCategoria Identificador de la categoría.
+     * @return Lista (posiblemente vacía) de recomendaciones.
+     */
+    public List<Recomendacion> recomendaciones(int idCategoria) {
+        return actual().recomendaciones(idCategoria);
+    }
+
+    /**
+     * Factor de emisión que se aplica a una actividad.
+     * * @param idActividad Identificador de la actividad.
+     * @return kg de CO2 por unidad, o 0 si la actividad no existe.
+     */
+    public float factorEmision(int idActividad) {
+        return actual().factorEmision(idActividad);
+    }
+
+    /**
+     * Categoría a la que pertenece una actividad.
+     * * @param idActividad Identificador de la actividad.
+     * @return Identificador de la categoría, o -1 si la actividad no existe.
+     */
+    public int categoriaDe(int idActividad) {
+        return actual().categoriaDe(idActividad);
+    }
+
+    /**
+     * Fotografía inmutable del catálogo. Los factores y categorías de cada
+     * actividad se guardan en arrays de primitivos indexados por el identificador
+     * de la actividad, para consultarlos sin búsquedas ni objetos intermedios.
+     */
+    public static final class Instantanea {
+
+        static final Instantanea VACIA = new Instantanea(List.of(), List.of(), List.of(), 0);
+
+        private final List<Actividad> actividades;
+        private final List<Categoria> categorias;
+        private final Map<Integer, List<Recomendacion>> recomendacionesPorCategoria;
+        private final float[] factorPorActividad;
+        private final int[] categoriaPorActividad;
+        private final long cargadaEn;
+
+        private Instantanea(List<Actividad> actividades, List<Categoria> categorias,
+                            List<Recomendacion> recomendaciones, long cargadaEn) {
+            this.actividades = List.copyOf(actividades);
+            this.categorias = List.copyOf(categorias);
+            this.cargadaEn = cargadaEn;
+
+            int maxId = actividades.stream().mapToInt(Actividad::getId).max().orElse(-1);
+            this.factorPorActividad = new float[maxId + 1];
+            this.categoriaPorActividad = new int[maxId + 1];
+            Arrays.fill(categoriaPorActividad, -1);
+            for (Actividad a : actividades) {
+                Categoria c = a.getIdCategoria();
+                if (c == null) continue;
+                categoriaPorActividad[a.getId()] = c.getId();
+                factorPorActividad[a.getId()] = (c.getFactorEmision() != null) ? c.getFactorEmision() : 0f;
+            }
+
+            Map<Integer, List<Recomendacion>> porCategoria = new HashMap<>();
+            for (Recomendacion r : recomendaciones) {
+                if (r.getIdCategoria() == null) continue;
+                porCategoria.computeIfAbsent(r.getIdCategoria().getId(), k -> new ArrayList<>()).add(r);
+            }
+            porCategoria.replaceAll((k, lista) -> List.copyOf(lista));
+            this.recomendacionesPorCategoria = Map.copyOf(porCategoria);
+        }
+
+        public List<Actividad> actividades() {
+            return actividades;
+        }
+
+        public List<Categoria> categorias() {
+            return categorias;
+        }
+
+        public List<Recomendacion> recomendaciones(int idCategoria) {
+            return recomendacionesPorCategoria.getOrDefault(idCategoria, List.of());
+        }
+
+        public float factorEmision(int idActividad) {
+            return (idActividad >= 0 && idActividad < factorPorActividad.length) ? factorPorActividad[idActividad] : 0f;
+        }
+
+        public int categoriaDe(int idActividad) {
+            return (idActividad >= 0 && idActividad < categoriaPorActividad.length) ? categoriaPorActividad[idActividad] : -1;
+        }
+    }
+}
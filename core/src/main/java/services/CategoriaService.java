@@ -0,0 +1,64 @@
+package services;
+
+import DAO.CategoriaDAO;
+import model.Categoria;
+import utils.Medicion;
+import utils.Metricas;
+import java.util.List;
+
+/**
+ * Servicio de lógica de negocio para la gestión de categorías.
+ * Actúa como intermediario entre la capa de presentación y el acceso a datos,
+ * facilitando la clasificación de actividades y la organización de los
+ * filtros de usuario en la interfaz.
+ */
+public class CategoriaService {
+
+    /**
+     * Acceso a la capa de persistencia de categorías.
+     */
+    private final CategoriaDAO categoriaDAO;
+
+    /**
+     * Catálogo en memoria compartido del que se leen las categorías.
+     */
+    private final CatalogoEmisiones catalogo;
+
+    /**
+     * Inicializa el servicio configurando su DAO correspondiente.
+     */
+    public CategoriaService() {
+        this.categoriaDAO = new CategoriaDAO();
+        this.catalogo = CatalogoEmisiones.getInstance();
+    }
+
+    /**
+     * Recupera el catálogo completo de categorías existentes (Transporte, Energía, etc.).
+     * Este método permite que la aplicación gestione factores de emisión agrupados
+     * y presente opciones de filtrado coherentes al usuario. Se sirve desde el
+     * catálogo en memoria.
+     * * @return Una lista de objetos {@link Categoria} con sus metadatos de impacto.
+     */
+    public List<Categoria> obtenerCategorias() {
+        try (Medicion m = Metricas.medir("CategoriaService.obtenerCategorias")) {
+            return catalogo.categorias();
+        }
+    }
+
+    /**
+     * Cambia el factor de emisión de una categoría, refresca el catálogo en memoria
+     * y lanza en segundo plano el recálculo del impacto guardado en todas las
+     * huellas afectadas.
+     * * @param idCategoria Identificador de la categoría.
+     * @param factor Nuevo factor de emisión.
+     * @return {@code true} si el cambio se guardó y el recálculo quedó programado.
+     */
+    public boolean actualizarFactorEmision(int idCategoria, float factor) {
+        try (Medicion m = Metricas.medir("CategoriaService.actualizarFactorEmision")) {
+            if (!categoriaDAO.actualizarFactor(idCategoria, factor)) return false;
+            catalogo.invalidar();
+            RecalculoImpacto.programarCategoria(idCategoria);
+            return true;
+        }
+    }
+}
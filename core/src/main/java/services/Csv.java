@@ -0,0 +1,94 @@
+package services;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lectura y escritura de campos CSV según la RFC 4180, compartida por la
+ * exportación y la importación de huellas. Un campo que contiene comas,
+ * comillas o saltos de línea se escribe entre comillas dobles, y las comillas
+ * que contiene se duplican.
+ */
+final class Csv {
+
+    private Csv() {
+    }
+
+    /**
+     * Añade un campo al registro, entre comillas solo si hace falta.
+     * @param sb Registro en construcción.
+     * @param campo Texto del campo; {@code null} se escribe como campo vacío.
+     */
+    static void escribirCampo(StringBuilder sb, String campo) {
+        if (campo == null) return;
+        boolean comillas = false;
+        for (int i = 0; i < campo.length() && !comillas; i++) {
+            char ch = campo.charAt(i);
+            comillas = ch == ',' || ch == '"' || ch == '\n' || ch == '\r';
+        }
+        if (!comillas) {
+            sb.append(campo);
+            return;
+        }
+        sb.append('"');
+        for (int i = 0; i < campo.length(); i++) {
+            char ch = campo.charAt(i);
+            if (ch == '"') sb.append('"');
+            sb.append(ch);
+        }
+        sb.append('"');
+    }
+
+    /**
+     * Indica si el texto deja unas comillas abiertas, es decir, si el registro
+     * continúa en la línea siguiente porque un campo contiene un salto de línea.
+     */
+    static boolean comillasAbiertas(CharSequence registro) {
+        boolean abiertas = false;
+        for (int i = 0; i < registro.length(); i++) {
+            if (registro.charAt(i) == '"') abiertas = !abiertas;
+        }
+        return abiertas;
+    }
+
+    /**
+     * Separa un registro completo en sus campos, quitando las comillas que
+     * delimitan cada campo y deshaciendo las comillas duplicadas.
+     * @param registro Registro sin el salto de línea final.
+     * @return Los campos, en orden; un registro vacío tiene un único campo vacío.
+     * @throws IllegalArgumentException Si hay texto tras las comillas de cierre de un campo.
+     */
+    static List<String> separar(String registro) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        int i = 0;
+        int n = registro.length();
+        while (true) {
+            campo.setLength(0);
+            if (i < n && registro.charAt(i) == '"') {
+                i++;
+                while (i < n) {
+                    char ch = registro.charAt(i++);
+                    if (ch != '"') {
+                        campo.append(ch);
+                    } else if (i < n && registro.charAt(i) == '"') {
+                        campo.append('"');
+                        i++;
+                    } else {
+                        break;
+                    }
+                }
+                if (i < n && registro.charAt(i) != ',') {
+                    throw new IllegalArgumentException("texto tras las comillas en la columna " + (campos.size() + 1));
+                }
+            } else {
+                while (i < n && registro.charAt(i) != ',') {
+                    campo.append(registro.charAt(i++));
+                }
+            }
+            campos.add(campo.toString());
+            if (i >= n) return campos;
+            i++; // coma separadora
+        }
+    }
+}
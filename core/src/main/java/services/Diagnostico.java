@@ -0,0 +1,245 @@
+package services;
+
+import connection.Connection;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import utils.Arranque;
+import utils.Metricas;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reúne en un único informe el estado de rendimiento de la aplicación: los
+ * tiempos de cada método de los DAO y servicios ({@link Metricas}), las fases
+ * del arranque ({@link Arranque}), las estadísticas de Hibernate, el pool de conexiones, las cachés por usuario y la
+ * escritura diferida. Lo muestra la pantalla de Diagnóstico y, si se indica un
+ * archivo con la propiedad del sistema {@value #PROPIEDAD_ARCHIVO}, se vuelca
+ * periódicamente a disco (cada {@code metricas.periodo.segundos}, 60 por defecto).
+ */
+public final class Diagnostico {
+
+    /**
+     * Propiedad del sistema con la ruta del archivo de volcado periódico.
+     */
+    public static final String PROPIEDAD_ARCHIVO = "metricas.archivo";
+
+    private static final long PERIODO_POR_DEFECTO_SEGUNDOS = 60;
+
+    /**
+     * Número de consultas HQL que se listan en el informe, de mayor a menor tiempo total.
+     */
+    private static final int CONSULTAS_EN_INFORME = 10;
+
+    private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static ScheduledExecutorService volcado;
+    private static Path archivo;
+
+    private Diagnostico() {
+    }
+
+    /**
+     * Lee las estadísticas de Hibernate sin forzar el arranque de la conexión.
+     * @return El estado de Hibernate, o {@code null} si la conexión aún no existe
+     * o las estadísticas están desactivadas.
+     */
+    public static EstadoHibernate estadoHibernate() {
+        if (!Connection.isIniciada()) return null;
+        Statistics stats = Connection.getInstance().getSessionFactory().getStatistics();
+        if (!stats.isStatisticsEnabled()) return null;
+
+        List<ConsultaHibernate> consultas = new ArrayList<>();
+        for (String hql : stats.getQueries()) {
+            QueryStatistics q = stats.getQueryStatistics(hql);
+            consultas.add(new ConsultaHibernate(hql, q.getExecutionCount(), q.getExecutionRowCount(),
+                    q.getExecutionAvgTime(), q.getExecutionMaxTime()));
+        }
+        consultas.sort(Comparator.comparingLong(ConsultaHibernate::totalMs).reversed());
+
+        return new EstadoHibernate(stats.getSessionOpenCount(), stats.getTransactionCount(),
+                stats.getPrepareStatementCount(), stats.getQueryExecutionCount(),
+                stats.getQueryExecutionMaxTime(), stats.getQueryExecutionMaxTimeQueryString(),
+                stats.getEntityLoadCount(), stats.getEntityFetchCount(), stats.getEntityInsertCount(),
+                stats.getEntityUpdateCount(), stats.getEntityDeleteCount(), stats.getCollectionFetchCount(),
+                stats.getSecondLevelCacheHitCount(), stats.getSecondLevelCacheMissCount(),
+                stats.getQueryCacheHitCount(), stats.getQueryCacheMissCount(),
+                consultas.subList(0, Math.min(CONSULTAS_EN_INFORME, consultas.size())));
+    }
+
+    /**
+     * Pone a cero los tiempos de los métodos y las estadísticas de Hibernate.
+     */
+    public static void reiniciar() {
+        Metricas.reiniciar();
+        if (Connection.isIniciada()) {
+            Connection.getInstance().getSessionFactory().getStatistics().clear();
+        }
+    }
+
+    /**
+     * Construye el informe completo en texto plano.
+     * @return El informe con la fecha en que se tomó.
+     */
+    public static String informe() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Diagnóstico de EcoTrack - ").append(LocalDateTime.now().format(FORMATO_FECHA)).append("\n\n");
+
+        sb.append("== Métodos (ms) ==\n");
+        sb.append(String.format("%-45s %9s %7s %10s %10s %10s %10s %10s%n",
+                "operación", "llamadas", "errores", "media", "p50", "p95", "p99", "máx"));
+        for (Metricas.Resumen r : Metricas.instantanea()) {
+            sb.append(r).append('\n');
+        }
+
+        sb.append("\n== Arranque ==\n");
+        for (Arranque.Fase fase : Arranque.fases()) {
+            sb.append(fase).append('\n');
+        }
+
+        sb.append("\n== Hibernate ==\n");
+        EstadoHibernate hibernate = estadoHibernate();
+        if (hibernate == null) {
+            sb.append("Sin estadísticas (conexión no iniciada o estadísticas desactivadas)\n");
+        } else {
+            sb.append(hibernate).append('\n');
+            for (ConsultaHibernate c : hibernate.consultasMasCostosas()) {
+                sb.append("  ").append(c).append('\n');
+            }
+        }
+
+        sb.append("\n== Conexiones y cachés ==\n");
+        if (Connection.isIniciada()) {
+            sb.append(Connection.getInstance().getEstadoPool()).append('\n');
+        }
+        sb.append(HuellaService.estadisticasCache()).append('\n');
+        sb.append(HabitoService.estadisticasCache()).append('\n');
+        EscrituraDiferida.Estadisticas escritura = EscrituraDiferida.estadisticasSiActiva();
+        if (escritura != null) {
+            sb.append(escritura).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Arranca el volcado periódico del informe si se indicó un archivo con
+     * {@value #PROPIEDAD_ARCHIVO}. Cada volcado reemplaza al anterior.
+     */
+    public static synchronized void iniciarVolcado() {
+        String ruta = System.getProperty(PROPIEDAD_ARCHIVO);
+        if (ruta == null || ruta.isBlank() || volcado != null) return;
+
+        archivo = Path.of(ruta);
+        long periodo = Long.getLong("metricas.periodo.segundos", PERIODO_POR_DEFECTO_SEGUNDOS);
+        volcado = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "volcado-metricas");
+            t.setDaemon(true);
+            return t;
+        });
+        volcado.scheduleAtFixedRate(Diagnostico::volcar, periodo, periodo, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Detiene el volcado periódico y escribe un último informe. Debe llamarse
+     * antes de cerrar la conexión para que incluya las estadísticas de Hibernate.
+     */
+    public static synchronized void detenerVolcado() {
+        if (volcado == null) return;
+        volcado.shutdownNow();
+        volcado = null;
+        volcar();
+    }
+
+    /**
+     * Escribe el informe en un archivo temporal y lo mueve sobre el definitivo,
+     * para que quien lo lea nunca encuentre un volcado a medias.
+     */
+    private static void volcar() {
+        try {
+            Path destino = archivo.toAbsolutePath();
+            Path temporal = destino.resolveSibling(destino.getFileName() + ".tmp");
+            Files.writeString(temporal, informe(), StandardCharsets.UTF_8);
+            Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("No se pudo volcar el informe de métricas en " + archivo + ": " + e.getMessage());
+        } catch (Exception e) {
+            System.err.println("Error al preparar el informe de métricas: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Estadísticas acumuladas de Hibernate desde el arranque o el último reinicio.
+     * @param sesiones Sesiones abiertas.
+     * @param transacciones Transacciones terminadas.
+     * @param sentencias Sentencias JDBC preparadas.
+     * @param consultas Consultas HQL ejecutadas.
+     * @param consultaMaxMs Duración de la consulta más lenta.
+     * @param consultaMasLenta Texto de la consulta más lenta.
+     * @param entidadesCargadas Entidades hidratadas.
+     * @param entidadesBuscadas Entidades que hubo que ir a buscar a la base de datos (carga perezosa).
+     * @param entidadesInsertadas Entidades insertadas.
+     * @param entidadesActualizadas Entidades actualizadas.
+     * @param entidadesBorradas Entidades borradas.
+     * @param coleccionesBuscadas Colecciones cargadas de forma perezosa.
+     * @param aciertosSegundoNivel Aciertos de la caché de segundo nivel.
+     * @param fallosSegundoNivel Fallos de la caché de segundo nivel.
+     * @param aciertosCacheConsultas Aciertos de la caché de consultas.
+     * @param fallosCacheConsultas Fallos de la caché de consultas.
+     * @param consultasMasCostosas Consultas HQL con más tiempo acumulado.
+     */
+    public record EstadoHibernate(long sesiones, long transacciones, long sentencias, long consultas,
+                                  long consultaMaxMs, String consultaMasLenta, long entidadesCargadas,
+                                  long entidadesBuscadas, long entidadesInsertadas, long entidadesActualizadas,
+                                  long entidadesBorradas, long coleccionesBuscadas, long aciertosSegundoNivel,
+                                  long fallosSegundoNivel, long aciertosCacheConsultas, long fallosCacheConsultas,
+                                  List<ConsultaHibernate> consultasMasCostosas) {
+
+        @Override
+        public String toString() {
+            return String.format("Hibernate[sesiones=%d, transacciones=%d, sentencias=%d, consultas=%d " +
+                            "(más lenta %d ms), entidades cargadas=%d, buscadas=%d, insertadas=%d, " +
+                            "actualizadas=%d, borradas=%d, colecciones=%d, caché 2º nivel=%d/%d, " +
+                            "caché consultas=%d/%d]",
+                    sesiones, transacciones, sentencias, consultas, consultaMaxMs, entidadesCargadas,
+                    entidadesBuscadas, entidadesInsertadas, entidadesActualizadas, entidadesBorradas,
+                    coleccionesBuscadas, aciertosSegundoNivel, aciertosSegundoNivel + fallosSegundoNivel,
+                    aciertosCacheConsultas, aciertosCacheConsultas + fallosCacheConsultas);
+        }
+    }
+
+    /**
+     * Estadísticas de una consulta HQL.
+     * @param hql Texto de la consulta.
+     * @param ejecuciones Veces que se ejecutó.
+     * @param filas Filas devueltas en total.
+     * @param mediaMs Duración media.
+     * @param maxMs Duración máxima.
+     */
+    public record ConsultaHibernate(String hql, long ejecuciones, long filas, long mediaMs, long maxMs) {
+
+        /**
+         * Tiempo total aproximado invertido en la consulta.
+         */
+        public long totalMs() {
+            return ejecuciones * mediaMs;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%6d ej. %9d filas  media %5d ms  máx %5d ms  %s",
+                    ejecuciones, filas, mediaMs, maxMs, hql.replaceAll("\\s+", " "));
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package services;
+
+import DAO.HuellaDAO;
+import model.Huella;
+import model.RegistroImportado;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Escritura diferida de huellas nuevas. En lugar de abrir una transacción por
+ * registro, {@link HuellaService#registrarNuevaHuella} deja el registro en una
+ * cola acotada y un hilo escritor los guarda por lotes JDBC, varios registros
+ * (de uno o varios usuarios) por cada commit.
+ * Un lote se escribe cuando se llena o cuando su primer registro lleva
+ * esperando el tiempo máximo, lo que ocurra antes. Si la cola está llena, quien
+ * registra espera a que haya sitio. Al cerrar la aplicación se vacía la cola antes
+ * de soltar las conexiones: cada punto de entrada llama a {@link #detener()} en su
+ * secuencia de parada, antes de {@code Connection.shutdown()}. La cola no registra
+ * un gancho de cierre propio, porque la JVM ejecuta los ganchos a la vez y sin
+ * orden y el vaciado podría coincidir con el cierre de la conexión.
+ * Está desactivada por defecto; se activa con la propiedad del sistema
+ * {@value #PROPIEDAD}{@code =true}. Capacidad, tamaño de lote y espera se ajustan
+ * con {@code escritura.diferida.capacidad}, {@code escritura.diferida.lote} y
+ * {@code escritura.diferida.espera.ms}.
+ */
+public class EscrituraDiferida {
+
+    /**
+     * Propiedad del sistema que activa la escritura diferida.
+     */
+    public static final String PROPIEDAD = "huellas.escritura.diferida";
+
+    private static final int CAPACIDAD_POR_DEFECTO = 10_000;
+    private static final int LOTE_POR_DEFECTO = 500;
+    private static final long ESPERA_POR_DEFECTO_MS = 200;
+
+    /**
+     * Tiempo máximo que se espera al hilo escritor al cerrar.
+     */
+    private static final long ESPERA_CIERRE_MS = 30_000;
+
+    /**
+     * Registro a la espera de ser escrito.
+     */
+    private record Pendiente(int idUsuario, RegistroImportado registro, long encoladoEn) {}
+
+    /**
+     * Volátil para que {@link #estadisticasSiActiva()} la lea sin esperar a un
+     * {@link #detener()} en curso, que retiene el cerrojo mientras vacía la cola.
+     */
+    private static volatile EscrituraDiferida instance;
+
+    private final BlockingQueue<Pendiente> cola;
+    private final int capacidad;
+    private final int maxLote;
+    private final long esperaNanos;
+    private final HuellaDAO huellaDAO;
+    private final CatalogoEmisiones catalogo;
+    private final Thread escritor;
+    private volatile boolean cerrada = false;
+
+    // Contadores de quien encola (varios hilos)
+    private final AtomicLong encoladas = new AtomicLong();
+    private final AtomicLong bloqueos = new AtomicLong();
+    private final AtomicLong nanosBloqueado = new AtomicLong();
+    private final AtomicInteger profundidadMaxima = new AtomicInteger();
+
+    // Contadores del hilo escritor, protegidos por this
+    private long escritas;
+    private long volcados;
+    private long fallidas;
+    private long nanosVolcado;
+    private long nanosVolcadoMaximo;
+
+    private EscrituraDiferida() {
+        this.capacidad = Integer.getInteger("escritura.diferida.capacidad", CAPACIDAD_POR_DEFECTO);
+        this.maxLote = Integer.getInteger("escritura.diferida.lote", LOTE_POR_DEFECTO);
+        this.esperaNanos = TimeUnit.MILLISECONDS.toNanos(
+                Long.getLong("escritura.diferida.espera.ms", ESPERA_POR_DEFECTO_MS));
+        this.cola = new ArrayBlockingQueue<>(capacidad);
+        this.huellaDAO = new HuellaDAO();
+        this.catalogo = CatalogoEmisiones.getInstance();
+
+        this.escritor = new Thread(this::escribir, "escritura-diferida");
+        this.escritor.setDaemon(true);
+        this.escritor.start();
+    }
+
+    /**
+     * Indica si la escritura diferida está activada en esta ejecución.
+     */
+    public static boolean activada() {
+        return Boolean.getBoolean(PROPIEDAD);
+    }
+
+    /**
+     * Obtiene la cola compartida, arrancando el hilo escritor la primera vez.
+     * * @return La instancia única de {@link EscrituraDiferida}.
+     */
+    public static synchronized EscrituraDiferida getInstance() {
+        if (instance == null) {
+            instance = new EscrituraDiferida();
+        }
+        return instance;
+    }
+
+    /**
+     * Estadísticas de la cola sin crearla: los informes de diagnóstico no deben
+     * arrancar el hilo escritor, ni volver a arrancarlo tras {@link #detener()}.
+     * @return Las estadísticas de la cola actual, o {@code null} si no hay ninguna.
+     */
+    public static Estadisticas estadisticasSiActiva() {
+        EscrituraDiferida actual = instance;
+        return (actual != null) ? actual.getEstadisticas() : null;
+    }
+
+    /**
+     * Deja de aceptar registros, escribe todos los pendientes y detiene el hilo
+     * escritor. Solo actúa si la cola llegó a crearse; debe llamarse antes de
+     * cerrar la conexión con la base de datos.
+     */
+    public static synchronized void detener() {
+        if (instance != null) {
+            instance.cerrar();
+            instance = null;
+        }
+    }
+
+    /**
+     * Deja un registro en la cola. Calcula su impacto con el catálogo vigente y lo
+     * asigna a la propia huella. Si la cola está llena, espera a que haya sitio.
+     * @param h Huella nueva, con usuario y actividad.
+     * @return {@code true} si quedó en la cola; {@code false} si no se pudo encolar
+     * (cola cerrada, actividad desconocida o hilo interrumpido) y debe guardarse directamente.
+     */
+    public boolean encolar(Huella h) {
+        if (cerrada || h.getIdUsuario() == null || h.getIdActividad() == null) return false;
+        int idActividad = h.getIdActividad().getId();
+        int idCategoria = catalogo.categoriaDe(idActividad);
+        if (idCategoria < 0) return false;
+
+        double impacto = h.getValor() * (double) catalogo.factorEmision(idActividad);
+        h.setImpactoKg(impacto);
+        RegistroImportado registro = new RegistroImportado(idActividad, idCategoria, h.getValor(),
+                h.getUnidad(), h.getFecha(), impacto);
+        Pendiente p = new Pendiente(h.getIdUsuario().getId(), registro, System.nanoTime());
+
+        if (!cola.offer(p)) {
+            long inicio = System.nanoTime();
+            bloqueos.incrementAndGet();
+            try {
+                cola.put(p);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } finally {
+                nanosBloqueado.addAndGet(System.nanoTime() - inicio);
+            }
+        }
+        encoladas.incrementAndGet();
+        profundidadMaxima.accumulateAndGet(cola.size(), Math::max);
+        return true;
+    }
+
+    /**
+     * Bucle del hilo escritor: reúne un lote por tamaño o por tiempo y lo escribe.
+     */
+    private void escribir() {
+        List<Pendiente> lote = new ArrayList<>(maxLote);
+        while (true) {
+            try {
+                Pendiente primero = cola.poll(esperaNanos, TimeUnit.NANOSECONDS);
+                if (primero == null) {
+                    if (cerrada) return;
+                    continue;
+                }
+                lote.add(primero);
+                long limite = primero.encoladoEn() + esperaNanos;
+                while (lote.size() < maxLote) {
+                    cola.drainTo(lote, maxLote - lote.size());
+                    long resta = limite - System.nanoTime();
+                    if (lote.size() >= maxLote || resta <= 0 || cerrada) break;
+                    Pendiente siguiente = cola.poll(resta, TimeUnit.NANOSECONDS);
+                    if (siguiente == null) break;
+                    lote.add(siguiente);
+                }
+                volcar(lote);
+                lote.clear();
+            } catch (InterruptedException e) {
+                // El cierre se controla con la bandera, no con interrupciones
+            } catch (Exception e) {
+                System.err.println("Error en la escritura diferida de huellas: " + e.getMessage());
+                e.printStackTrace();
+                lote.clear();
+            }
+        }
+    }
+
+    /**
+     * Escribe un lote en una sola transacción. Si falla, reintenta registro a
+     * registro para no perder los que sí son válidos.
+     */
+    private void volcar(List<Pendiente> lote) {
+        long inicio = System.nanoTime();
+        Map<Integer, List<RegistroImportado>> porUsuario = new LinkedHashMap<>();
+        for (Pendiente p : lote) {
+            porUsuario.computeIfAbsent(p.idUsuario(), k -> new ArrayList<>()).add(p.registro());
+        }
+
+        int guardadas = huellaDAO.insertarLote(porUsuario, maxLote);
+        int perdidas = 0;
+        if (guardadas < 0) {
+            guardadas = 0;
+            for (Pendiente p : lote) {
+                if (huellaDAO.insertarLote(p.idUsuario(), List.of(p.registro()), 1) > 0) {
+                    guardadas++;
+                } else {
+                    perdidas++;
+                    System.err.println("Huella descartada en la escritura diferida: usuario " + p.idUsuario()
+                            + ", " + p.registro());
+                }
+            }
+        }
+        porUsuario.keySet().forEach(HuellaService::invalidarCache);
+
+        long nanos = System.nanoTime() - inicio;
+        synchronized (this) {
+            escritas += guardadas;
+            fallidas += perdidas;
+            volcados++;
+            nanosVolcado += nanos;
+            nanosVolcadoMaximo = Math.max(nanosVolcadoMaximo, nanos);
+        }
+    }
+
+    private void cerrar() {
+        // Sin interrumpir: el escritor puede estar en mitad de un commit y despierta solo
+        cerrada = true;
+        try {
+            escritor.join(ESPERA_CIERRE_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Lo que se encoló mientras el escritor terminaba
+        List<Pendiente> resto = new ArrayList<>();
+        cola.drainTo(resto);
+        if (!resto.isEmpty()) volcar(resto);
+        System.out.println(getEstadisticas());
+    }
+
+    /**
+     * Devuelve el estado de la cola y los contadores acumulados desde el arranque.
+     * @return Una fotografía de las estadísticas de la escritura diferida.
+     */
+    public synchronized Estadisticas getEstadisticas() {
+        return new Estadisticas(cola.size(), capacidad, profundidadMaxima.get(), encoladas.get(),
+                escritas, fallidas, volcados, bloqueos.get(), nanosBloqueado.get() / 1_000_000,
+                (volcados == 0) ? 0.0 : nanosVolcado / 1e6 / volcados, nanosVolcadoMaximo / 1e6);
+    }
+
+    /**
+     * Estado de la escritura diferida.
+     * @param profundidad Registros en la cola ahora mismo.
+     * @param capacidad Tamaño máximo de la cola.
+     * @param profundidadMaxima Mayor número de registros en cola observado.
+     * @param encoladas Registros aceptados en la cola.
+     * @param escritas Registros guardados en la base de datos.
+     * @param fallidas Registros que no se pudieron guardar ni reintentándolos uno a uno.
+     * @param volcados Lotes escritos (uno por commit).
+     * @param bloqueos Veces que alguien tuvo que esperar porque la cola estaba llena.
+     * @param msBloqueado Tiempo total de esas esperas.
+     * @param latenciaMediaMs Duración media de la escritura de un lote.
+     * @param latenciaMaximaMs Duración máxima de la escritura de un lote.
+     */
+    public record Estadisticas(int profundidad, int capacidad, int profundidadMaxima, long encoladas,
+                               long escritas, long fallidas, long volcados, long bloqueos, long msBloqueado,
+                               double latenciaMediaMs, double latenciaMaximaMs) {
+
+        /**
+         * Registros por commit de media.
+         */
+        public double registrosPorLote() {
+            return (volcados == 0) ? 0.0 : (double) (escritas + fallidas) / volcados;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("EscrituraDiferida[cola=%d/%d (máx %d), encoladas=%d, escritas=%d, fallidas=%d, " +
+                            "lotes=%d (%.1f reg/lote, media %.1f ms, máx %.1f ms), bloqueos=%d (%d ms)]",
+                    profundidad, capacidad, profundidadMaxima, encoladas, escritas, fallidas,
+                    volcados, registrosPorLote(), latenciaMediaMs, latenciaMaximaMs, bloqueos, msBloqueado);
+        }
+    }
+}
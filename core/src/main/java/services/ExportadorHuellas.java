@@ -0,0 +1,126 @@
+package services;
+
+import DAO.HuellaDAO;
+import model.HuellaFila;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Exporta el historial de huellas de un usuario a CSV en flujo: las filas se leen
+ * de la base de datos con un cursor y se escriben según llegan, sin reunir el
+ * historial en memoria. Informa del avance cada cierto número de filas y puede
+ * cancelarse en cualquier momento; si se cancela o falla, el archivo a medio
+ * escribir se elimina.
+ * El formato es {@code Fecha,Actividad,Categoria,Valor,Unidad,Impacto_kgCO2},
+ * con BOM UTF-8 para que Excel muestre bien los acentos. Los textos se escriben
+ * entre comillas cuando contienen comas, comillas o saltos de línea (RFC 4180).
+ */
+public class ExportadorHuellas {
+
+    /**
+     * Filas que se traen del servidor en cada viaje.
+     */
+    private static final int TAMANO_FETCH = 500;
+
+    /**
+     * Cada cuántas filas se informa del avance.
+     */
+    private static final int AVISO_CADA = 1000;
+
+    private static final String CABECERA = "Fecha,Actividad,Categoria,Valor,Unidad,Impacto_kgCO2";
+
+    /**
+     * Recibe el avance de la exportación.
+     */
+    @FunctionalInterface
+    public interface Progreso {
+        /**
+         * @param escritas Filas escritas hasta ahora.
+         * @param total Filas que se esperan en total.
+         */
+        void actualizar(long escritas, long total);
+    }
+
+    private final HuellaDAO huellaDAO;
+    private final HuellaService huellaService;
+
+    public ExportadorHuellas() {
+        this.huellaDAO = new HuellaDAO();
+        this.huellaService = new HuellaService();
+    }
+
+    /**
+     * Escribe el historial completo del usuario en un archivo CSV.
+     * @param idUsuario Identificador del usuario.
+     * @param destino Archivo de salida; se sobrescribe si existe.
+     * @param progreso Recibe el avance; puede ser {@code null}.
+     * @param cancelado Se consulta antes de cada fila; si devuelve {@code true} se detiene la exportación.
+     * @return Número de filas escritas, o -1 si se canceló.
+     * @throws IOException Si falla la escritura o la lectura del historial.
+     */
+    public long exportar(int idUsuario, Path destino, Progreso progreso, BooleanSupplier cancelado) throws IOException {
+        long total = huellaService.contarHuellas(idUsuario);
+        if (total < 0) throw new IOException("No se pudo leer el historial de la base de datos");
+        long[] escritas = {0};
+        boolean completada = false;
+
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(destino), StandardCharsets.UTF_8))) {
+            // Escribimos la "firma" UTF-8 para que Excel entienda los acentos
+            writer.write('\uFEFF');
+            writer.write(CABECERA);
+            writer.write('\n');
+
+            StringBuilder linea = new StringBuilder(128);
+            long leidas = huellaDAO.recorrerHistorial(idUsuario, TAMANO_FETCH, fila -> {
+                if (cancelado.getAsBoolean()) return false;
+                try {
+                    linea.setLength(0);
+                    escribirFila(linea, fila);
+                    writer.append(linea);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                if (++escritas[0] % AVISO_CADA == 0 && progreso != null) {
+                    progreso.actualizar(escritas[0], total);
+                }
+                return true;
+            });
+
+            if (leidas < 0) throw new IOException("No se pudo leer el historial de la base de datos");
+            if (cancelado.getAsBoolean()) return -1;
+            completada = true;
+        } finally {
+            if (!completada) Files.deleteIfExists(destino);
+        }
+
+        if (progreso != null) progreso.actualizar(escritas[0], Math.max(total, escritas[0]));
+        return escritas[0];
+    }
+
+    /**
+     * Da formato a una fila. Los decimales se escriben siempre con punto, para que
+     * no se confundan con el separador de columnas; los textos que escribe el
+     * usuario o el catálogo se escapan con {@link Csv#escribirCampo}.
+     */
+    private static void escribirFila(StringBuilder sb, HuellaFila fila) {
+        sb.append(fila.fecha()).append(',');
+        Csv.escribirCampo(sb, fila.actividad());
+        sb.append(',');
+        Csv.escribirCampo(sb, fila.categoria());
+        sb.append(',')
+                .append(String.format(Locale.ROOT, "%.2f", fila.valor() != null ? fila.valor() : 0f)).append(',');
+        Csv.escribirCampo(sb, fila.unidad());
+        sb.append(',')
+                .append(String.format(Locale.ROOT, "%.2f", fila.impactoKg() != null ? fila.impactoKg() : 0.0))
+                .append('\n');
+    }
+}
@@ -0,0 +1,311 @@
+package services;
+
+import DAO.CargaMasivaDAO;
+import DAO.HuellaDAO;
+import model.Actividad;
+import model.Categoria;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Genera usuarios, huellas y hábitos sintéticos para las pruebas de escala y
+ * de rendimiento.
+ * Cada usuario recibe un perfil propio (cuánto conduce, si come carne, su nivel
+ * de actividad general) y a partir de él se simula día a día su historial sobre
+ * las actividades del catálogo, con estacionalidad mensual (más calefacción en
+ * invierno, más viajes en avión en verano) y diferencias entre laborables y fines
+ * de semana. Con la misma semilla, el mismo número de usuarios y la misma fecha
+ * final se generan exactamente los mismos datos.
+ * Las filas se escriben con inserciones de varias filas y, al terminar, se
+ * regenera el resumen mensual.
+ */
+public class GeneradorDatos {
+
+    /**
+     * Fecha final por defecto del historial. Es fija para que dos ejecuciones con
+     * la misma semilla sean comparables, sea cual sea el día en que se lancen.
+     */
+    public static final LocalDate HASTA_POR_DEFECTO = LocalDate.of(2025, 12, 31);
+
+    /**
+     * Filas de huella que se acumulan antes de escribirlas en una transacción.
+     */
+    private static final int TAMANO_BLOQUE = 5000;
+
+    /**
+     * Filas por cada sentencia INSERT.
+     */
+    private static final int FILAS_POR_SENTENCIA = 500;
+
+    private static final int MAX_HABITOS_POR_USUARIO = 3;
+
+    /**
+     * Contraseña "sintetico" ya cifrada; se comparte para no pagar BCrypt por usuario.
+     */
+    private static final String CONTRASENA_SINTETICA = "$2a$10$WQRcooidl9qEhRzN5Sq3i.lp6XzrI3L3CyMBP/BNLAeVbYWT9fmwy";
+
+    private static final String[] COLUMNAS_USUARIO = {"id_usuario", "nombre", "email", "contrasena", "fecha_registro"};
+    private static final String[] COLUMNAS_HUELLA = {"id_usuario", "id_actividad", "valor", "unidad", "fecha", "impacto_kg"};
+    private static final String[] COLUMNAS_HABITO = {"id_usuario", "id_actividad", "frecuencia", "tipo", "ultima_fecha"};
+
+    /**
+     * Comportamiento típico de una actividad.
+     * @param vecesPorSemana Registros semanales de un usuario medio.
+     * @param valorMedio Cantidad media de cada registro, en la unidad de su categoría.
+     * @param dispersion Desviación del logaritmo del valor: cuánto varía de un registro a otro.
+     * @param laborable Si se concentra en días laborables (desplazamientos al trabajo).
+     * @param estacionalidad Multiplicador de cada mes, de enero a diciembre.
+     */
+    private record Perfil(double vecesPorSemana, double valorMedio, double dispersion, boolean laborable,
+                          double[] estacionalidad) {}
+
+    private static final double[] PLANA = {1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1};
+
+    private static final Perfil GENERICO = new Perfil(1.0, 10, 0.5, false, PLANA);
+
+    /**
+     * Perfiles de las actividades del volcado inicial, indexados por su identificador.
+     */
+    private static final Perfil[] PERFILES = {
+            null,
+            // 1 Conducir coche (km)
+            new Perfil(4.0, 25, 0.6, true, new double[]{0.9, 0.9, 1, 1, 1, 1.1, 1.2, 1.2, 1, 1, 0.9, 1}),
+            // 2 Usar transporte público (km)
+            new Perfil(3.0, 12, 0.5, true, new double[]{1.1, 1.1, 1.1, 1, 1, 0.9, 0.7, 0.6, 1, 1.1, 1.1, 1}),
+            // 3 Viajar en avión (km)
+            new Perfil(0.05, 900, 0.6, false, new double[]{0.6, 0.5, 0.8, 1, 0.9, 1.3, 2.0, 2.2, 1, 0.7, 0.5, 1.5}),
+            // 4 Consumo eléctrico (kWh)
+            new Perfil(1.0, 60, 0.3, false, new double[]{1.3, 1.2, 1, 0.9, 0.9, 1, 1.2, 1.2, 0.9, 0.9, 1.1, 1.3}),
+            // 5 Consumo de gas (kWh)
+            new Perfil(0.5, 40, 0.4, false, new double[]{2.0, 1.8, 1.3, 0.9, 0.5, 0.3, 0.2, 0.2, 0.4, 0.9, 1.5, 2.0}),
+            // 6 Comer carne de res (kg)
+            new Perfil(1.5, 0.4, 0.4, false, new double[]{1, 1, 1, 1, 1, 1.1, 1.1, 1.1, 1, 1, 1, 1.3}),
+            // 7 Comer alimentos vegetarianos (kg)
+            new Perfil(3.0, 0.5, 0.4, false, PLANA),
+            // 8 Generar residuos domésticos (kg)
+            new Perfil(1.0, 3, 0.3, false, new double[]{1.1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1.3}),
+            // 9 Consumo de agua potable (m3)
+            new Perfil(0.5, 1.5, 0.3, false, new double[]{0.9, 0.9, 1, 1, 1.1, 1.2, 1.3, 1.3, 1.1, 1, 0.9, 0.9})
+    };
+
+    /**
+     * Resumen de una generación.
+     * @param usuarios Usuarios creados.
+     * @param huellas Registros de huella insertados.
+     * @param habitos Hábitos insertados.
+     * @param milisegundos Duración total, incluida la reconstrucción del resumen mensual.
+     */
+    public record Resumen(int usuarios, long huellas, int habitos, long milisegundos) {
+
+        /**
+         * Registros de huella escritos por segundo.
+         */
+        public double filasPorSegundo() {
+            return (milisegundos == 0) ? huellas : huellas * 1000.0 / milisegundos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Generación: %d usuarios, %d huellas, %d hábitos en %d ms (%.0f huellas/s)",
+                    usuarios, huellas, habitos, milisegundos, filasPorSegundo());
+        }
+    }
+
+    private final CargaMasivaDAO cargaMasivaDAO;
+    private final HuellaDAO huellaDAO;
+    private final CatalogoEmisiones catalogo;
+
+    public GeneradorDatos() {
+        this.cargaMasivaDAO = new CargaMasivaDAO();
+        this.huellaDAO = new HuellaDAO();
+        this.catalogo = CatalogoEmisiones.getInstance();
+    }
+
+    /**
+     * Genera datos hasta la fecha final por defecto.
+     * @see #generar(int, int, long, LocalDate)
+     */
+    public Resumen generar(int usuarios, int anios, long semilla) {
+        return generar(usuarios, anios, semilla, HASTA_POR_DEFECTO);
+    }
+
+    /**
+     * Crea {@code usuarios} usuarios nuevos, cada uno con {@code anios} años de
+     * historial que terminan en {@code hasta}, y sus hábitos principales.
+     * Las actividades y categorías deben existir ya en la base de datos.
+     * @param usuarios Número de usuarios a crear.
+     * @param anios Años de historial de cada usuario.
+     * @param semilla Semilla del generador aleatorio.
+     * @param hasta Fecha del último día simulado.
+     * @return El resumen de lo generado.
+     * @throws IllegalStateException Si el catálogo está vacío o falla la escritura.
+     */
+    public Resumen generar(int usuarios, int anios, long semilla, LocalDate hasta) {
+        long inicio = System.nanoTime();
+        CatalogoEmisiones.Instantanea foto = catalogo.actual();
+        List<Actividad> actividades = foto.actividades().stream()
+                .filter(a -> a.getIdCategoria() != null)
+                .toList();
+        if (actividades.isEmpty()) {
+            throw new IllegalStateException("El catálogo de actividades está vacío; cargue primero el volcado SQL");
+        }
+
+        int primerId = cargaMasivaDAO.siguienteId("usuario", "id_usuario");
+        if (primerId < 0) throw new IllegalStateException("No se pudo consultar la tabla de usuarios");
+
+        SplittableRandom aleatorio = new SplittableRandom(semilla);
+        LocalDate desde = hasta.minusYears(anios).plusDays(1);
+
+        List<Object[]> filasUsuario = new ArrayList<>(usuarios);
+        for (int u = 0; u < usuarios; u++) {
+            int id = primerId + u;
+            filasUsuario.add(new Object[]{id, "Usuario sintético " + id, "sintetico" + id + "@ecotrack.local",
+                    CONTRASENA_SINTETICA, desde});
+        }
+        escribir("usuario", COLUMNAS_USUARIO, filasUsuario);
+
+        List<Object[]> bloque = new ArrayList<>(TAMANO_BLOQUE);
+        List<Object[]> habitos = new ArrayList<>();
+        long huellas = 0;
+
+        for (int u = 0; u < usuarios; u++) {
+            int idUsuario = primerId + u;
+            double[] ritmo = ritmoSemanal(actividades, aleatorio);
+            LocalDate[] ultima = new LocalDate[actividades.size()];
+
+            // Los usuarios no empiezan todos a registrar el mismo día
+            LocalDate dia = desde.plusDays(aleatorio.nextInt(60));
+            for (; !dia.isAfter(hasta); dia = dia.plusDays(1)) {
+                int mes = dia.getMonthValue() - 1;
+                boolean finDeSemana = dia.getDayOfWeek() == DayOfWeek.SATURDAY || dia.getDayOfWeek() == DayOfWeek.SUNDAY;
+
+                for (int i = 0; i < actividades.size(); i++) {
+                    if (ritmo[i] == 0) continue;
+                    Actividad a = actividades.get(i);
+                    Perfil p = perfil(a.getId());
+                    // La estacionalidad se reparte entre cuántas veces y cuánto
+                    double estacion = Math.sqrt(p.estacionalidad()[mes]);
+                    double esperado = ritmo[i] / 7 * estacion;
+                    if (p.laborable()) esperado *= finDeSemana ? 0.4 : 1.24;
+
+                    int veces = poisson(esperado, aleatorio);
+                    for (int v = 0; v < veces; v++) {
+                        float valor = valorAleatorio(p, estacion, aleatorio);
+                        Categoria c = a.getIdCategoria();
+                        double impacto = valor * (double) foto.factorEmision(a.getId());
+                        bloque.add(new Object[]{idUsuario, a.getId(), valor, c.getUnidad(), dia, impacto});
+                        ultima[i] = dia;
+                    }
+                    if (bloque.size() >= TAMANO_BLOQUE) {
+                        huellas += escribir("huella", COLUMNAS_HUELLA, bloque);
+                        bloque.clear();
+                    }
+                }
+            }
+            habitos.addAll(habitosPrincipales(idUsuario, actividades, ritmo, ultima));
+        }
+        huellas += escribir("huella", COLUMNAS_HUELLA, bloque);
+        int numHabitos = escribir("habito", COLUMNAS_HABITO, habitos);
+
+        if (huellaDAO.reconstruirResumenMensual() < 0) {
+            System.err.println("Los datos se generaron, pero no se pudo reconstruir el resumen mensual.");
+        }
+        HuellaService.invalidarCache();
+
+        Resumen resumen = new Resumen(usuarios, huellas, numHabitos, (System.nanoTime() - inicio) / 1_000_000);
+        System.out.println(resumen);
+        return resumen;
+    }
+
+    /**
+     * Decide cuántas veces por semana hace cada actividad un usuario concreto:
+     * un nivel de actividad general, una variación propia por actividad y algunos
+     * perfiles excluyentes (quien no tiene coche usa más el transporte público;
+     * quien no come carne come más vegetales).
+     */
+    private static double[] ritmoSemanal(List<Actividad> actividades, SplittableRandom aleatorio) {
+        double nivel = Math.exp(0.4 * normal(aleatorio));
+        boolean sinCoche = aleatorio.nextDouble() < 0.25;
+        boolean vegetariano = aleatorio.nextDouble() < 0.2;
+
+        double[] ritmo = new double[actividades.size()];
+        for (int i = 0; i < ritmo.length; i++) {
+            int id = actividades.get(i).getId();
+            double r = perfil(id).vecesPorSemana() * nivel * Math.exp(0.6 * normal(aleatorio) - 0.18);
+            if (id == 1 && sinCoche) r = 0;
+            if (id == 2 && sinCoche) r *= 2;
+            if (id == 6 && vegetariano) r = 0;
+            if (id == 7 && vegetariano) r *= 1.5;
+            ritmo[i] = r;
+        }
+        return ritmo;
+    }
+
+    /**
+     * Convierte las actividades más frecuentes del usuario en hábitos semanales.
+     */
+    private static List<Object[]> habitosPrincipales(int idUsuario, List<Actividad> actividades,
+                                                     double[] ritmo, LocalDate[] ultima) {
+        Integer[] orden = new Integer[ritmo.length];
+        for (int i = 0; i < orden.length; i++) orden[i] = i;
+        Arrays.sort(orden, Comparator.comparingDouble((Integer i) -> ritmo[i]).reversed());
+
+        List<Object[]> filas = new ArrayList<>(MAX_HABITOS_POR_USUARIO);
+        for (int k = 0; k < orden.length && filas.size() < MAX_HABITOS_POR_USUARIO; k++) {
+            int i = orden[k];
+            if (ultima[i] == null) continue;
+            int frecuencia = (int) Math.max(1, Math.round(ritmo[i]));
+            filas.add(new Object[]{idUsuario, actividades.get(i).getId(), frecuencia, "Semanal", ultima[i]});
+        }
+        return filas;
+    }
+
+    private static Perfil perfil(int idActividad) {
+        return (idActividad > 0 && idActividad < PERFILES.length) ? PERFILES[idActividad] : GENERICO;
+    }
+
+    /**
+     * Cantidad de un registro: log-normal alrededor del valor medio de la
+     * actividad, redondeada a dos decimales.
+     */
+    private static float valorAleatorio(Perfil p, double estacion, SplittableRandom aleatorio) {
+        double s = p.dispersion();
+        double valor = p.valorMedio() * estacion * Math.exp(s * normal(aleatorio) - s * s / 2);
+        return Math.max(0.01f, Math.round(valor * 100) / 100f);
+    }
+
+    /**
+     * Número de sucesos de una distribución de Poisson de media {@code media}
+     * (algoritmo de Knuth; las medias diarias son pequeñas).
+     */
+    private static int poisson(double media, SplittableRandom aleatorio) {
+        double limite = Math.exp(-media);
+        int k = 0;
+        double producto = aleatorio.nextDouble();
+        while (producto > limite) {
+            k++;
+            producto *= aleatorio.nextDouble();
+        }
+        return k;
+    }
+
+    /**
+     * Normal estándar por el método de Box-Muller.
+     */
+    private static double normal(SplittableRandom aleatorio) {
+        double u = 1.0 - aleatorio.nextDouble();
+        return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * aleatorio.nextDouble());
+    }
+
+    private int escribir(String tabla, String[] columnas, List<Object[]> filas) {
+        int escritas = cargaMasivaDAO.insertar(tabla, columnas, filas, FILAS_POR_SENTENCIA);
+        if (escritas < 0) throw new IllegalStateException("No se pudieron escribir los datos generados en " + tabla);
+        return escritas;
+    }
+}
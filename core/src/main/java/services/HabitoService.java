@@ -0,0 +1,106 @@
+package services;
+
+import DAO.HabitoDAO;
+import model.Habito;
+import model.HabitoFila;
+import utils.Medicion;
+import utils.Metricas;
+import java.util.List;
+
+/**
+ * Servicio de lógica de negocio para la gestión de hábitos sostenibles.
+ * Coordina las operaciones de creación, eliminación y consulta de hábitos,
+ * asegurando que los datos se procesen correctamente antes de enviarlos a la capa
+ * de persistencia. Sirve como punto de control para las rutinas del usuario.
+ * Los hábitos de cada usuario se sirven desde una caché que se invalida al
+ * guardar o eliminar cualquiera de ellos.
+ */
+public class HabitoService {
+
+    /**
+     * Instancia del DAO de hábitos para interactuar con la base de datos.
+     */
+    private final HabitoDAO habitoDAO;
+
+    /**
+     * Hábitos por usuario, compartidos por todas las instancias del servicio.
+     */
+    private static final CachePorUsuario CACHE = new CachePorUsuario("habitos");
+
+    /**
+     * Constructor que inicializa el servicio de hábitos.
+     */
+    public HabitoService() {
+        this.habitoDAO = new HabitoDAO();
+    }
+
+    /**
+     * Obtiene el listado de hábitos vinculados a un usuario.
+     * @param idUsuario Identificador del usuario.
+     * @return Lista de filas {@link HabitoFila} registradas por el usuario, o {@code null}
+     * si no se pudieron consultar.
+     */
+    public List<HabitoFila> misHabitos(int idUsuario) {
+        try (Medicion m = Metricas.medir("HabitoService.misHabitos").usuario(idUsuario)) {
+            return CACHE.obtener(idUsuario, "habitos", null, () -> habitoDAO.listarPorUsuario(idUsuario));
+        }
+    }
+
+    /**
+     * Registra o actualiza un hábito en el sistema.
+     * Este método centraliza la llamada al DAO, permitiendo que el controlador
+     * verifique si la operación fue exitosa mediante el valor de retorno.
+     * @param h Instancia de {@link Habito} a guardar.
+     * @return {@code true} si el hábito se guardó correctamente, {@code false} en caso contrario.
+     */
+    public boolean guardar(Habito h) {
+        try (Medicion m = Metricas.medir("HabitoService.guardar")) {
+            boolean ok = habitoDAO.insertar(h);
+            invalidarUsuario(h);
+            return ok;
+        }
+    }
+
+    /**
+     * Elimina un hábito permanente del perfil del usuario.
+     * @param h Fila del hábito que se desea borrar.
+     * @return {@code true} si el hábito se eliminó, {@code false} en caso contrario.
+     */
+    public boolean eliminar(HabitoFila h) {
+        try (Medicion m = Metricas.medir("HabitoService.eliminar").usuario(h.idUsuario())) {
+            boolean ok = habitoDAO.eliminar(h.idUsuario(), h.idActividad());
+            CACHE.invalidar(h.idUsuario());
+            return ok;
+        }
+    }
+
+    /**
+     * Recupera los hábitos de un usuario para las vistas principales.
+     * Las filas traen ya el nombre de la actividad y de la categoría, así que la
+     * interfaz no necesita una sesión abierta para mostrarlas.
+     * @param userId Identificador único del usuario.
+     * @return Lista de hábitos detallados, o {@code null} si no se pudieron consultar.
+     */
+    public List<HabitoFila> obtenerHabitosPorUsuario(int userId) {
+        return misHabitos(userId);
+    }
+
+    /**
+     * Descarta de la caché los hábitos del dueño de un hábito tras modificarlo.
+     */
+    private static void invalidarUsuario(Habito h) {
+        if (h.getId() != null && h.getId().getIdUsuario() != null) {
+            CACHE.invalidar(h.getId().getIdUsuario());
+        } else {
+            CACHE.invalidarTodo();
+        }
+    }
+
+    /**
+     * Contadores de aciertos, fallos y expulsiones de la caché de hábitos.
+     * @return Las estadísticas acumuladas desde el arranque.
+     */
+    public static CachePorUsuario.Estadisticas estadisticasCache() {
+        return CACHE.getEstadisticas();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,400 @@
+package services;
+
+import connection.Connection;
+import DAO.HuellaDAO;
+import model.CursorHuella;
+import model.DashboardSnapshot;
+import model.FiltroHuellas;
+import model.Huella;
+import model.HuellaFila;
+import model.HuellaMensualId;
+import model.Pagina;
+import org.hibernate.Session;
+import utils.Medicion;
+import utils.Metricas;
+
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Servicio encargado de la lógica de negocio para la gestión de huellas de carbono.
+ * Las lecturas por usuario (páginas de historial, recuentos, totales y resúmenes)
+ * pasan por una caché que se invalida al registrar o borrar huellas de ese usuario.
+ * Si una de esas consultas falla se devuelve {@code null} (o -1 en los recuentos)
+ * en lugar de un resultado vacío, para que el error no se guarde en la caché ni
+ * se muestre como si el usuario no tuviera datos.
+ * Proporciona métodos para el registro, eliminación y cálculo avanzado de métricas
+ * de impacto ambiental, centralizando las consultas HQL para el análisis de datos.
+ */
+public class HuellaService {
+
+    // --- CONSULTAS HQL ---
+
+    /**
+     * Impacto total y número de registros leídos del resumen mensual precalculado.
+     */
+    private static final String QUERY_TOTALES =
+            "SELECT SUM(m.kgCo2), SUM(m.numRegistros) FROM HuellaMensual m WHERE m.id.idUsuario = :id";
+
+    /**
+     * Impacto y recuento por actividad y mes, con la categoría de cada actividad,
+     * leídos del resumen mensual por actividad. De estas filas salen todas las cifras
+     * del panel de Análisis; su número depende de los meses y actividades con
+     * registros, no del tamaño del historial.
+     */
+    private static final String QUERY_DASHBOARD =
+            "SELECT c.nombre, a.nombre, m.id.anioMes, m.kgCo2, m.numRegistros " +
+                    "FROM HuellaMensualActividad m " +
+                    "JOIN Actividad a ON a.id = m.id.idActividad " +
+                    "JOIN a.idCategoria c " +
+                    "WHERE m.id.idUsuario = :id";
+
+    /**
+     * Registros por página del historial de Mis Huellas. El calentamiento tras el
+     * login pide la primera página con este tamaño para que la pantalla la encuentre
+     * en la caché.
+     */
+    public static final int TAMANO_PAGINA_HISTORIAL = 100;
+
+    /**
+     * Número de actividades del ranking del panel de Análisis.
+     */
+    public static final int TOP_ACTIVIDADES_DASHBOARD = 3;
+
+    /**
+     * Resultados de consulta por usuario, compartidos por todas las instancias del servicio.
+     */
+    private static final CachePorUsuario CACHE = new CachePorUsuario("huellas");
+
+    private final HuellaDAO huellaDAO;
+    private final CatalogoEmisiones catalogo;
+
+    public HuellaService() {
+        this.huellaDAO = new HuellaDAO();
+        this.catalogo = CatalogoEmisiones.getInstance();
+    }
+
+    /**
+     * Registra una nueva actividad en el sistema delegando la persistencia al DAO.
+     * Con la escritura diferida activada el registro se encola y se guarda poco
+     * después junto con otros, en un mismo commit; hasta entonces no aparece en
+     * las consultas.
+     * @param h Instancia de Huella con los datos de consumo.
+     * @throws IllegalStateException Si no se puede calcular el impacto de su actividad.
+     * @see EscrituraDiferida
+     */
+    public void registrarNuevaHuella(Huella h) {
+        try (Medicion m = Metricas.medir("HuellaService.registrarNuevaHuella")) {
+            if (EscrituraDiferida.activada() && EscrituraDiferida.getInstance().encolar(h)) {
+                return;
+            }
+            huellaDAO.guardar(h, calcularImpacto(h));
+            invalidarUsuario(h);
+        }
+    }
+
+    /**
+     * Guarda los cambios de un registro existente y recalcula su impacto.
+     * @param h Registro con su identificador y los datos nuevos.
+     * @return {@code true} si el cambio se guardó, {@code false} si falló la base de datos.
+     * @throws IllegalStateException Si no se puede calcular el impacto de su actividad.
+     */
+    public boolean modificarHuella(Huella h) {
+        try (Medicion m = Metricas.medir("HuellaService.modificarHuella")) {
+            boolean ok = huellaDAO.actualizar(h, calcularImpacto(h));
+            invalidarUsuario(h);
+            return ok;
+        }
+    }
+
+    /**
+     * Calcula y asigna al registro su impacto en kg de CO2 con el factor vigente
+     * del catálogo en memoria, como hacen la escritura diferida y la importación.
+     * Si la instantánea no conoce la actividad (se creó después de cargarla, o la
+     * última carga falló y se está sirviendo el catálogo vacío) se recarga una vez
+     * antes de rendirse; nunca se guarda un registro sin impacto.
+     * @param h Registro que se va a guardar.
+     * @return La categoría de su actividad, o {@code null} si el registro no tiene actividad.
+     * @throws IllegalStateException Si la actividad no tiene categoría en el catálogo.
+     */
+    private Integer calcularImpacto(Huella h) {
+        if (h.getIdActividad() == null) return null;
+        int idActividad = h.getIdActividad().getId();
+        CatalogoEmisiones.Instantanea foto = catalogo.actual();
+        if (foto.categoriaDe(idActividad) < 0) {
+            foto = catalogo.invalidar();
+        }
+        int idCategoria = foto.categoriaDe(idActividad);
+        if (idCategoria < 0) {
+            throw new IllegalStateException("La actividad " + idActividad
+                    + " no está en el catálogo de emisiones o no tiene categoría");
+        }
+        h.setImpactoKg(h.getValor() * (double) foto.factorEmision(idActividad));
+        return idCategoria;
+    }
+
+    /**
+     * Recupera un registro concreto del historial de un usuario.
+     * @param idUsuario Identificador del dueño del registro.
+     * @param idRegistro Identificador del registro.
+     * @return La fila del registro, o {@code null} si no existe o pertenece a otro usuario.
+     */
+    public HuellaFila obtenerHuella(int idUsuario, int idRegistro) {
+        try (Medicion m = Metricas.medir("HuellaService.obtenerHuella").usuario(idUsuario)) {
+            return huellaDAO.buscarFila(idUsuario, idRegistro);
+        }
+    }
+
+    /**
+     * Recupera el historial de huellas del usuario como filas de solo lectura, con
+     * el nombre de la actividad y de la categoría ya resueltos en la consulta.
+     * @param idUsuario Identificador del usuario.
+     * @return Lista de filas ordenadas por fecha de forma descendente.
+     */
+    public List<HuellaFila> obtenerHistorial(int idUsuario) {
+        try (Medicion m = Metricas.medir("HuellaService.obtenerHistorial").usuario(idUsuario)) {
+            return huellaDAO.listarPorUsuario(idUsuario);
+        }
+    }
+
+    /**
+     * Recupera una página del historial de huellas del usuario mediante paginación
+     * por cursor. Cargar la primera página cuesta lo mismo sea cual sea la longitud
+     * del historial.
+     * @param idUsuario Identificador del usuario.
+     * @param despuesDe Cursor de la página anterior, o {@code null} para empezar por la más reciente.
+     * @param tamano Número máximo de registros por página.
+     * @return La página de huellas y el cursor para continuar, o {@code null} si hay un error.
+     */
+    public Pagina<HuellaFila> obtenerPaginaHistorial(int idUsuario, CursorHuella despuesDe, int tamano) {
+        return buscarPaginaHistorial(idUsuario, FiltroHuellas.NINGUNO, despuesDe, tamano);
+    }
+
+    /**
+     * Recupera un tramo del historial a partir de una posición, para los saltos a
+     * zonas del historial de las que no se tiene cursor.
+     * @param idUsuario Identificador del usuario.
+     * @param posicion Número de registros a saltar desde el más reciente.
+     * @param tamano Número máximo de registros.
+     * @return Lista de huellas ordenadas por fecha de forma descendente, o {@code null} si hay un error.
+     */
+    public List<HuellaFila> obtenerHistorialDesde(int idUsuario, int posicion, int tamano) {
+        return buscarHistorialDesde(idUsuario, FiltroHuellas.NINGUNO, posicion, tamano);
+    }
+
+    /**
+     * Cuenta los registros del historial de un usuario.
+     * @param idUsuario Identificador del usuario.
+     * @return Número de huellas registradas, o -1 si hay un error.
+     */
+    public long contarHuellas(int idUsuario) {
+        return contarHuellas(idUsuario, FiltroHuellas.NINGUNO);
+    }
+
+    /**
+     * Busca en el historial del usuario los registros que cumplen un filtro,
+     * paginando por cursor. El filtrado se hace en la base de datos.
+     * @param idUsuario Identificador del usuario.
+     * @param filtro Texto de la actividad y categoría buscados.
+     * @param despuesDe Cursor de la página anterior, o {@code null} para la primera.
+     * @param tamano Número máximo de registros por página.
+     * @return La página de resultados y el cursor para continuar, o {@code null} si hay un error.
+     */
+    public Pagina<HuellaFila> buscarPaginaHistorial(int idUsuario, FiltroHuellas filtro, CursorHuella despuesDe, int tamano) {
+        try (Medicion m = Metricas.medir("HuellaService.buscarPaginaHistorial").usuario(idUsuario)) {
+            return CACHE.obtener(idUsuario, "pagina", Arrays.asList(filtro, despuesDe, tamano),
+                    () -> huellaDAO.listarPagina(idUsuario, filtro, despuesDe, tamano));
+        }
+    }
+
+    /**
+     * Recupera un tramo de los resultados de una búsqueda a partir de una posición.
+     * @param idUsuario Identificador del usuario.
+     * @param filtro Texto de la actividad y categoría buscados.
+     * @param posicion Número de resultados a saltar desde el más reciente.
+     * @param tamano Número máximo de registros.
+     * @return Lista de huellas ordenadas por fecha de forma descendente, o {@code null} si hay un error.
+     */
+    public List<HuellaFila> buscarHistorialDesde(int idUsuario, FiltroHuellas filtro, int posicion, int tamano) {
+        try (Medicion m = Metricas.medir("HuellaService.buscarHistorialDesde").usuario(idUsuario)) {
+            return CACHE.obtener(idUsuario, "posicion", Arrays.asList(filtro, posicion, tamano),
+                    () -> huellaDAO.listarPorPosicion(idUsuario, filtro, posicion, tamano));
+        }
+    }
+
+    /**
+     * Cuenta los registros del historial que cumplen un filtro de búsqueda.
+     * @param idUsuario Identificador del usuario.
+     * @param filtro Texto de la actividad y categoría buscados.
+     * @return Número de huellas que cumplen el filtro, o -1 si hay un error.
+     */
+    public long contarHuellas(int idUsuario, FiltroHuellas filtro) {
+        try (Medicion m = Metricas.medir("HuellaService.contarHuellas").usuario(idUsuario)) {
+            Long total = CACHE.obtener(idUsuario, "conteo", filtro,
+                    () -> huellaDAO.contarPorUsuario(idUsuario, filtro));
+            return (total != null) ? total : -1;
+        }
+    }
+
+    /**
+     * Elimina un registro de huella de la base de datos.
+     * @param idUsuario Identificador del dueño del registro.
+     * @param fila Fila del historial a eliminar.
+     * @return {@code true} si el registro se eliminó, {@code false} en caso contrario.
+     */
+    public boolean borrarRegistro(int idUsuario, HuellaFila fila) {
+        try (Medicion m = Metricas.medir("HuellaService.borrarRegistro").usuario(idUsuario)) {
+            boolean ok = huellaDAO.eliminar(fila.id());
+            CACHE.invalidar(idUsuario);
+            return ok;
+        }
+    }
+
+    /**
+     * Descarta de la caché los resultados del dueño de una huella tras modificarla.
+     */
+    private static void invalidarUsuario(Huella h) {
+        if (h.getIdUsuario() != null && h.getIdUsuario().getId() != null) {
+            CACHE.invalidar(h.getIdUsuario().getId());
+        } else {
+            CACHE.invalidarTodo();
+        }
+    }
+
+    /**
+     * Descarta los resultados guardados de todos los usuarios. Lo usan los procesos
+     * que reescriben impactos de muchos registros a la vez.
+     */
+    static void invalidarCache() {
+        CACHE.invalidarTodo();
+    }
+
+    /**
+     * Descarta los resultados guardados de un usuario. Lo usan los procesos que
+     * escriben sus registros sin pasar por este servicio, como la importación.
+     */
+    static void invalidarCache(int idUsuario) {
+        CACHE.invalidar(idUsuario);
+    }
+
+    /**
+     * Contadores de aciertos, fallos y expulsiones de la caché de consultas de huellas.
+     * @return Las estadísticas acumuladas desde el arranque.
+     */
+    public static CachePorUsuario.Estadisticas estadisticasCache() {
+        return CACHE.getEstadisticas();
+    }
+
+    /**
+     * Calcula las estadísticas principales para el inicio.
+     * Obtiene el impacto total multiplicado por los factores de emisión y el
+     * recuento total de actividades registradas por el usuario, ambos a partir
+     * del resumen mensual precalculado.
+     * @param usuarioId Identificador del usuario.
+     * @return Mapa con el impacto acumulado ("total") y el número de registros ("conteo"),
+     * o {@code null} si hay un error.
+     */
+    public Map<String, Double> obtenerEstadisticas(long usuarioId) {
+        try (Medicion m = Metricas.medir("HuellaService.obtenerEstadisticas").usuario((int) usuarioId)) {
+            return CACHE.obtener((int) usuarioId, "estadisticas", null, () -> consultarEstadisticas(usuarioId));
+        }
+    }
+
+    private Map<String, Double> consultarEstadisticas(long usuarioId) {
+        try (Session session = Connection.getInstance().openSession()) {
+            Map<String, Double> stats = new HashMap<>();
+
+            Object[] totales = session.createQuery(QUERY_TOTALES, Object[].class)
+                    .setParameter("id", (int) usuarioId)
+                    .getSingleResult();
+
+            // Impacto total (Valor * Factor de Emisión) y recuento de actividades
+            stats.put("total", totales[0] != null ? ((Number) totales[0]).doubleValue() : 0.0);
+            stats.put("conteo", totales[1] != null ? ((Number) totales[1]).doubleValue() : 0.0);
+
+            return stats;
+        } catch (Exception e) {
+            System.err.println("Error al calcular las estadísticas: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Construye el resumen completo de la pantalla de Análisis.
+     * El total, el recuento, el reparto por categoría, la evolución mensual y el
+     * ranking de actividades se calculan en memoria a partir de una única consulta
+     * al resumen mensual por actividad, que no hidrata entidades.
+     * @param idUsuario Identificador del usuario.
+     * @param topN Número de actividades a incluir en el ranking.
+     * @return El {@link DashboardSnapshot} del usuario, o {@code null} si hay un error.
+     */
+    public DashboardSnapshot obtenerDashboard(int idUsuario, int topN) {
+        try (Medicion m = Metricas.medir("HuellaService.obtenerDashboard").usuario(idUsuario)) {
+            return CACHE.obtener(idUsuario, "dashboard", topN, () -> consultarDashboard(idUsuario, topN));
+        }
+    }
+
+    private DashboardSnapshot consultarDashboard(int idUsuario, int topN) {
+        try (Session session = Connection.getInstance().openSession()) {
+            double total = 0.0;
+            long conteo = 0;
+            Map<String, Double> porCategoria = new LinkedHashMap<>();
+            SortedMap<YearMonth, Double> porMes = new TreeMap<>();
+            Map<String, Double> porActividad = new HashMap<>();
+
+            List<Object[]> celdas = session.createQuery(QUERY_DASHBOARD, Object[].class)
+                    .setParameter("id", idUsuario)
+                    .getResultList();
+            for (Object[] celda : celdas) {
+                double impacto = ((Number) celda[3]).doubleValue();
+                total += impacto;
+                conteo += ((Number) celda[4]).longValue();
+                porCategoria.merge((String) celda[0], impacto, Double::sum);
+                porActividad.merge((String) celda[1], impacto, Double::sum);
+                porMes.merge(HuellaMensualId.aYearMonth((Integer) celda[2]), impacto, Double::sum);
+            }
+
+            List<DashboardSnapshot.ImpactoActividad> top = porActividad.entrySet().stream()
+                    .map(e -> new DashboardSnapshot.ImpactoActividad(e.getKey(), e.getValue()))
+                    .sorted(Comparator.comparingDouble(DashboardSnapshot.ImpactoActividad::impacto).reversed())
+                    .limit(topN)
+                    .toList();
+
+            return new DashboardSnapshot(total, conteo, porCategoria, porMes, top);
+        } catch (Exception e) {
+            System.err.println("Error al construir el panel de análisis: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Consulta el impacto total acumulado utilizando la lógica aritmética del DAO.
+     * @param idUsuario Identificador del usuario.
+     * @return Suma total del impacto en kg de CO2, o {@code null} si hay un error.
+     */
+    public Double consultarImpactoTotal(int idUsuario) {
+        try (Medicion m = Metricas.medir("HuellaService.consultarImpactoTotal").usuario(idUsuario)) {
+            return CACHE.obtener(idUsuario, "total", null, () -> huellaDAO.obtenerImpactoTotal(idUsuario));
+        }
+    }
+
+    /**
+     * Obtiene la lista de huellas del usuario mediante la consulta optimizada del DAO.
+     * @param idUsuario Identificador del usuario.
+     * @return Lista de filas del historial.
+     */
+    public List<HuellaFila> obtenerHuellasPorUsuario(int idUsuario) {
+        try (Medicion m = Metricas.medir("HuellaService.obtenerHuellasPorUsuario").usuario(idUsuario)) {
+            return huellaDAO.listarPorUsuario(idUsuario);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,207 @@
+package services;
+
+import DAO.HuellaDAO;
+import model.Actividad;
+import model.RegistroImportado;
+import model.ResultadoImportacion;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Importa huellas desde un archivo CSV con el mismo formato que genera la
+ * exportación de la pantalla de Análisis:
+ * {@code Fecha,Actividad,Categoria,Valor,Unidad,Impacto_kgCO2}.
+ * El archivo se lee línea a línea sin cargarlo entero en memoria; los campos
+ * pueden ir entre comillas según la RFC 4180, con comas, comillas duplicadas o
+ * saltos de línea dentro, como los escribe {@link ExportadorHuellas}. Cada fila se
+ * valida y se resuelve contra el catálogo de emisiones (la actividad por nombre y
+ * el impacto con el factor vigente), y las filas válidas se guardan en bloques,
+ * cada uno con su propia transacción. El impacto que traiga el archivo se ignora
+ * y se vuelve a calcular.
+ */
+public class ImportadorHuellas {
+
+    /**
+     * Filas que se confirman en cada transacción.
+     */
+    private static final int TAMANO_BLOQUE = 2000;
+
+    /**
+     * Inserciones que se envían juntas al servidor dentro de un bloque.
+     */
+    private static final int TAMANO_BATCH = 500;
+
+    /**
+     * Número máximo de motivos de rechazo que se guardan en el resultado.
+     */
+    private static final int MAX_MOTIVOS = 50;
+
+    private final HuellaDAO huellaDAO;
+    private final CatalogoEmisiones catalogo;
+
+    public ImportadorHuellas() {
+        this.huellaDAO = new HuellaDAO();
+        this.catalogo = CatalogoEmisiones.getInstance();
+    }
+
+    /**
+     * Importa un archivo CSV codificado en UTF-8 (con o sin BOM).
+     * @param archivo Ruta del archivo a importar.
+     * @param idUsuario Usuario al que se asignan los registros.
+     * @return El resumen de la importación.
+     * @throws IOException Si el archivo no se puede leer.
+     */
+    public ResultadoImportacion importar(Path archivo, int idUsuario) throws IOException {
+        try (BufferedReader lector = Files.newBufferedReader(archivo, StandardCharsets.UTF_8)) {
+            return importar(lector, idUsuario);
+        }
+    }
+
+    /**
+     * Importa los registros de un flujo de texto en formato CSV.
+     * @param entrada Origen de las líneas; no se cierra.
+     * @param idUsuario Usuario al que se asignan los registros.
+     * @return El resumen de la importación.
+     * @throws IOException Si falla la lectura.
+     */
+    public ResultadoImportacion importar(Reader entrada, int idUsuario) throws IOException {
+        long inicio = System.nanoTime();
+        BufferedReader lector = (entrada instanceof BufferedReader b) ? b : new BufferedReader(entrada);
+
+        CatalogoEmisiones.Instantanea foto = catalogo.actual();
+        Map<String, Integer> actividadPorNombre = new HashMap<>();
+        for (Actividad a : foto.actividades()) {
+            actividadPorNombre.put(normalizar(a.getNombre()), a.getId());
+        }
+
+        List<RegistroImportado> bloque = new ArrayList<>(TAMANO_BLOQUE);
+        List<String> motivos = new ArrayList<>();
+        long leidas = 0, importadas = 0, rechazadas = 0;
+        int numLinea = 0;
+
+        String linea;
+        while ((linea = lector.readLine()) != null) {
+            numLinea++;
+            int primeraLinea = numLinea;
+            if (numLinea == 1) {
+                linea = linea.replace("\uFEFF", "");
+                if (linea.toLowerCase(Locale.ROOT).startsWith("fecha,")) continue;
+            }
+            if (linea.isBlank()) continue;
+            // Un campo entre comillas puede contener saltos de línea: el registro sigue en la siguiente
+            if (Csv.comillasAbiertas(linea)) {
+                StringBuilder registro = new StringBuilder(linea);
+                String siguiente;
+                while (Csv.comillasAbiertas(registro) && (siguiente = lector.readLine()) != null) {
+                    numLinea++;
+                    registro.append('\n').append(siguiente);
+                }
+                linea = registro.toString();
+            }
+            leidas++;
+
+            try {
+                bloque.add(interpretar(linea, actividadPorNombre, foto));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                rechazadas++;
+                if (motivos.size() < MAX_MOTIVOS) motivos.add("Línea " + primeraLinea + ": " + e.getMessage());
+                continue;
+            }
+
+            if (bloque.size() == TAMANO_BLOQUE) {
+                long guardadas = guardarBloque(idUsuario, bloque, numLinea, motivos);
+                importadas += guardadas;
+                rechazadas += bloque.size() - guardadas;
+                bloque.clear();
+            }
+        }
+        if (!bloque.isEmpty()) {
+            long guardadas = guardarBloque(idUsuario, bloque, numLinea, motivos);
+            importadas += guardadas;
+            rechazadas += bloque.size() - guardadas;
+        }
+
+        if (importadas > 0) HuellaService.invalidarCache(idUsuario);
+        long ms = (System.nanoTime() - inicio) / 1_000_000;
+        ResultadoImportacion resultado = new ResultadoImportacion(leidas, importadas, rechazadas, List.copyOf(motivos), ms);
+        System.out.println(resultado);
+        return resultado;
+    }
+
+    private long guardarBloque(int idUsuario, List<RegistroImportado> bloque, int hastaLinea, List<String> motivos) {
+        int guardadas = huellaDAO.insertarLote(idUsuario, bloque, TAMANO_BATCH);
+        if (guardadas < 0) {
+            if (motivos.size() < MAX_MOTIVOS) {
+                motivos.add("Bloque de " + bloque.size() + " filas hasta la línea " + hastaLinea + ": error al guardar");
+            }
+            return 0;
+        }
+        return guardadas;
+    }
+
+    /**
+     * Convierte un registro del CSV en un registro listo para guardar.
+     * Las exportaciones antiguas escribían los decimales según la configuración
+     * regional y sin comillas, así que un valor como {@code 12,50} puede llegar
+     * partido en dos columnas; se recompone tomando como valor todo lo que haya
+     * entre la categoría y la primera columna no numérica (la unidad).
+     * @throws IllegalArgumentException Si la fila no es válida.
+     */
+    private RegistroImportado interpretar(String linea, Map<String, Integer> actividadPorNombre,
+                                          CatalogoEmisiones.Instantanea foto) {
+        List<String> c = Csv.separar(linea);
+        if (c.size() < 5) throw new IllegalArgumentException("faltan columnas");
+
+        LocalDate fecha = LocalDate.parse(c.get(0).trim());
+
+        Integer idActividad = actividadPorNombre.get(normalizar(c.get(1)));
+        if (idActividad == null) throw new IllegalArgumentException("actividad desconocida '" + c.get(1).trim() + "'");
+        int idCategoria = foto.categoriaDe(idActividad);
+        if (idCategoria < 0) throw new IllegalArgumentException("la actividad '" + c.get(1).trim() + "' no tiene categoría");
+
+        int i = 3;
+        StringBuilder numero = new StringBuilder(c.get(i++).trim().replace(',', '.'));
+        while (i < c.size() && esEntero(c.get(i).trim())) {
+            numero.append('.').append(c.get(i++).trim());
+        }
+        if (i >= c.size()) throw new IllegalArgumentException("falta la unidad");
+        float valor;
+        try {
+            valor = Float.parseFloat(numero.toString());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("valor no numérico '" + numero + "'");
+        }
+        if (valor < 0 || Float.isNaN(valor) || Float.isInfinite(valor)) {
+            throw new IllegalArgumentException("valor fuera de rango " + valor);
+        }
+        String unidad = c.get(i).trim();
+        if (unidad.isEmpty() || unidad.length() > 50) throw new IllegalArgumentException("unidad no válida");
+
+        double impacto = valor * (double) foto.factorEmision(idActividad);
+        return new RegistroImportado(idActividad, idCategoria, valor, unidad, fecha, impacto);
+    }
+
+    private static boolean esEntero(String texto) {
+        if (texto.isEmpty()) return false;
+        for (int k = 0; k < texto.length(); k++) {
+            if (!Character.isDigit(texto.charAt(k))) return false;
+        }
+        return true;
+    }
+
+    private static String normalizar(String nombre) {
+        return nombre.trim().toLowerCase(Locale.ROOT);
+    }
+}
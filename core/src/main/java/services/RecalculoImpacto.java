@@ -0,0 +1,86 @@
+package services;
+
+import DAO.HuellaDAO;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Trabajo en segundo plano que mantiene al día el impacto guardado en cada huella.
+ * Cuando cambia el factor de emisión de una categoría, recorre la tabla de huellas
+ * por tramos de identificadores, actualiza el impacto de las filas afectadas con una
+ * transacción corta por tramo y, al terminar, regenera el resumen mensual de esa
+ * categoría. También sirve para rellenar los registros antiguos que aún no tienen
+ * impacto calculado.
+ */
+public class RecalculoImpacto {
+
+    /**
+     * Número de identificadores que abarca cada transacción.
+     */
+    private static final int TAMANO_TRAMO = 5000;
+
+    /**
+     * Hilo único que ejecuta los recálculos en orden, uno detrás de otro.
+     */
+    private static final ExecutorService EJECUTOR = Executors.newSingleThreadExecutor(tarea -> {
+        Thread hilo = new Thread(tarea, "recalculo-impacto");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    private final HuellaDAO huellaDAO;
+
+    public RecalculoImpacto() {
+        this.huellaDAO = new HuellaDAO();
+    }
+
+    /**
+     * Encola el recálculo de todos los registros de una categoría.
+     * @param idCategoria Categoría cuyo factor de emisión ha cambiado.
+     * @return Un {@link Future} que se completa al terminar el trabajo.
+     */
+    public static Future<?> programarCategoria(int idCategoria) {
+        return EJECUTOR.submit(() -> new RecalculoImpacto().recalcularCategoria(idCategoria));
+    }
+
+    /**
+     * Recalcula de forma síncrona el impacto de los registros de una categoría y
+     * regenera su resumen mensual.
+     * @param idCategoria Categoría a recalcular.
+     * @return Número de registros actualizados.
+     */
+    public long recalcularCategoria(int idCategoria) {
+        long filas = recorrerPorTramos(idCategoria);
+        huellaDAO.reconstruirResumenCategoria(idCategoria);
+        HuellaService.invalidarCache();
+        System.out.println("Recálculo de impacto (categoría " + idCategoria + "): " + filas + " registros.");
+        return filas;
+    }
+
+    /**
+     * Calcula de forma síncrona el impacto de los registros que aún no lo tienen,
+     * por ejemplo los creados antes de que existiera la columna.
+     * @return Número de registros actualizados.
+     */
+    public long recalcularPendientes() {
+        long filas = recorrerPorTramos(null);
+        if (filas > 0) HuellaService.invalidarCache();
+        System.out.println("Impactos pendientes calculados: " + filas + " registros.");
+        return filas;
+    }
+
+    private long recorrerPorTramos(Integer idCategoria) {
+        int[] rango = huellaDAO.rangoIdentificadores();
+        if (rango == null) return 0;
+
+        long total = 0;
+        for (int desde = rango[0] - 1; desde < rango[1]; desde += TAMANO_TRAMO) {
+            int filas = huellaDAO.recalcularImpactoTramo(idCategoria, desde, desde + TAMANO_TRAMO);
+            if (filas < 0) break;
+            total += filas;
+        }
+        return total;
+    }
+}
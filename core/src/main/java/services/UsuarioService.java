@@ -3,6 +3,8 @@ package services;
 import DAO.UsuarioDAO;
 import model.Usuario;
 import org.mindrot.jbcrypt.BCrypt;
+import utils.Medicion;
+import utils.Metricas;
 
 /**
  * Este servicio es el "guardián" de la aplicación.
@@ -32,13 +34,15 @@ public class UsuarioService {
      * @return El objeto Usuario si las credenciales son válidas; null en caso contrario.
      */
     public Usuario login(String email, String password) {
-        Usuario usuario = usuarioDAO.buscarPorEmail(email);
+        try (Medicion m = Metricas.medir("UsuarioService.login")) {
+            Usuario usuario = usuarioDAO.buscarPorEmail(email);
 
-        // Comprobación de seguridad: comparamos el texto con el hash cifrado
-        if (usuario != null && BCrypt.checkpw(password, usuario.getContrasena())) {
-            return usuario;
+            // Comprobación de seguridad: comparamos el texto con el hash cifrado
+            if (usuario != null && BCrypt.checkpw(password, usuario.getContrasena())) {
+                return usuario;
+            }
+            return null;
         }
-        return null;
     }
 
     /**
@@ -49,15 +53,17 @@ public class UsuarioService {
      * @return true si el registro fue exitoso; false si el email ya existe.
      */
     public boolean registrarUsuario(Usuario nuevoUsuario) {
-        if (usuarioDAO.buscarPorEmail(nuevoUsuario.getEmail()) == null) {
+        try (Medicion m = Metricas.medir("UsuarioService.registrarUsuario")) {
+            if (usuarioDAO.buscarPorEmail(nuevoUsuario.getEmail()) == null) {
 
-            // Generamos un hash seguro con sal aleatoria (salt) para la contraseña
-            String hash = BCrypt.hashpw(nuevoUsuario.getContrasena(), BCrypt.gensalt());
-            nuevoUsuario.setContrasena(hash);
+                // Generamos un hash seguro con sal aleatoria (salt) para la contraseña
+                String hash = BCrypt.hashpw(nuevoUsuario.getContrasena(), BCrypt.gensalt());
+                nuevoUsuario.setContrasena(hash);
 
-            usuarioDAO.guardar(nuevoUsuario);
-            return true;
+                usuarioDAO.guardar(nuevoUsuario);
+                return true;
+            }
+            return false;
         }
-        return false;
     }
 }
\ No newline at end of file
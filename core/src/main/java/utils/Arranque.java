@@ -0,0 +1,88 @@
+package utils;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Registro de las fases del arranque de la aplicación: inicio de JavaFX, carga
+ * de la primera vista, construcción del metamodelo de Hibernate, comprobación
+ * del esquema y primera consulta. Cada fase se escribe por la salida estándar
+ * al terminar, con su duración y el instante (desde que arrancó la JVM) en que
+ * acabó, y queda guardada para el informe de diagnóstico.
+ * <pre>{@code
+ * try (Arranque.Tramo t = Arranque.fase("hibernate.metamodelo")) {
+ *     ...
+ * }
+ * }</pre>
+ */
+public final class Arranque {
+
+    private static final List<Fase> FASES = new CopyOnWriteArrayList<>();
+
+    private Arranque() {
+    }
+
+    /**
+     * Empieza a medir una fase.
+     * @param nombre Nombre de la fase.
+     * @return El tramo en curso; la fase se registra al cerrarlo.
+     */
+    public static Tramo fase(String nombre) {
+        return new Tramo(nombre, System.nanoTime());
+    }
+
+    /**
+     * Registra una fase medida por otros medios.
+     * @param nombre Nombre de la fase.
+     * @param nanos Duración de la fase.
+     */
+    public static void registrar(String nombre, long nanos) {
+        Fase fase = new Fase(nombre, nanos / 1_000_000,
+                ManagementFactory.getRuntimeMXBean().getUptime(), Thread.currentThread().getName());
+        FASES.add(fase);
+        System.out.println(fase);
+    }
+
+    /**
+     * Devuelve las fases registradas hasta ahora, en el orden en que terminaron.
+     * @return Lista inmutable de fases.
+     */
+    public static List<Fase> fases() {
+        return List.copyOf(FASES);
+    }
+
+    /**
+     * Medición en curso de una fase.
+     */
+    public static final class Tramo implements AutoCloseable {
+
+        private final String nombre;
+        private final long inicio;
+
+        private Tramo(String nombre, long inicio) {
+            this.nombre = nombre;
+            this.inicio = inicio;
+        }
+
+        @Override
+        public void close() {
+            registrar(nombre, System.nanoTime() - inicio);
+        }
+    }
+
+    /**
+     * Una fase terminada.
+     * @param nombre Nombre de la fase.
+     * @param ms Duración.
+     * @param terminadaEnMs Milisegundos desde el arranque de la JVM hasta que terminó.
+     * @param hilo Hilo que la ejecutó.
+     */
+    public record Fase(String nombre, long ms, long terminadaEnMs, String hilo) {
+
+        @Override
+        public String toString() {
+            return String.format("[Arranque] %-28s %6d ms  (t=%d ms, %s)", nombre, ms, terminadaEnMs, hilo);
+        }
+    }
+}
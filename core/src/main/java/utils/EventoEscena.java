@@ -0,0 +1,66 @@
+package utils;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento de Java Flight Recorder que cubre un cambio de pantalla: la carga del
+ * FXML y la inicialización de su controlador (o, si la vista ya estaba en la
+ * caché de vistas, su refresco) y la sustitución de la raíz de la escena.
+ * Las operaciones de datos que lance el controlador quedan dentro del intervalo
+ * del evento.
+ * <pre>{@code
+ * EventoEscena evento = EventoEscena.iniciar(fxml);
+ * try {
+ *     ...
+ * } finally {
+ *     evento.terminar();
+ * }
+ * }</pre>
+ */
+@Name("ecotrack.Escena")
+@Label("Cambio de pantalla")
+@Category({"EcoTrack", "Interfaz"})
+@Description("Carga de una vista FXML y cambio de escena")
+@StackTrace(false)
+public class EventoEscena extends Event {
+
+    @Label("Vista")
+    @Description("Ruta del archivo FXML cargado")
+    String fxml;
+
+    @Label("Desde caché")
+    @Description("La vista ya estaba cargada y solo se refrescaron sus datos")
+    boolean cache;
+
+    /**
+     * Empieza a medir la carga de una vista.
+     * @param fxml Ruta del archivo FXML.
+     * @return El evento en curso.
+     */
+    public static EventoEscena iniciar(String fxml) {
+        EventoEscena evento = new EventoEscena();
+        evento.fxml = fxml;
+        evento.begin();
+        return evento;
+    }
+
+    /**
+     * Indica si la vista se reutilizó desde la caché de vistas.
+     * @param cache {@code true} si no hubo que cargar el FXML.
+     */
+    public void desdeCache(boolean cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Termina la medición y emite el evento si hay una grabación que lo recoja.
+     */
+    public void terminar() {
+        commit();
+    }
+}
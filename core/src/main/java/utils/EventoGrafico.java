@@ -0,0 +1,53 @@
+package utils;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento de Java Flight Recorder que cubre el relleno de un gráfico en el hilo
+ * de la interfaz: la creación de sus series y nodos a partir de datos ya cargados.
+ */
+@Name("ecotrack.Grafico")
+@Label("Relleno de gráfico")
+@Category({"EcoTrack", "Interfaz"})
+@Description("Construcción de las series de un gráfico de la pantalla de Análisis")
+@StackTrace(false)
+public class EventoGrafico extends Event {
+
+    @Label("Gráfico")
+    String grafico;
+
+    @Label("Usuario")
+    int idUsuario;
+
+    @Label("Puntos")
+    @Description("Número de datos representados")
+    int puntos;
+
+    /**
+     * Empieza a medir el relleno de un gráfico.
+     * @param grafico Nombre del gráfico.
+     * @param idUsuario Usuario cuyos datos se representan.
+     * @return El evento en curso.
+     */
+    public static EventoGrafico iniciar(String grafico, int idUsuario) {
+        EventoGrafico evento = new EventoGrafico();
+        evento.grafico = grafico;
+        evento.idUsuario = idUsuario;
+        evento.begin();
+        return evento;
+    }
+
+    /**
+     * Termina la medición y emite el evento si hay una grabación que lo recoja.
+     * @param puntos Número de datos representados.
+     */
+    public void terminar(int puntos) {
+        this.puntos = puntos;
+        commit();
+    }
+}
@@ -0,0 +1,33 @@
+package utils;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento de Java Flight Recorder emitido por cada método de los DAO y servicios
+ * medido con {@link Metricas#medir(String)}. En una grabación permite ver qué
+ * consulta, y para qué usuario, estaba en curso durante un parón de la interfaz.
+ */
+@Name("ecotrack.Operacion")
+@Label("Operación de datos")
+@Category({"EcoTrack", "Persistencia"})
+@Description("Llamada a un método de un DAO o de un servicio")
+@StackTrace(false)
+public class EventoOperacion extends Event {
+
+    @Label("Operación")
+    @Description("Clase y método, por ejemplo HuellaDAO.listarPagina")
+    String operacion;
+
+    @Label("Usuario")
+    @Description("Identificador del usuario, o -1 si la operación no es de un usuario")
+    int idUsuario;
+
+    @Label("Filas")
+    @Description("Filas leídas o escritas, o -1 si el método no las indica")
+    long filas;
+}
@@ -0,0 +1,82 @@
+package utils;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Grabación continua de Java Flight Recorder con la configuración de bajo coste
+ * del JDK ({@code default}) más los eventos propios de EcoTrack
+ * ({@link EventoOperacion}, {@link EventoEscena} y {@link EventoGrafico}).
+ * Los datos se guardan en un búfer circular en disco acotado por tamaño y por
+ * antigüedad, y al terminar la aplicación se vuelcan a un archivo {@code .jfr}.
+ * Se activa con la propiedad del sistema {@value #PROPIEDAD}{@code =true} (o con
+ * {@code --jfr}). El resto de ajustes: {@code ecotrack.jfr.archivo},
+ * {@code ecotrack.jfr.max.mb}, {@code ecotrack.jfr.max.minutos} y
+ * {@code ecotrack.jfr.umbral.ms}, que descarta las operaciones de datos más cortas.
+ */
+public final class GrabacionContinua {
+
+    /**
+     * Propiedad del sistema que activa la grabación.
+     */
+    public static final String PROPIEDAD = "ecotrack.jfr";
+
+    private static final long MAX_MB_POR_DEFECTO = 100;
+    private static final long MAX_MINUTOS_POR_DEFECTO = 30;
+
+    private static Recording grabacion;
+
+    private GrabacionContinua() {
+    }
+
+    /**
+     * Arranca la grabación si está activada. Llamarlo más de una vez no tiene efecto.
+     */
+    public static synchronized void iniciar() {
+        if (!Boolean.getBoolean(PROPIEDAD) || grabacion != null) return;
+        try {
+            Path archivo = Path.of(System.getProperty("ecotrack.jfr.archivo",
+                    System.getProperty("user.home") + "/.ecotrack/ecotrack.jfr"));
+            Files.createDirectories(archivo.toAbsolutePath().getParent());
+
+            Recording r = new Recording(Configuration.getConfiguration("default"));
+            r.setName("EcoTrack");
+            r.setToDisk(true);
+            r.setMaxSize(Long.getLong("ecotrack.jfr.max.mb", MAX_MB_POR_DEFECTO) * 1024 * 1024);
+            r.setMaxAge(Duration.ofMinutes(Long.getLong("ecotrack.jfr.max.minutos", MAX_MINUTOS_POR_DEFECTO)));
+            r.setDestination(archivo);
+            r.setDumpOnExit(true);
+            r.enable(EventoOperacion.class)
+                    .withThreshold(Duration.ofMillis(Long.getLong("ecotrack.jfr.umbral.ms", 0)));
+            r.enable(EventoEscena.class);
+            r.enable(EventoGrafico.class);
+            r.start();
+            grabacion = r;
+            System.out.println("Grabación JFR continua activa; se guardará en " + archivo.toAbsolutePath());
+        } catch (Exception e) {
+            System.err.println("No se pudo iniciar la grabación JFR: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Copia el contenido actual del búfer a un archivo sin detener la grabación,
+     * por ejemplo justo después de un parón.
+     * @param destino Archivo {@code .jfr} de salida.
+     * @return {@code true} si se escribió el archivo.
+     */
+    public static synchronized boolean volcar(Path destino) {
+        if (grabacion == null) return false;
+        try {
+            grabacion.dump(destino);
+            return true;
+        } catch (Exception e) {
+            System.err.println("No se pudo volcar la grabación JFR en " + destino + ": " + e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package utils;
+
+import java.util.Collection;
+
+/**
+ * Medición en curso de una llamada. Se abre con {@link Metricas#medir(String)} y
+ * se cierra al terminar la llamada, normalmente con un try-with-resources:
+ * <pre>{@code
+ * Medicion m = Metricas.medir("HuellaDAO.guardar");
+ * try (m; Session session = ...) {
+ *     ...
+ * } catch (Exception e) {
+ *     m.fallo();
+ *     ...
+ * }
+ * }</pre>
+ * Además de acumularse en el registro, cada medición emite un
+ * {@link EventoOperacion} de Java Flight Recorder cuando hay una grabación
+ * activa, con el usuario y el número de filas si el método los indica.
+ */
+public final class Medicion implements AutoCloseable {
+
+    private final Temporizador temporizador;
+    private final EventoOperacion evento;
+    private final long inicio;
+    private int idUsuario = -1;
+    private long filas = -1;
+
+    Medicion(Temporizador temporizador) {
+        this.temporizador = temporizador;
+        this.evento = new EventoOperacion();
+        this.evento.begin();
+        this.inicio = System.nanoTime();
+    }
+
+    /**
+     * Indica el usuario sobre el que trabaja la llamada, para el evento de JFR.
+     * @param idUsuario Identificador del usuario.
+     * @return Esta misma medición.
+     */
+    public Medicion usuario(int idUsuario) {
+        this.idUsuario = idUsuario;
+        return this;
+    }
+
+    /**
+     * Anota el número de filas leídas o escritas por la llamada.
+     * @param filas Número de filas.
+     * @return El mismo número, para poder devolverlo directamente.
+     */
+    public int filas(int filas) {
+        this.filas = filas;
+        return filas;
+    }
+
+    /**
+     * Anota el número de filas leídas o escritas por la llamada.
+     * @param filas Número de filas.
+     * @return El mismo número, para poder devolverlo directamente.
+     */
+    public long filas(long filas) {
+        this.filas = filas;
+        return filas;
+    }
+
+    /**
+     * Anota como filas el tamaño de un resultado.
+     * @param resultado Resultado de la consulta.
+     * @return El mismo resultado, para poder devolverlo directamente.
+     */
+    public <T extends Collection<?>> T filas(T resultado) {
+        if (resultado != null) this.filas = resultado.size();
+        return resultado;
+    }
+
+    /**
+     * Marca la llamada como fallida. Puede llamarse antes o después de cerrarla.
+     */
+    public void fallo() {
+        temporizador.registrarError();
+    }
+
+    /**
+     * Registra la duración de la llamada y, si procede, emite su evento de JFR.
+     */
+    @Override
+    public void close() {
+        temporizador.registrar(System.nanoTime() - inicio);
+        evento.end();
+        if (evento.shouldCommit()) {
+            evento.operacion = temporizador.getNombre();
+            evento.idUsuario = idUsuario;
+            evento.filas = filas;
+            evento.commit();
+        }
+    }
+}
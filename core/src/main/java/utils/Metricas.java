@@ -0,0 +1,87 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registro de tiempos de la aplicación. Cada método de los DAO y de los
+ * servicios abre una {@link Medicion} con su nombre ({@code Clase.metodo}) y al
+ * terminar se acumulan su latencia, el número de llamadas y los errores.
+ * El registro es global y vive en memoria; lo consultan la pantalla de
+ * Diagnóstico y el volcado periódico a archivo.
+ */
+public final class Metricas {
+
+    private static final Map<String, Temporizador> TEMPORIZADORES = new ConcurrentHashMap<>();
+
+    private Metricas() {
+    }
+
+    /**
+     * Empieza a medir una llamada.
+     * @param nombre Nombre de la operación, por ejemplo {@code "HuellaDAO.guardar"}.
+     * @return La medición en curso, que debe cerrarse al terminar la llamada.
+     */
+    public static Medicion medir(String nombre) {
+        return new Medicion(temporizador(nombre));
+    }
+
+    /**
+     * Obtiene (o crea) el temporizador de una operación.
+     */
+    public static Temporizador temporizador(String nombre) {
+        return TEMPORIZADORES.computeIfAbsent(nombre, Temporizador::new);
+    }
+
+    /**
+     * Resumen de todas las operaciones medidas, de mayor a menor tiempo total.
+     * @return Una fotografía de los temporizadores en este instante.
+     */
+    public static List<Resumen> instantanea() {
+        List<Resumen> resumenes = new ArrayList<>(TEMPORIZADORES.size());
+        for (Temporizador t : TEMPORIZADORES.values()) {
+            resumenes.add(t.resumen());
+        }
+        resumenes.sort(Comparator.comparingDouble(Resumen::totalMs).reversed());
+        return resumenes;
+    }
+
+    /**
+     * Descarta todas las mediciones acumuladas.
+     */
+    public static void reiniciar() {
+        TEMPORIZADORES.clear();
+    }
+
+    /**
+     * Mediciones acumuladas de una operación. Los percentiles son aproximados:
+     * indican el límite superior del tramo del histograma en el que caen.
+     * @param nombre Nombre de la operación.
+     * @param llamadas Número de llamadas terminadas.
+     * @param errores Llamadas que terminaron en error.
+     * @param mediaMs Latencia media.
+     * @param p50Ms Mediana de la latencia.
+     * @param p95Ms Percentil 95 de la latencia.
+     * @param p99Ms Percentil 99 de la latencia.
+     * @param maxMs Latencia máxima observada.
+     */
+    public record Resumen(String nombre, long llamadas, long errores, double mediaMs,
+                          double p50Ms, double p95Ms, double p99Ms, double maxMs) {
+
+        /**
+         * Tiempo total invertido en la operación.
+         */
+        public double totalMs() {
+            return mediaMs * llamadas;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-45s %9d %7d %10.2f %10.2f %10.2f %10.2f %10.2f",
+                    nombre, llamadas, errores, mediaMs, p50Ms, p95Ms, p99Ms, maxMs);
+        }
+    }
+}
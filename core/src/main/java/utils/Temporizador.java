@@ -0,0 +1,90 @@
+package utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Acumula las mediciones de una operación: número de llamadas, errores, tiempo
+ * total y máximo, y un histograma de latencias con cubos de ancho creciente
+ * (potencias de dos en microsegundos) del que se sacan los percentiles.
+ * Registrar una medición no bloquea ni reserva memoria.
+ */
+public class Temporizador {
+
+    /**
+     * Cubos del histograma: el cubo {@code i} cuenta las llamadas de menos de
+     * 2^i microsegundos; el último recoge todo lo que supera los ~17 minutos.
+     */
+    private static final int CUBOS = 31;
+
+    private final String nombre;
+    private final LongAdder llamadas = new LongAdder();
+    private final LongAdder errores = new LongAdder();
+    private final LongAdder nanosTotales = new LongAdder();
+    private final AtomicLong nanosMaximo = new AtomicLong();
+    private final AtomicLongArray histograma = new AtomicLongArray(CUBOS);
+
+    Temporizador(String nombre) {
+        this.nombre = nombre;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Suma una llamada terminada.
+     * @param nanos Duración de la llamada.
+     */
+    public void registrar(long nanos) {
+        llamadas.increment();
+        nanosTotales.add(nanos);
+        nanosMaximo.accumulateAndGet(nanos, Math::max);
+        long micros = Math.max(1, nanos / 1000);
+        int cubo = Math.min(CUBOS - 1, 64 - Long.numberOfLeadingZeros(micros));
+        histograma.incrementAndGet(cubo);
+    }
+
+    /**
+     * Suma un error. Se cuenta aparte de la llamada, que se registra igualmente
+     * al cerrar la {@link Medicion}.
+     */
+    public void registrarError() {
+        errores.increment();
+    }
+
+    /**
+     * Devuelve los valores acumulados hasta ahora.
+     * @return Un {@link Metricas.Resumen} con recuentos, media, percentiles y máximo.
+     */
+    public Metricas.Resumen resumen() {
+        long[] cubos = new long[CUBOS];
+        long total = 0;
+        for (int i = 0; i < CUBOS; i++) {
+            cubos[i] = histograma.get(i);
+            total += cubos[i];
+        }
+        long n = llamadas.sum();
+        double mediaMs = (n == 0) ? 0.0 : nanosTotales.sum() / (double) n / 1_000_000.0;
+        double maxMs = nanosMaximo.get() / 1_000_000.0;
+        return new Metricas.Resumen(nombre, n, errores.sum(), mediaMs,
+                percentil(cubos, total, 0.50, maxMs), percentil(cubos, total, 0.95, maxMs),
+                percentil(cubos, total, 0.99, maxMs), maxMs);
+    }
+
+    /**
+     * Límite superior, en milisegundos, del cubo en el que cae el percentil pedido,
+     * sin pasar del máximo observado.
+     */
+    private static double percentil(long[] cubos, long total, double q, double maxMs) {
+        if (total == 0) return 0.0;
+        long objetivo = (long) Math.ceil(q * total);
+        long acumulado = 0;
+        for (int i = 0; i < cubos.length; i++) {
+            acumulado += cubos[i];
+            if (acumulado >= objetivo) return Math.min((1L << i) / 1000.0, maxMs);
+        }
+        return maxMs;
+    }
+}
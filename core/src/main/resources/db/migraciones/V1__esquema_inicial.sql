@@ -0,0 +1,68 @@
+-- Esquema inicial de EcoTrack, tal y como lo deja el volcado huella_carbono_db.sql:
+-- las seis tablas con sus claves primarias, índices y claves ajenas.
+-- Las bases de datos creadas a partir del volcado se dan por migradas hasta esta versión.
+-- Los índices llevan el nombre de su tabla porque H2 no admite nombres repetidos
+-- en el mismo esquema; en las bases de datos del volcado conservan el nombre de la columna.
+
+CREATE TABLE `categoria` (
+  `id_categoria` int(11) NOT NULL AUTO_INCREMENT,
+  `nombre` varchar(100) NOT NULL,
+  `factor_emision` float NOT NULL,
+  `unidad` varchar(50) NOT NULL,
+  PRIMARY KEY (`id_categoria`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE `usuario` (
+  `id_usuario` int(11) NOT NULL AUTO_INCREMENT,
+  `nombre` varchar(100) NOT NULL,
+  `email` varchar(100) NOT NULL,
+  `contrasena` varchar(255) NOT NULL,
+  `fecha_registro` date DEFAULT NULL,
+  PRIMARY KEY (`id_usuario`),
+  UNIQUE KEY `usuario_email` (`email`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE `actividad` (
+  `id_actividad` int(11) NOT NULL AUTO_INCREMENT,
+  `nombre` varchar(100) NOT NULL,
+  `id_categoria` int(11) DEFAULT NULL,
+  PRIMARY KEY (`id_actividad`),
+  KEY `actividad_id_categoria` (`id_categoria`),
+  CONSTRAINT `actividad_ibfk_1` FOREIGN KEY (`id_categoria`) REFERENCES `categoria` (`id_categoria`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE `recomendacion` (
+  `id_recomendacion` int(11) NOT NULL AUTO_INCREMENT,
+  `id_categoria` int(11) DEFAULT NULL,
+  `descripcion` tinytext NOT NULL,
+  `impacto_estimado` float DEFAULT NULL,
+  PRIMARY KEY (`id_recomendacion`),
+  KEY `recomendacion_id_categoria` (`id_categoria`),
+  CONSTRAINT `recomendacion_ibfk_1` FOREIGN KEY (`id_categoria`) REFERENCES `categoria` (`id_categoria`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE `huella` (
+  `id_registro` int(11) NOT NULL AUTO_INCREMENT,
+  `id_usuario` int(11) DEFAULT NULL,
+  `id_actividad` int(11) DEFAULT NULL,
+  `valor` float NOT NULL,
+  `unidad` varchar(50) NOT NULL,
+  `fecha` date NOT NULL,
+  PRIMARY KEY (`id_registro`),
+  KEY `huella_id_usuario` (`id_usuario`),
+  KEY `huella_id_actividad` (`id_actividad`),
+  CONSTRAINT `huella_ibfk_1` FOREIGN KEY (`id_usuario`) REFERENCES `usuario` (`id_usuario`),
+  CONSTRAINT `huella_ibfk_2` FOREIGN KEY (`id_actividad`) REFERENCES `actividad` (`id_actividad`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE `habito` (
+  `id_usuario` int(11) NOT NULL,
+  `id_actividad` int(11) NOT NULL,
+  `frecuencia` int(11) DEFAULT NULL,
+  `tipo` tinytext DEFAULT NULL,
+  `ultima_fecha` date DEFAULT NULL,
+  PRIMARY KEY (`id_usuario`,`id_actividad`),
+  KEY `habito_id_actividad` (`id_actividad`),
+  CONSTRAINT `habito_ibfk_1` FOREIGN KEY (`id_usuario`) REFERENCES `usuario` (`id_usuario`),
+  CONSTRAINT `habito_ibfk_2` FOREIGN KEY (`id_actividad`) REFERENCES `actividad` (`id_actividad`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
@@ -0,0 +1,42 @@
+-- Impacto precalculado de cada huella, resumen mensual por usuario y categoría
+-- e índices compuestos del historial. Son los cambios que hasta ahora añadía
+-- hbm2ddl.auto=update a partir de las entidades Huella y HuellaMensual.
+-- Al final se calculan el impacto y el resumen de los registros que ya existían,
+-- para que los totales no aparezcan a cero tras actualizar.
+
+ALTER TABLE `huella` ADD COLUMN `impacto_kg` double DEFAULT NULL;
+
+-- Historial de cada usuario ya ordenado y paginación por cursor
+CREATE INDEX `idx_huella_usuario_fecha` ON `huella` (`id_usuario`, `fecha`, `id_registro`);
+
+-- Búsquedas por actividad o categoría dentro del historial de un usuario
+CREATE INDEX `idx_huella_usuario_actividad` ON `huella` (`id_usuario`, `id_actividad`, `fecha`);
+
+CREATE TABLE `huella_mensual` (
+  `id_usuario` int(11) NOT NULL,
+  `id_categoria` int(11) NOT NULL,
+  `anio_mes` int(11) NOT NULL,
+  `kg_co2` double NOT NULL,
+  `num_registros` bigint NOT NULL,
+  PRIMARY KEY (`id_usuario`,`id_categoria`,`anio_mes`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- Impacto de los registros existentes con el factor de emisión de su categoría.
+-- Se usa una subconsulta correlacionada en lugar de UPDATE ... JOIN porque esa
+-- forma no la admite H2, que ejecuta las mismas migraciones en el perfil embebido.
+UPDATE `huella` SET `impacto_kg` = `valor` * (
+  SELECT c.`factor_emision` FROM `actividad` a
+  JOIN `categoria` c ON c.`id_categoria` = a.`id_categoria`
+  WHERE a.`id_actividad` = `huella`.`id_actividad`)
+WHERE `impacto_kg` IS NULL AND `id_actividad` IS NOT NULL;
+
+-- Resumen mensual de los registros existentes, igual que --reconstruir-resumen:
+-- los registros sin impacto cuentan con 0 kg y los de actividades sin categoría
+-- no entran en este resumen
+INSERT INTO `huella_mensual` (`id_usuario`, `id_categoria`, `anio_mes`, `kg_co2`, `num_registros`)
+SELECT h.`id_usuario`, a.`id_categoria`, YEAR(h.`fecha`) * 100 + MONTH(h.`fecha`),
+       COALESCE(SUM(h.`impacto_kg`), 0), COUNT(*)
+FROM `huella` h
+JOIN `actividad` a ON a.`id_actividad` = h.`id_actividad`
+WHERE h.`id_usuario` IS NOT NULL AND a.`id_categoria` IS NOT NULL
+GROUP BY h.`id_usuario`, a.`id_categoria`, YEAR(h.`fecha`) * 100 + MONTH(h.`fecha`);
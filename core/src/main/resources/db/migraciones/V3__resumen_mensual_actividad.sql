@@ -0,0 +1,21 @@
+-- Resumen mensual por usuario y actividad. El panel de Análisis lee de aquí el
+-- reparto por categoría, la evolución mensual y el ranking de actividades, en
+-- lugar de agrupar todo el historial del usuario en cada apertura.
+
+CREATE TABLE `huella_mensual_actividad` (
+  `id_usuario` int(11) NOT NULL,
+  `id_actividad` int(11) NOT NULL,
+  `anio_mes` int(11) NOT NULL,
+  `kg_co2` double NOT NULL,
+  `num_registros` bigint NOT NULL,
+  PRIMARY KEY (`id_usuario`,`id_actividad`,`anio_mes`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- Resumen de los registros existentes, igual que --reconstruir-resumen
+INSERT INTO `huella_mensual_actividad` (`id_usuario`, `id_actividad`, `anio_mes`, `kg_co2`, `num_registros`)
+SELECT h.`id_usuario`, h.`id_actividad`, YEAR(h.`fecha`) * 100 + MONTH(h.`fecha`),
+       COALESCE(SUM(h.`impacto_kg`), 0), COUNT(*)
+FROM `huella` h
+JOIN `actividad` a ON a.`id_actividad` = h.`id_actividad`
+WHERE h.`id_usuario` IS NOT NULL
+GROUP BY h.`id_usuario`, h.`id_actividad`, YEAR(h.`fecha`) * 100 + MONTH(h.`fecha`);
@@ -0,0 +1,78 @@
+package api;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Pruebas del conversor JSON de la API: lo que escribe {@link Json#escribir} tiene
+ * que leerse igual con {@link Json#leerObjeto}, y los cuerpos mal formados se
+ * rechazan con {@link IllegalArgumentException}, que la API responde con un 400.
+ */
+class JsonTest {
+
+    private record Fila(Integer id, LocalDate fecha, String actividad, Float valor, Double impactoKg) {}
+
+    @Test
+    void unObjetoSeLeeIgualQueSeEscribio() {
+        Map<String, Object> original = new LinkedHashMap<>();
+        original.put("texto", "Ducha \"rápida\"\ncon \\ y\ttabulador\u0001");
+        original.put("entero", 42);
+        original.put("decimal", 12.5);
+        original.put("negativo", -3.0e-4);
+        original.put("activo", true);
+        original.put("nada", null);
+        original.put("lista", List.of(1, "dos", false));
+        original.put("anidado", Map.of("clave", "valor"));
+
+        Map<String, Object> leido = Json.leerObjeto(Json.escribir(original));
+
+        // Los números vuelven como Double y los campos conservan su orden
+        assertEquals(List.copyOf(original.keySet()), List.copyOf(leido.keySet()));
+        assertEquals(original.get("texto"), leido.get("texto"));
+        assertEquals(42.0, leido.get("entero"));
+        assertEquals(12.5, leido.get("decimal"));
+        assertEquals(-3.0e-4, leido.get("negativo"));
+        assertEquals(true, leido.get("activo"));
+        assertNull(leido.get("nada"));
+        assertEquals(List.of(1.0, "dos", false), leido.get("lista"));
+        assertEquals(Map.of("clave", "valor"), leido.get("anidado"));
+    }
+
+    @Test
+    void losRecordsSeEscribenPorSusComponentes() {
+        Fila fila = new Fila(7, LocalDate.of(2025, 1, 20), "Conducir coche", 100.1f, null);
+
+        assertEquals("{\"id\":7,\"fecha\":\"2025-01-20\",\"actividad\":\"Conducir coche\","
+                + "\"valor\":100.1,\"impactoKg\":null}", Json.escribir(fila));
+    }
+
+    @Test
+    void losNumerosNoFinitosSeEscribenComoNull() {
+        assertEquals("[null,null,null]", Json.escribir(List.of(Double.NaN, Double.POSITIVE_INFINITY, Float.NaN)));
+    }
+
+    @Test
+    void losEscapesUnicodeSeLeen() {
+        assertEquals("Energía", Json.leerObjeto("{\"n\": \"Energ\\u00eda\"}").get("n"));
+        assertEquals(Map.of(), Json.leerObjeto("  { }  "));
+    }
+
+    @Test
+    void unCuerpoMalFormadoSeRechaza() {
+        assertThrows(IllegalArgumentException.class, () -> Json.leerObjeto("[1, 2]"));
+        assertThrows(IllegalArgumentException.class, () -> Json.leerObjeto("{\"a\": 1"));
+        assertThrows(IllegalArgumentException.class, () -> Json.leerObjeto("{\"a\": 1} sobra"));
+        assertThrows(IllegalArgumentException.class, () -> Json.leerObjeto("{a: 1}"));
+        assertThrows(IllegalArgumentException.class, () -> Json.leerObjeto("{\"a\": \"sin cerrar}"));
+        assertThrows(IllegalArgumentException.class, () -> Json.leerObjeto("{\"a\": verdadero}"));
+        assertThrows(IllegalArgumentException.class, () -> Json.leerObjeto(""));
+    }
+}
@@ -0,0 +1,69 @@
+package services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Pruebas de la caché de consultas por usuario. Las cargas simulan un DAO: cuentan
+ * cuántas veces se consulta la base de datos y devuelven {@code null} cuando la
+ * consulta falla, igual que los DAO reales.
+ */
+class CachePorUsuarioTest {
+
+    private static final int USUARIO = 1;
+    private static final int OTRO_USUARIO = 2;
+
+    private final CachePorUsuario cache = new CachePorUsuario("prueba", 100, 600);
+    private final AtomicInteger consultas = new AtomicInteger();
+
+    private Long contar(Long resultado) {
+        consultas.incrementAndGet();
+        return resultado;
+    }
+
+    @Test
+    void unaCargaFallidaNoSeGuarda() {
+        assertNull(cache.obtener(USUARIO, "conteo", null, () -> contar(null)));
+
+        // La siguiente lectura vuelve a la base de datos en lugar de servir el fallo
+        assertEquals(42L, cache.obtener(USUARIO, "conteo", null, () -> contar(42L)));
+        assertEquals(2, consultas.get());
+
+        // Y el resultado correcto sí queda guardado
+        assertEquals(42L, cache.obtener(USUARIO, "conteo", null, () -> contar(0L)));
+        assertEquals(2, consultas.get());
+        assertEquals(1, cache.getEstadisticas().entradas());
+    }
+
+    @Test
+    void unaEscrituraInvalidaLasEntradasDelUsuario() {
+        cache.obtener(USUARIO, "conteo", null, () -> contar(10L));
+        cache.obtener(OTRO_USUARIO, "conteo", null, () -> contar(20L));
+        assertEquals(2, consultas.get());
+
+        cache.invalidar(USUARIO);
+
+        assertEquals(11L, cache.obtener(USUARIO, "conteo", null, () -> contar(11L)));
+        assertEquals(3, consultas.get());
+        // Las entradas de los demás usuarios siguen en la caché
+        assertEquals(20L, cache.obtener(OTRO_USUARIO, "conteo", null, () -> contar(99L)));
+        assertEquals(3, consultas.get());
+    }
+
+    @Test
+    void unaCargaIniciadaAntesDeUnaEscrituraNoSeGuarda() {
+        // La escritura llega mientras la consulta está en curso: su resultado ya es antiguo
+        Long antiguo = cache.obtener(USUARIO, "conteo", null, () -> {
+            cache.invalidar(USUARIO);
+            return contar(10L);
+        });
+        assertEquals(10L, antiguo);
+
+        assertEquals(11L, cache.obtener(USUARIO, "conteo", null, () -> contar(11L)));
+        assertEquals(2, consultas.get());
+    }
+}
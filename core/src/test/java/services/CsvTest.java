@@ -0,0 +1,97 @@
+package services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de ida y vuelta del formato CSV: lo que escribe la exportación con
+ * {@link Csv#escribirCampo} tiene que volver intacto al leerlo como la importación,
+ * que junta las líneas mientras {@link Csv#comillasAbiertas} y luego separa los campos.
+ */
+class CsvTest {
+
+    /**
+     * Escribe un registro campo a campo, separado por comas, como la exportación.
+     */
+    private static String escribir(String... campos) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < campos.length; i++) {
+            if (i > 0) sb.append(',');
+            Csv.escribirCampo(sb, campos[i]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Lee los registros de un texto línea a línea, recomponiendo los que siguen en
+     * la línea siguiente, como la importación.
+     */
+    private static List<List<String>> leer(String texto) {
+        List<List<String>> registros = new ArrayList<>();
+        String[] lineas = texto.split("\n", -1);
+        for (int i = 0; i < lineas.length; i++) {
+            StringBuilder registro = new StringBuilder(lineas[i]);
+            while (Csv.comillasAbiertas(registro) && i + 1 < lineas.length) {
+                registro.append('\n').append(lineas[++i]);
+            }
+            registros.add(Csv.separar(registro.toString()));
+        }
+        return registros;
+    }
+
+    @Test
+    void losCamposSencillosNoLlevanComillas() {
+        assertEquals("2025-01-20,Conducir coche,100.0", escribir("2025-01-20", "Conducir coche", "100.0"));
+        assertEquals(List.of("2025-01-20", "Conducir coche", "100.0"),
+                Csv.separar("2025-01-20,Conducir coche,100.0"));
+    }
+
+    @Test
+    void lasComillasSeDuplicanYSeRecuperan() {
+        String registro = escribir("Ducha \"rápida\"", "kg");
+        assertEquals("\"Ducha \"\"rápida\"\"\",kg", registro);
+        assertFalse(Csv.comillasAbiertas(registro));
+        assertEquals(List.of("Ducha \"rápida\"", "kg"), Csv.separar(registro));
+    }
+
+    @Test
+    void lasComasDentroDeUnCampoNoLoParten() {
+        String registro = escribir("Alimentación, bebidas", "12,50", "kg");
+        assertEquals(List.of("Alimentación, bebidas", "12,50", "kg"), Csv.separar(registro));
+    }
+
+    @Test
+    void unCampoConSaltosDeLineaSeRecomponeEnUnSoloRegistro() {
+        String primero = escribir("2025-02-05", "Comer carne\nde res", "2.0");
+        String segundo = escribir("2025-02-10", "Conducir\r\n\"coche\", ida\ny vuelta", "50.0");
+        assertTrue(Csv.comillasAbiertas("2025-02-05,\"Comer carne"));
+
+        List<List<String>> registros = leer(primero + "\n" + segundo);
+
+        assertEquals(List.of(
+                List.of("2025-02-05", "Comer carne\nde res", "2.0"),
+                List.of("2025-02-10", "Conducir\r\n\"coche\", ida\ny vuelta", "50.0")), registros);
+    }
+
+    @Test
+    void losCamposVaciosSeConservan() {
+        assertEquals(",,kg", escribir(null, "", "kg"));
+        assertEquals(List.of("", "", "kg"), Csv.separar(",,kg"));
+        assertEquals(List.of(""), Csv.separar(""));
+        assertEquals(List.of("a", ""), Csv.separar("a,"));
+    }
+
+    @Test
+    void textoTrasLasComillasDeCierreEsUnError() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> Csv.separar("2025-01-20,\"Conducir\" coche,100.0"));
+        assertTrue(e.getMessage().contains("columna 2"));
+    }
+}
@@ -0,0 +1,72 @@
+import connection.Connection;
+import controller.Navegador;
+import javafx.application.Application;
+import javafx.stage.Stage;
+import services.Diagnostico;
+import services.EscrituraDiferida;
+import utils.Arranque;
+
+/**
+ * Clase principal de lanzamiento de la aplicación EcoTrack.
+ * Extiende de {@link Application} para inicializar el entorno gráfico de JavaFX,
+ * cargar la vista inicial de acceso (Login) y configurar las propiedades del
+ * escenario principal, como el estilo global y el dimensionamiento de la ventana.
+ * En cuanto la ventana está visible arranca Hibernate en segundo plano, de modo
+ * que el primer login no tenga que esperar a la construcción de la SessionFactory.
+ */
+public class App extends Application {
+
+    /**
+     * Instante en que se pidió arrancar JavaFX, para medir su inicialización.
+     */
+    private static long lanzadaEn;
+
+    /**
+     * Punto de entrada principal para la interfaz de usuario.
+     * Delega en {@link Navegador} la creación de la escena con la vista de login y
+     * la hoja de estilos CSS, define el estado visual del escenario (Stage) antes
+     * de mostrarlo al usuario y, ya visible, lanza el arranque de la base de datos.
+     * * @param stage El escenario principal proporcionado por la plataforma JavaFX.
+     */
+    @Override
+    public void start(Stage stage) {
+        Arranque.registrar("javafx", System.nanoTime() - lanzadaEn);
+        try {
+            try (Arranque.Tramo t = Arranque.fase("fxml login")) {
+                Navegador.getInstance().iniciar(stage, "/view/login.fxml");
+            }
+
+            stage.getIcons().add(new javafx.scene.image.Image(getClass().getResourceAsStream("/ecotrack.png")));
+
+            stage.setTitle("EcoTrack - Huella de Carbono");
+
+            stage.setMaximized(true);
+
+            // stage.setFullScreen(true);
+
+            stage.show();
+            Connection.iniciarEnSegundoPlano();
+
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Se invoca al cerrar la ventana principal.
+     * Escribe las huellas que queden en la cola de escritura diferida, deja el
+     * último volcado de métricas y libera la factoría de sesiones y el pool de
+     * conexiones de la base de datos.
+     */
+    @Override
+    public void stop() {
+        EscrituraDiferida.detener();
+        Diagnostico.detenerVolcado();
+        Connection.shutdown();
+    }
+
+    public static void main(String[] args) {
+        lanzadaEn = System.nanoTime();
+        launch(args);
+    }
+}
\ No newline at end of file
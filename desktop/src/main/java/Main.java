@@ -0,0 +1,15 @@
+/**
+ * Lanza la aplicacion de escritorio.
+ * Acepta las mismas opciones que {@link MainSinInterfaz}; si alguna pide una
+ * tarea sin interfaz ({@code --server}, {@code --importar-csv}, ...) se ejecuta
+ * esa tarea y no se abre la ventana. Las opciones globales ({@code --embebido},
+ * {@code --jfr}) se aplican también a la interfaz.
+ */
+public class Main {
+    public static void main(String[] args) {
+        if (MainSinInterfaz.ejecutar(args)) {
+            return;
+        }
+        App.main(args);
+    }
+}
@@ -0,0 +1,306 @@
+package controller;
+
+import javafx.concurrent.Task;
+import javafx.event.ActionEvent;
+import javafx.fxml.FXML;
+import javafx.scene.chart.*;
+import javafx.scene.control.Alert;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.layout.VBox;
+import model.DashboardSnapshot;
+import model.ResultadoImportacion;
+import services.HuellaService;
+import services.ExportadorHuellas;
+import services.HabitoService;
+import services.ImportadorHuellas;
+import utils.EventoGrafico;
+import utils.Sesion;
+import java.io.File;
+import javafx.stage.FileChooser;
+
+/**
+ * Este es el cerebro de la pantalla de Análisis.
+ * Su trabajo es coger todos esos datos "feos" de la base de datos y convertirlos en
+ * gráficos y numeritos que el usuario pueda entender fácilmente para ver cuánto contamina.
+ */
+public class AnalisisViewController implements Refrescable {
+
+    @FXML
+    private LineChart<String, Number> chartEvolucion;
+    @FXML
+    private PieChart chartCategorias;
+    @FXML
+    private Label lblTotal, lblTendencia, lblPromedio;
+    @FXML
+    private VBox vboxTopActividades;
+    @FXML
+    private ScrollPane scrollPrincipal;
+
+    private final HuellaService huellaService = new HuellaService();
+    private final HabitoService habitoService = new HabitoService();
+    private final CargadorDatos cargador = new CargadorDatos("Análisis");
+
+    /**
+     * Este método se ejecuta cada vez que se muestra la pantalla.
+     * Primero mira si hay alguien logueado (por seguridad) y luego pide al servicio,
+     * en segundo plano, un único resumen agregado con el que se rellenan todas las
+     * tarjetas y gráficos en cuanto llega.
+     */
+    @Override
+    public void refrescar() {
+        cargador.reiniciar();
+        if (Sesion.getInstancia().getUsuario() == null) return;
+        cargarDashboard();
+    }
+
+    /**
+     * Pide el resumen del usuario en segundo plano y repinta con él toda la pantalla.
+     */
+    private void cargarDashboard() {
+        int userId = Sesion.getInstancia().getUsuario().getId();
+        cargador.cargar("dashboard", () -> huellaService.obtenerDashboard(userId, HuellaService.TOP_ACTIVIDADES_DASHBOARD), resumen -> {
+            cargarDatosResumen(resumen);
+
+            EventoGrafico evento = EventoGrafico.iniciar("categorias", userId);
+            cargarGraficoCategorias(resumen);
+            evento.terminar(resumen.porCategoria().size());
+
+            evento = EventoGrafico.iniciar("evolucion", userId);
+            cargarGraficoEvolucion(resumen);
+            evento.terminar(resumen.porMes().size());
+
+            evento = EventoGrafico.iniciar("top-actividades", userId);
+            cargarTopActividades(resumen);
+            evento.terminar(resumen.topActividades().size());
+        });
+    }
+
+    /**
+     * Rellena las tarjetas de arriba con el impacto total de CO2.
+     * El total ya viene multiplicado por el factor de emisión desde la base de datos,
+     * así que el dato es real y científico.
+     */
+    private void cargarDatosResumen(DashboardSnapshot resumen) {
+        lblTotal.setText(String.format("%.1f kg CO₂", resumen.total()));
+
+        // La media de cuánto contamina cada acción que hace el usuario
+        lblPromedio.setText(String.format("%.1f kg", resumen.promedio()));
+
+        lblTendencia.setText("-2.5%");
+    }
+
+    /**
+     * Crea el "gráfico de quesito".
+     * Usa el impacto real ya sumado por categoría (Transporte, Energía...) para que
+     * veamos de un vistazo qué es lo que más nos hace contaminar.
+     */
+    private void cargarGraficoCategorias(DashboardSnapshot resumen) {
+        chartCategorias.getData().clear();
+        resumen.porCategoria().forEach((nombre, suma) -> {
+            chartCategorias.getData().add(new PieChart.Data(nombre, suma));
+        });
+    }
+
+    /**
+     * Dibuja la línea de tiempo para ver si el usuario está mejorando o no.
+     * Los datos llegan ya agrupados por mes y año y en orden cronológico,
+     * así que la línea tiene sentido sin más trabajo.
+     */
+    private void cargarGraficoEvolucion(DashboardSnapshot resumen) {
+        if (resumen.porMes().isEmpty()) return;
+
+        chartEvolucion.getData().clear();
+
+        // Limpiamos el eje X para que JavaFX no se queje al repintar
+        if (chartEvolucion.getXAxis() instanceof CategoryAxis xAxis) {
+            xAxis.setAnimated(false);
+            xAxis.getCategories().clear();
+        }
+
+        XYChart.Series<String, Number> series = new XYChart.Series<>();
+        series.setName("kg CO₂ por mes");
+
+        // Les ponemos a los meses un nombre bonito (ej: ene. 2026)
+        resumen.porMes().forEach((mes, impacto) -> {
+            String etiqueta = mes.getMonth()
+                    .getDisplayName(java.time.format.TextStyle.SHORT, new java.util.Locale("es", "ES"))
+                    + " " + mes.getYear();
+
+            series.getData().add(new XYChart.Data<>(etiqueta, impacto));
+        });
+
+        chartEvolucion.getData().add(series);
+    }
+
+    /**
+     * Muestra las 3 actividades que más han "castigado" al planeta.
+     * El ranking llega ya ordenado por impacto total de CO2 y se pinta en una
+     * lista con un emoji de fuego para que el usuario sepa dónde tiene que recortar.
+     */
+    private void cargarTopActividades(DashboardSnapshot resumen) {
+        vboxTopActividades.getChildren().clear();
+
+        for (DashboardSnapshot.ImpactoActividad act : resumen.topActividades()) {
+            Label lbl = new Label("🔥 " + act.nombre() + ": " + String.format("%.1f", act.impacto()) + " kg CO₂");
+            lbl.setStyle("-fx-font-size: 14px; -fx-padding: 5;");
+            vboxTopActividades.getChildren().add(lbl);
+        }
+    }
+
+    /**
+     * Exporta todo tu historial de contaminación a un archivo CSV.
+     * Le hemos metido un truco técnico (BOM UTF-8) para que al abrirlo en Excel
+     * los acentos y las eñes se vean perfectos y no como símbolos raros.
+     * La exportación va en segundo plano y en flujo (las filas se escriben según
+     * llegan de la base de datos), con una barra de progreso y un botón para
+     * cancelarla.
+     */
+    @FXML
+    private void exportarCSV() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Guardar Informe de Huella");
+        fileChooser.setInitialFileName("mi_huella_carbono.csv");
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Archivos CSV", "*.csv"));
+
+        File file = fileChooser.showSaveDialog(null);
+        if (file == null) return;
+
+        int userId = Sesion.getInstancia().getUsuario().getId();
+        Task<Long> tarea = new Task<>() {
+            @Override
+            protected Long call() throws Exception {
+                return new ExportadorHuellas().exportar(userId, file.toPath(),
+                        (escritas, total) -> {
+                            updateProgress(escritas, total);
+                            updateMessage(escritas + " de " + total + " registros");
+                        },
+                        this::isCancelled);
+            }
+        };
+
+        // Diálogo de progreso con opción de cancelar
+        ProgressBar barra = new ProgressBar();
+        barra.setPrefWidth(300);
+        barra.progressProperty().bind(tarea.progressProperty());
+        Label estado = new Label();
+        estado.textProperty().bind(tarea.messageProperty());
+        Alert progreso = new Alert(Alert.AlertType.NONE, null, ButtonType.CANCEL);
+        progreso.setTitle("Exportando");
+        progreso.setHeaderText("Exportando tu historial…");
+        progreso.getDialogPane().setContent(new VBox(10, barra, estado));
+        progreso.setOnCloseRequest(e -> {
+            if (tarea.isRunning()) tarea.cancel();
+        });
+
+        tarea.setOnSucceeded(e -> {
+            progreso.close();
+            Alert alert = new Alert(Alert.AlertType.INFORMATION);
+            alert.setContentText("¡Datos exportados con éxito! 🚀 (" + tarea.getValue() + " registros)");
+            alert.show();
+        });
+        tarea.setOnFailed(e -> {
+            progreso.close();
+            tarea.getException().printStackTrace();
+            Alert alert = new Alert(Alert.AlertType.ERROR);
+            alert.setContentText("No se pudo exportar el historial: " + tarea.getException().getMessage());
+            alert.show();
+        });
+        tarea.setOnCancelled(e -> progreso.close());
+
+        progreso.show();
+        Thread.ofVirtual().name("exportar-csv").start(tarea);
+    }
+
+    /**
+     * Trae huellas desde un CSV con el mismo formato que genera la exportación.
+     * La importación corre en segundo plano, guardando por bloques, y al acabar
+     * se muestra cuántas filas entraron, cuántas se rechazaron (y por qué) y la
+     * velocidad alcanzada; después se repinta el análisis con los datos nuevos.
+     * Como la exportación, va en su propia tarea y no en el cargador de la
+     * pantalla, con un diálogo modal que retiene al usuario hasta que termina: los
+     * bloques ya guardados no se deshacen, así que no se ofrece cancelarla.
+     */
+    @FXML
+    private void importarCSV() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Importar Huellas desde CSV");
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Archivos CSV", "*.csv"));
+
+        File file = fileChooser.showOpenDialog(null);
+        if (file == null) return;
+
+        int userId = Sesion.getInstancia().getUsuario().getId();
+        Task<ResultadoImportacion> tarea = new Task<>() {
+            @Override
+            protected ResultadoImportacion call() throws Exception {
+                return new ImportadorHuellas().importar(file.toPath(), userId);
+            }
+        };
+
+        // Diálogo de espera; el botón solo existe para que el diálogo pueda cerrarse al acabar
+        ProgressBar barra = new ProgressBar();
+        barra.setPrefWidth(300);
+        Alert progreso = new Alert(Alert.AlertType.NONE, null, ButtonType.CANCEL);
+        progreso.setTitle("Importando");
+        progreso.setHeaderText("Importando " + file.getName() + "…");
+        progreso.getDialogPane().setContent(barra);
+        progreso.getDialogPane().lookupButton(ButtonType.CANCEL).setDisable(true);
+        progreso.setOnCloseRequest(e -> {
+            if (tarea.isRunning()) e.consume();
+        });
+
+        tarea.setOnSucceeded(e -> {
+            progreso.close();
+            mostrarResultadoImportacion(tarea.getValue());
+            cargarDashboard();
+        });
+        tarea.setOnFailed(e -> {
+            progreso.close();
+            tarea.getException().printStackTrace();
+            Alert alert = new Alert(Alert.AlertType.ERROR);
+            alert.setContentText("No se pudo importar el archivo: " + tarea.getException().getMessage());
+            alert.show();
+        });
+
+        progreso.show();
+        Thread.ofVirtual().name("importar-csv").start(tarea);
+    }
+
+    private void mostrarResultadoImportacion(ResultadoImportacion resultado) {
+        Alert alert = new Alert(resultado.rechazadas() == 0 ? Alert.AlertType.INFORMATION : Alert.AlertType.WARNING);
+        alert.setHeaderText(String.format("%d registros importados, %d rechazados (%.0f filas/s)",
+                resultado.importadas(), resultado.rechazadas(), resultado.filasPorSegundo()));
+        if (!resultado.motivos().isEmpty()) {
+            alert.setContentText(String.join("\n", resultado.motivos()));
+        }
+        alert.show();
+    }
+
+    // Métodos para moverse entre las pantallas del menú lateral
+    @FXML private void irAInicio() { cambiarEscena("/view/inicio.fxml"); }
+    @FXML private void irAMisHuellas() { cambiarEscena("/view/mis_huellas.fxml"); }
+    @FXML private void irAHabitos() { cambiarEscena("/view/habitos.fxml"); }
+    @FXML private void irARecomendaciones() { cambiarEscena("/view/recomendaciones.fxml"); }
+    @FXML private void irADiagnostico() { cambiarEscena("/view/diagnostico.fxml"); }
+
+    /**
+     * Cierra la sesión borrando al usuario de la memoria y te manda de vuelta al Login.
+     */
+    @FXML
+    private void handleLogout() {
+        Sesion.getInstancia().setUsuario(null);
+        cambiarEscena("/view/login.fxml");
+    }
+
+    /**
+     * Cambia la pantalla actual por otra, cancelando antes las cargas pendientes.
+     * La nueva pantalla se reutiliza desde la caché del {@link Navegador} si ya se visitó.
+     */
+    private void cambiarEscena(String fxml) {
+        cargador.cancelar();
+        Navegador.getInstance().mostrar(fxml);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,171 @@
+package controller;
+
+import javafx.application.Platform;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Capa común de carga de datos en segundo plano para las pantallas.
+ * Cada controlador crea su propio cargador y le entrega las consultas que
+ * necesita; estas se ejecutan en hilos virtuales, fuera del hilo de JavaFX, y el
+ * resultado se entrega en el hilo de la interfaz mediante {@link Platform#runLater}.
+ * Al abandonar la pantalla se cancela el cargador y los resultados que lleguen
+ * después se descartan; si la pantalla se vuelve a mostrar desde la caché de
+ * vistas, {@link #reiniciar()} lo deja listo para una nueva carga. También mide
+ * cuánto tarda cada pantalla en tener todos sus datos iniciales.
+ */
+public class CargadorDatos {
+
+    /**
+     * Ejecutor compartido: un hilo virtual por consulta. El límite real de
+     * concurrencia contra la base de datos lo pone el pool de conexiones.
+     */
+    private static final ExecutorService HILOS = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("carga-datos-", 0).factory());
+
+    /**
+     * Consultas que tardan más de este tiempo se avisan por la salida de error.
+     */
+    private static final long UMBRAL_LENTA_MS = 500;
+
+    private final String pantalla;
+    private long creadoEn = System.nanoTime();
+
+    /**
+     * Cargas lanzadas que aún no han terminado. Solo se accede desde el hilo de JavaFX.
+     */
+    private final List<Future<?>> enCurso = new ArrayList<>();
+
+    private int cargasIniciales = 0;
+    private boolean pantallaLista = false;
+    private volatile boolean cancelado = false;
+
+    /**
+     * Se incrementa en cada reinicio, para descartar los resultados de consultas
+     * lanzadas en una visita anterior a la pantalla.
+     */
+    private volatile int generacion = 0;
+
+    /**
+     * Crea el cargador de una pantalla.
+     * @param pantalla Nombre de la pantalla, usado en las mediciones de latencia.
+     */
+    public CargadorDatos(String pantalla) {
+        this.pantalla = pantalla;
+    }
+
+    /**
+     * Lanza una consulta en segundo plano y entrega su resultado en el hilo de JavaFX.
+     * Si la consulta falla (lanza una excepción o devuelve {@code null}, que es como
+     * los servicios indican un error), el error se registra y {@code alCargar} no se invoca.
+     * * @param nombre Descripción corta de la consulta, para las mediciones.
+     * @param consulta Código que accede a los servicios; no debe tocar la interfaz.
+     * @param alCargar Acción que recibe el resultado en el hilo de JavaFX.
+     * @param <T> Tipo del resultado.
+     * @return La carga en curso.
+     */
+    public <T> Future<?> cargar(String nombre, Supplier<T> consulta, Consumer<T> alCargar) {
+        return cargar(nombre, consulta, alCargar, null);
+    }
+
+    /**
+     * Como {@link #cargar(String, Supplier, Consumer)}, pero avisa también de los fallos.
+     * @param nombre Descripción corta de la consulta, para las mediciones.
+     * @param consulta Código que accede a los servicios; no debe tocar la interfaz.
+     * @param alCargar Acción que recibe el resultado en el hilo de JavaFX.
+     * @param alFallar Acción que se ejecuta en el hilo de JavaFX si la consulta falla,
+     *                 salvo que la pantalla se haya abandonado; puede ser {@code null}.
+     * @param <T> Tipo del resultado.
+     * @return La carga en curso.
+     */
+    public <T> Future<?> cargar(String nombre, Supplier<T> consulta, Consumer<T> alCargar, Runnable alFallar) {
+        if (cancelado) return null;
+        boolean inicial = !pantallaLista;
+        if (inicial) cargasIniciales++;
+        int visita = generacion;
+
+        Future<?>[] tarea = new Future<?>[1];
+        tarea[0] = HILOS.submit(() -> {
+            if (cancelado || visita != generacion) return;
+            long inicio = System.nanoTime();
+            T resultado;
+            try {
+                resultado = consulta.get();
+                if (resultado == null) throw new IllegalStateException("la consulta no devolvió datos");
+            } catch (Exception e) {
+                System.err.println("Error cargando " + pantalla + "/" + nombre + ": " + e.getMessage());
+                e.printStackTrace();
+                Platform.runLater(() -> {
+                    if (visita != generacion) return;
+                    terminada(tarea[0], inicial);
+                    if (!cancelado && alFallar != null) alFallar.run();
+                });
+                return;
+            }
+            long ms = (System.nanoTime() - inicio) / 1_000_000;
+            if (ms > UMBRAL_LENTA_MS) {
+                System.err.println("[Carga] Consulta lenta " + pantalla + "/" + nombre + ": " + ms + " ms");
+            }
+            Platform.runLater(() -> {
+                if (cancelado || visita != generacion) return;
+                alCargar.accept(resultado);
+                terminada(tarea[0], inicial);
+            });
+        });
+        enCurso.add(tarea[0]);
+        return tarea[0];
+    }
+
+    /**
+     * Cancela las cargas pendientes de la pantalla. Debe llamarse antes de
+     * navegar a otra escena; las consultas que ya estén hablando con la base de
+     * datos terminan, pero su resultado se descarta.
+     */
+    public void cancelar() {
+        cancelado = true;
+        enCurso.forEach(f -> f.cancel(false));
+        enCurso.clear();
+    }
+
+    /**
+     * Prepara el cargador para una nueva visita a la pantalla: cancela lo que
+     * quedara en curso, descarta sus resultados y vuelve a medir el tiempo hasta
+     * que la pantalla tenga todos sus datos.
+     */
+    public void reiniciar() {
+        enCurso.forEach(f -> f.cancel(false));
+        enCurso.clear();
+        generacion++;
+        creadoEn = System.nanoTime();
+        cargasIniciales = 0;
+        pantallaLista = false;
+        cancelado = false;
+    }
+
+    /**
+     * Indica si la pantalla ya se ha abandonado.
+     */
+    public boolean isCancelado() {
+        return cancelado;
+    }
+
+    /**
+     * Lleva la cuenta de las cargas iniciales y, cuando termina la última,
+     * informa del tiempo que ha tardado la pantalla en completarse.
+     */
+    private void terminada(Future<?> tarea, boolean inicial) {
+        enCurso.remove(tarea);
+        if (!inicial || cancelado || pantallaLista) return;
+        if (--cargasIniciales == 0) {
+            pantallaLista = true;
+            long ms = (System.nanoTime() - creadoEn) / 1_000_000;
+            System.out.println("[Carga] " + pantalla + " lista en " + ms + " ms");
+        }
+    }
+}
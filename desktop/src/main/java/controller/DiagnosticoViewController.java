@@ -0,0 +1,154 @@
+package controller;
+
+import connection.Connection;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.collections.FXCollections;
+import javafx.fxml.FXML;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import services.Diagnostico;
+import services.EscrituraDiferida;
+import services.HabitoService;
+import services.HuellaService;
+import utils.GrabacionContinua;
+import utils.Metricas;
+import utils.Sesion;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Controlador de la pantalla de Diagnóstico.
+ * Muestra los tiempos acumulados de cada método de los DAO y servicios
+ * (llamadas, errores y percentiles de latencia) junto con las estadísticas de
+ * Hibernate, el estado del pool de conexiones y el de las cachés por usuario.
+ * Los datos se leen al abrir la pantalla, al volver a ella y al pulsar Actualizar.
+ */
+public class DiagnosticoViewController implements Refrescable {
+
+    @FXML private TableView<Metricas.Resumen> tablaMetricas;
+    @FXML private TableColumn<Metricas.Resumen, String> colOperacion;
+    @FXML private TableColumn<Metricas.Resumen, Long> colLlamadas;
+    @FXML private TableColumn<Metricas.Resumen, Long> colErrores;
+    @FXML private TableColumn<Metricas.Resumen, String> colMedia, colP50, colP95, colP99, colMax;
+
+    @FXML private Label lblHibernate;
+    @FXML private Label lblConsultaLenta;
+    @FXML private Label lblPool;
+    @FXML private Label lblCaches;
+
+    /**
+     * Configura las columnas de la tabla; los datos se leen en {@link #refrescar()}.
+     */
+    @FXML
+    public void initialize() {
+        colOperacion.setCellValueFactory(c -> new SimpleStringProperty(c.getValue().nombre()));
+        colLlamadas.setCellValueFactory(c -> new SimpleObjectProperty<>(c.getValue().llamadas()));
+        colErrores.setCellValueFactory(c -> new SimpleObjectProperty<>(c.getValue().errores()));
+        columnaMs(colMedia, Metricas.Resumen::mediaMs);
+        columnaMs(colP50, Metricas.Resumen::p50Ms);
+        columnaMs(colP95, Metricas.Resumen::p95Ms);
+        columnaMs(colP99, Metricas.Resumen::p99Ms);
+        columnaMs(colMax, Metricas.Resumen::maxMs);
+    }
+
+    /**
+     * Muestra una latencia en milisegundos con dos decimales.
+     */
+    private static void columnaMs(TableColumn<Metricas.Resumen, String> columna,
+                                  ToDoubleFunction<Metricas.Resumen> valor) {
+        columna.setCellValueFactory(c -> new SimpleStringProperty(
+                String.format("%.2f", valor.applyAsDouble(c.getValue()))));
+    }
+
+    @Override
+    public void refrescar() {
+        actualizar();
+    }
+
+    /**
+     * Vuelve a leer las métricas y refresca la tabla y los indicadores.
+     */
+    @FXML
+    private void actualizar() {
+        tablaMetricas.setItems(FXCollections.observableArrayList(Metricas.instantanea()));
+
+        Diagnostico.EstadoHibernate hibernate = Diagnostico.estadoHibernate();
+        if (hibernate == null) {
+            lblHibernate.setText("Hibernate: sin estadísticas");
+            lblConsultaLenta.setText("");
+        } else {
+            lblHibernate.setText(hibernate.toString());
+            lblConsultaLenta.setText(hibernate.consultaMasLenta() != null
+                    ? "Consulta más lenta (" + hibernate.consultaMaxMs() + " ms): "
+                        + hibernate.consultaMasLenta().replaceAll("\\s+", " ")
+                    : "");
+        }
+
+        lblPool.setText(Connection.isIniciada() ? Connection.getInstance().getEstadoPool().toString() : "");
+        String caches = HuellaService.estadisticasCache() + "\n" + HabitoService.estadisticasCache();
+        EscrituraDiferida.Estadisticas escritura = EscrituraDiferida.estadisticasSiActiva();
+        if (escritura != null) {
+            caches += "\n" + escritura;
+        }
+        lblCaches.setText(caches);
+    }
+
+    /**
+     * Pone a cero las métricas acumuladas y refresca la pantalla.
+     */
+    @FXML
+    private void restablecer() {
+        Diagnostico.reiniciar();
+        actualizar();
+    }
+
+    /**
+     * Guarda en un archivo lo que lleva acumulado la grabación JFR continua, sin
+     * detenerla. Útil justo después de notar un parón.
+     */
+    @FXML
+    private void guardarGrabacion() {
+        Path destino = Path.of(System.getProperty("user.home"), ".ecotrack", "ecotrack-"
+                + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".jfr");
+        Alert alerta;
+        if (GrabacionContinua.volcar(destino)) {
+            alerta = new Alert(Alert.AlertType.INFORMATION, "Grabación guardada en " + destino);
+        } else {
+            alerta = new Alert(Alert.AlertType.WARNING,
+                    "No hay grabación activa. Arranca la aplicación con --jfr para activarla.");
+        }
+        alerta.setHeaderText(null);
+        alerta.showAndWait();
+    }
+
+    // --- MÉTODOS DE NAVEGACIÓN Y GESTIÓN DE SESIÓN ---
+
+    @FXML private void irAInicio() { cambiarEscena("/view/inicio.fxml"); }
+    @FXML private void irAMisHuellas() { cambiarEscena("/view/mis_huellas.fxml"); }
+    @FXML private void irAHabitos() { cambiarEscena("/view/habitos.fxml"); }
+    @FXML private void irAAnalisis() { cambiarEscena("/view/analisis.fxml"); }
+    @FXML private void irARecomendaciones() { cambiarEscena("/view/recomendaciones.fxml"); }
+
+    /**
+     * Finaliza la sesión del usuario actual y limpia el contexto de seguridad.
+     */
+    @FXML
+    private void handleLogout() {
+        Sesion.getInstancia().setUsuario(null);
+        cambiarEscena("/view/login.fxml");
+    }
+
+    /**
+     * Ejecuta la transición entre vistas; las ya visitadas se reutilizan desde la caché del {@link Navegador}.
+     * @param fxml Destino de la navegación.
+     */
+    private void cambiarEscena(String fxml) {
+        Navegador.getInstance().mostrar(fxml);
+    }
+}
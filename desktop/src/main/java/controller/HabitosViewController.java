@@ -1,6 +1,5 @@
 package controller;
 
-import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.geometry.Pos;
@@ -8,8 +7,9 @@ import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.stage.Stage;
-import model.Habito;
+import model.HabitoFila;
 import services.ActividadService;
+import services.CatalogoEmisiones;
 import services.HabitoService;
 import utils.Sesion;
 import java.util.List;
@@ -21,7 +21,7 @@ import java.util.stream.Collectors;
  * Se encarga de mostrar los compromisos actuales del usuario, calcular el ahorro
  * estimado de CO2 basado en la frecuencia de estos y sugerir nuevas acciones.
  */
-public class HabitosViewController {
+public class HabitosViewController implements Refrescable {
 
     @FXML private FlowPane flowHabitos;
     @FXML private HBox hboxSugerencias;
@@ -29,15 +29,29 @@ public class HabitosViewController {
     @FXML private Label lblImpactoEstimado;
 
     private final HabitoService habitoService = new HabitoService();
+    private final ActividadService actividadService = new ActividadService();
+    private final CatalogoEmisiones catalogo = CatalogoEmisiones.getInstance();
+    private final CargadorDatos cargador = new CargadorDatos("Hábitos");
 
     /**
-     * Configuración inicial al cargar la vista.
-     * Recupera los hábitos existentes del usuario y genera el panel de sugerencias.
+     * Últimos hábitos recibidos, para marcar las sugerencias aunque estas lleguen después.
      */
-    @FXML
-    public void initialize() {
+    private List<HabitoFila> habitosActuales = List.of();
+
+    /**
+     * Catálogo de actividades usado por las sugerencias.
+     */
+    private List<model.Actividad> actividades = List.of();
+
+    /**
+     * Carga los hábitos del usuario cada vez que se muestra la pantalla. Las
+     * sugerencias salen del catálogo: se generan la primera vez y se conservan.
+     */
+    @Override
+    public void refrescar() {
+        cargador.reiniciar();
         cargarHabitosUsuario();
-        cargarSugerenciasManuales();
+        if (actividades.isEmpty()) cargarSugerenciasManuales();
     }
 
     /**
@@ -49,10 +63,9 @@ public class HabitosViewController {
         if (Sesion.getInstancia().getUsuario() == null) return;
         int userId = Sesion.getInstancia().getUsuario().getId();
 
-        List<Habito> habitos = habitoService.misHabitos(userId);
-
-        // Actualizamos la UI en el hilo de JavaFX para evitar problemas de sincronización
-        Platform.runLater(() -> {
+        // La consulta va en segundo plano y la UI se actualiza en el hilo de JavaFX
+        cargador.cargar("habitos", () -> habitoService.misHabitos(userId), habitos -> {
+            habitosActuales = habitos;
             if (lblTotalHabitos != null) {
                 lblTotalHabitos.setText(String.valueOf(habitos.size()));
             }
@@ -66,11 +79,11 @@ public class HabitosViewController {
                     lblVacio.setStyle("-fx-text-fill: #9ca3af; -fx-font-style: italic; -fx-padding: 30;");
                     flowHabitos.getChildren().add(lblVacio);
                 } else {
-                    for (Habito h : habitos) {
+                    for (HabitoFila h : habitos) {
                         flowHabitos.getChildren().add(crearTarjetaPro(h));
-                        // Cálculo del impacto basado en frecuencia y factor de emisión de la categoría
-                        if (h.getIdActividad() != null && h.getIdActividad().getIdCategoria() != null) {
-                            ahorroTotal += h.getFrecuencia() * h.getIdActividad().getIdCategoria().getFactorEmision();
+                        // Cálculo del impacto basado en frecuencia y factor de emisión del catálogo
+                        if (h.idActividad() != null) {
+                            ahorroTotal += h.frecuencia() * catalogo.factorEmision(h.idActividad());
                         }
                     }
                 }
@@ -90,7 +103,7 @@ public class HabitosViewController {
      * @param h El objeto hábito a renderizar.
      * @return Un nodo VBox con el diseño y eventos configurados.
      */
-    private VBox crearTarjetaPro(Habito h) {
+    private VBox crearTarjetaPro(HabitoFila h) {
         VBox card = new VBox(10);
         card.getStyleClass().add("stat-card");
         card.setPrefWidth(300);
@@ -99,7 +112,7 @@ public class HabitosViewController {
         HBox header = new HBox();
         header.setAlignment(Pos.CENTER_LEFT);
 
-        Label title = new Label(h.getIdActividad().getNombre());
+        Label title = new Label(h.actividad());
         title.setStyle("-fx-font-weight: bold; -fx-font-size: 14px;");
 
         Region spacer = new Region();
@@ -119,14 +132,19 @@ public class HabitosViewController {
 
             Optional<ButtonType> result = alert.showAndWait();
             if (result.isPresent() && result.get() == ButtonType.OK) {
-                habitoService.eliminar(h);
+                if (!habitoService.eliminar(h)) {
+                    Alert error = new Alert(Alert.AlertType.ERROR);
+                    error.setHeaderText(null);
+                    error.setContentText("No se pudo eliminar el hábito. Inténtalo de nuevo.");
+                    error.showAndWait();
+                }
                 cargarHabitosUsuario();
             }
         });
 
         header.getChildren().addAll(title, spacer, btnEdit, btnDelete);
 
-        Label info = new Label(h.getFrecuencia() + " veces por " + h.getTipo());
+        Label info = new Label(h.frecuencia() + " veces por " + h.tipo());
         info.setStyle("-fx-text-fill: #71717a;");
 
         card.getChildren().addAll(header, info);
@@ -139,15 +157,16 @@ public class HabitosViewController {
      */
     private void cargarSugerenciasManuales() {
         if (hboxSugerencias == null) return;
-        hboxSugerencias.getChildren().clear();
-
-        ActividadService service = new ActividadService();
-        List<model.Actividad> todas = service.obtenerTodas();
 
-        todas.stream().limit(4).forEach(act -> {
-            hboxSugerencias.getChildren().add(
-                    crearTarjetaSugerencia(act.getNombre(), "Impacto positivo", "🌱", "bg-green")
-            );
+        cargador.cargar("sugerencias", actividadService::obtenerTodas, todas -> {
+            actividades = todas;
+            hboxSugerencias.getChildren().clear();
+            todas.stream().limit(4).forEach(act -> {
+                hboxSugerencias.getChildren().add(
+                        crearTarjetaSugerencia(act.getNombre(), "Impacto positivo", "🌱", "bg-green")
+                );
+            });
+            actualizarBotonesSugerencias(habitosActuales);
         });
     }
 
@@ -156,9 +175,9 @@ public class HabitosViewController {
      * Deshabilita y marca como "Activo" aquellas sugerencias que el usuario ya tenga en su lista personal.
      * @param habitosActivos Lista de hábitos actuales del usuario para realizar el cruce de datos.
      */
-    private void actualizarBotonesSugerencias(List<Habito> habitosActivos) {
+    private void actualizarBotonesSugerencias(List<HabitoFila> habitosActivos) {
         List<String> nombresActivos = habitosActivos.stream()
-                .map(h -> h.getIdActividad().getNombre().toLowerCase())
+                .map(h -> h.actividad().toLowerCase())
                 .collect(Collectors.toList());
 
         for (javafx.scene.Node node : hboxSugerencias.getChildren()) {
@@ -205,9 +224,6 @@ public class HabitosViewController {
         btn.setMaxWidth(Double.MAX_VALUE);
 
         btn.setOnAction(e -> {
-            ActividadService actividadService = new ActividadService();
-            List<model.Actividad> actividades = actividadService.obtenerTodas();
-
             model.Actividad actividadSugerida = actividades.stream()
                     .filter(a -> a.getNombre().trim().equalsIgnoreCase(titulo.trim()))
                     .findFirst()
@@ -221,7 +237,7 @@ public class HabitosViewController {
     }
 
     @FXML private void abrirFormularioNuevoHabito() { ejecutarAperturaFormulario(null, null); }
-    private void abrirFormularioEditar(Habito h) { ejecutarAperturaFormulario(null, h); }
+    private void abrirFormularioEditar(HabitoFila h) { ejecutarAperturaFormulario(null, h); }
 
     /**
      * Centraliza la apertura de la ventana modal para creación o edición de hábitos.
@@ -229,7 +245,7 @@ public class HabitosViewController {
      * @param act Actividad sugerida (opcional, para nuevos hábitos).
      * @param habitoExistente Hábito a editar (opcional, para modo edición).
      */
-    private void ejecutarAperturaFormulario(model.Actividad act, Habito habitoExistente) {
+    private void ejecutarAperturaFormulario(model.Actividad act, HabitoFila habitoExistente) {
         try {
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/nuevo_habito.fxml"));
             VBox root = loader.load();
@@ -262,18 +278,14 @@ public class HabitosViewController {
     @FXML private void irAMisHuellas() { cambiarEscena("/view/mis_huellas.fxml"); }
     @FXML private void irAAnalisis() { cambiarEscena("/view/analisis.fxml"); }
     @FXML private void irARecomendaciones() { cambiarEscena("/view/recomendaciones.fxml"); }
+    @FXML private void irADiagnostico() { cambiarEscena("/view/diagnostico.fxml"); }
     @FXML private void handleLogout() {
         Sesion.getInstancia().setUsuario(null);
         cambiarEscena("/view/login.fxml");
     }
 
     private void cambiarEscena(String fxml) {
-        try {
-            Stage stage = (Stage) flowHabitos.getScene().getWindow();
-            FXMLLoader loader = new FXMLLoader(getClass().getResource(fxml));
-            Scene scene = new Scene(loader.load());
-            scene.getStylesheets().add(getClass().getResource("/style.css").toExternalForm());
-            stage.setScene(scene);
-        } catch (Exception e) { e.printStackTrace(); }
+        cargador.cancelar();
+        Navegador.getInstance().mostrar(fxml);
     }
 }
\ No newline at end of file
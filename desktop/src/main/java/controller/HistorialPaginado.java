@@ -0,0 +1,253 @@
+package controller;
+
+import javafx.collections.ObservableListBase;
+import model.CursorHuella;
+import model.FiltroHuellas;
+import model.HuellaFila;
+import model.Pagina;
+import services.HuellaService;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Lista observable que representa el historial completo de un usuario sin tenerlo
+ * entero en memoria. Conoce el número total de registros, pero solo guarda unas
+ * pocas páginas: las pide en segundo plano a medida que la tabla las necesita al
+ * desplazarse y descarta las que quedan lejos de la zona visible. Mientras una
+ * página se está cargando, sus filas se devuelven como {@code null}; si su carga
+ * falla, la página queda marcada y no se vuelve a pedir hasta {@link #reintentar()}.
+ * Puede representar también los resultados de una búsqueda: el filtro se aplica
+ * en la base de datos al pedir cada página.
+ */
+public class HistorialPaginado extends ObservableListBase<HuellaFila> {
+
+    private final CargadorDatos cargador;
+    private final HuellaService huellaService;
+    private final int idUsuario;
+    private final FiltroHuellas filtro;
+    private final int total;
+    private final int tamanoPagina;
+    private final int maxPaginas;
+    private final Runnable alFallar;
+
+    /**
+     * Páginas cargadas, en orden de uso (la menos usada primero).
+     */
+    private final LinkedHashMap<Integer, List<HuellaFila>> paginas;
+
+    /**
+     * Cursor del último registro de cada página vista, para pedir la siguiente
+     * por búsqueda de cursor. Ocupa muy poco y se conserva aunque la página se descarte.
+     */
+    private final Map<Integer, CursorHuella> finDePagina = new HashMap<>();
+
+    /**
+     * Páginas pedidas que aún no han llegado, para no pedirlas dos veces.
+     */
+    private final Set<Integer> pendientes = new HashSet<>();
+
+    /**
+     * Páginas cuya carga falló. Se muestran vacías y no se piden de nuevo al
+     * desplazarse, para no repetir la consulta fallida en cada repintado de la tabla.
+     */
+    private final Set<Integer> fallidas = new HashSet<>();
+
+    /**
+     * Peticiones de páginas encoladas o en curso, para poder anularlas.
+     */
+    private final List<Future<?>> peticiones = new ArrayList<>();
+
+    /**
+     * Se activa cuando la lista deja de mostrarse; a partir de entonces se ignoran
+     * las páginas que lleguen tarde.
+     */
+    private volatile boolean cancelada = false;
+
+    /**
+     * Crea la lista a partir del total de registros y de la primera página ya cargada.
+     * @param cargador Cargador de la pantalla, que ejecuta las peticiones de páginas.
+     * @param huellaService Servicio del que se piden las páginas.
+     * @param idUsuario Usuario dueño del historial.
+     * @param filtro Búsqueda que deben cumplir los registros mostrados.
+     * @param total Número total de registros que cumplen el filtro.
+     * @param primeraPagina Registros más recientes, ya cargados.
+     * @param tamanoPagina Número de registros por página.
+     * @param maxPaginas Número máximo de páginas que se mantienen en memoria.
+     * @param alFallar Acción que se ejecuta en el hilo de JavaFX cuando falla la carga de una página.
+     */
+    public HistorialPaginado(CargadorDatos cargador, HuellaService huellaService, int idUsuario,
+                             FiltroHuellas filtro, int total, List<HuellaFila> primeraPagina,
+                             int tamanoPagina, int maxPaginas, Runnable alFallar) {
+        this.cargador = cargador;
+        this.huellaService = huellaService;
+        this.idUsuario = idUsuario;
+        this.filtro = filtro;
+        this.total = total;
+        this.tamanoPagina = tamanoPagina;
+        this.maxPaginas = maxPaginas;
+        this.alFallar = alFallar;
+        this.paginas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<HuellaFila>> eldest) {
+                return size() > HistorialPaginado.this.maxPaginas;
+            }
+        };
+        if (!primeraPagina.isEmpty()) {
+            guardarPagina(0, primeraPagina);
+        }
+    }
+
+    /**
+     * Cuenta en segundo plano los registros que cumplen el filtro, carga la primera
+     * página y entrega la lista ya construida en el hilo de JavaFX.
+     * @param cargador Cargador de la pantalla que muestra la lista.
+     * @param huellaService Servicio del que se piden los datos.
+     * @param idUsuario Usuario dueño del historial.
+     * @param filtro Búsqueda a aplicar; {@link FiltroHuellas#NINGUNO} para el historial completo.
+     * @param tamanoPagina Número de registros por página.
+     * @param maxPaginas Número máximo de páginas que se mantienen en memoria.
+     * @param alCargar Acción que recibe la lista, ejecutada en el hilo de JavaFX.
+     * @param alFallar Acción que se ejecuta en el hilo de JavaFX si no se puede abrir
+     *                 el historial o, más tarde, si falla la carga de alguna de sus páginas.
+     * @return La tarea en curso, que puede cancelarse si la búsqueda queda obsoleta.
+     */
+    public static Future<?> abrir(CargadorDatos cargador, HuellaService huellaService, int idUsuario,
+                                  FiltroHuellas filtro, int tamanoPagina, int maxPaginas,
+                                  Consumer<HistorialPaginado> alCargar, Runnable alFallar) {
+        return cargador.cargar("historial", () -> {
+            long total = huellaService.contarHuellas(idUsuario, filtro);
+            if (total < 0) throw new IllegalStateException("No se pudo contar el historial");
+            List<HuellaFila> primera = (total == 0) ? List.of()
+                    : elementos(huellaService.buscarPaginaHistorial(idUsuario, filtro, null, tamanoPagina));
+            if (primera == null) throw new IllegalStateException("No se pudo leer la primera página");
+            return new HistorialPaginado(cargador, huellaService, idUsuario, filtro,
+                    (int) total, primera, tamanoPagina, maxPaginas, alFallar);
+        }, alCargar, alFallar);
+    }
+
+    /**
+     * Anula las peticiones de páginas pendientes. Se llama cuando la lista se
+     * sustituye por otra (por ejemplo, al cambiar la búsqueda).
+     */
+    public void cancelar() {
+        cancelada = true;
+        peticiones.forEach(p -> p.cancel(false));
+        peticiones.clear();
+        pendientes.clear();
+        fallidas.clear();
+    }
+
+    /**
+     * Indica si alguna página no se pudo cargar.
+     */
+    public boolean tieneFallos() {
+        return !fallidas.isEmpty();
+    }
+
+    /**
+     * Vuelve a pedir las páginas cuya carga falló.
+     */
+    public void reintentar() {
+        List<Integer> paginasFallidas = new ArrayList<>(fallidas);
+        fallidas.clear();
+        paginasFallidas.forEach(this::solicitarPagina);
+    }
+
+    @Override
+    public HuellaFila get(int index) {
+        Objects.checkIndex(index, total);
+        int numPagina = index / tamanoPagina;
+        List<HuellaFila> pagina = paginas.get(numPagina);
+        if (pagina == null) {
+            if (!fallidas.contains(numPagina)) solicitarPagina(numPagina);
+            return null;
+        }
+        int posicion = index % tamanoPagina;
+        return (posicion < pagina.size()) ? pagina.get(posicion) : null;
+    }
+
+    @Override
+    public int size() {
+        return total;
+    }
+
+    /**
+     * Pide una página en segundo plano. Si se conoce el final de la página anterior
+     * se continúa desde su cursor; si no (salto directo), se pide por posición.
+     */
+    private void solicitarPagina(int numPagina) {
+        if (!pendientes.add(numPagina)) return;
+
+        CursorHuella cursor = (numPagina == 0) ? null : finDePagina.get(numPagina - 1);
+        boolean porCursor = numPagina == 0 || cursor != null;
+
+        peticiones.removeIf(Future::isDone);
+        Future<?> peticion = cargador.cargar("pagina", () -> cancelada ? List.<HuellaFila>of() : porCursor
+                        ? elementos(huellaService.buscarPaginaHistorial(idUsuario, filtro, cursor, tamanoPagina))
+                        : huellaService.buscarHistorialDesde(idUsuario, filtro, numPagina * tamanoPagina, tamanoPagina),
+                filas -> paginaCargada(numPagina, filas), () -> paginaFallida(numPagina));
+        if (peticion != null) peticiones.add(peticion);
+    }
+
+    /**
+     * Registros de una página, o {@code null} si la consulta falló.
+     */
+    private static List<HuellaFila> elementos(Pagina<HuellaFila> pagina) {
+        return (pagina != null) ? pagina.elementos() : null;
+    }
+
+    /**
+     * Incorpora una página recién llegada y avisa a la tabla de que esas filas
+     * ya tienen contenido. Se ejecuta en el hilo de JavaFX.
+     */
+    private void paginaCargada(int numPagina, List<HuellaFila> filas) {
+        if (cancelada) return;
+        pendientes.remove(numPagina);
+        if (filas.isEmpty()) return;
+
+        guardarPagina(numPagina, filas);
+        descartarLejanas(numPagina);
+
+        int desde = numPagina * tamanoPagina;
+        int hasta = Math.min(desde + filas.size(), total);
+        if (desde >= hasta) return;
+
+        beginChange();
+        nextReplace(desde, hasta, Collections.nCopies(hasta - desde, null));
+        endChange();
+    }
+
+    /**
+     * Libera una página cuya carga falló para que pueda pedirse de nuevo con
+     * {@link #reintentar()}, y avisa a la pantalla. Se ejecuta en el hilo de JavaFX.
+     */
+    private void paginaFallida(int numPagina) {
+        if (cancelada) return;
+        pendientes.remove(numPagina);
+        fallidas.add(numPagina);
+        if (alFallar != null) alFallar.run();
+    }
+
+    private void guardarPagina(int numPagina, List<HuellaFila> filas) {
+        paginas.put(numPagina, filas);
+        finDePagina.put(numPagina, CursorHuella.de(filas.get(filas.size() - 1)));
+    }
+
+    /**
+     * Libera las páginas que han quedado lejos de la que se acaba de mostrar.
+     */
+    private void descartarLejanas(int numPagina) {
+        int radio = Math.max(1, maxPaginas / 2);
+        paginas.keySet().removeIf(p -> Math.abs(p - numPagina) > radio);
+    }
+}
@@ -1,17 +1,14 @@
 package controller;
 
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Scene;
 import javafx.scene.control.Label;
 import javafx.scene.control.ProgressBar;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.Region;
 import javafx.scene.layout.VBox;
-import javafx.stage.Stage;
-import model.Huella;
-import model.Habito;
+import model.HuellaFila;
+import model.Pagina;
 import model.Usuario;
 import services.HuellaService;
 import services.HabitoService;
@@ -25,7 +22,7 @@ import java.util.Map;
  * el recuento de actividades recientes y el estado de sus hábitos activos, ofreciendo
  * una visión general e inmediata de su progreso ambiental.
  */
-public class InicioViewController {
+public class InicioViewController implements Refrescable {
 
     @FXML private Label lblHuellaTotal;
     @FXML private Label lblNumActividades;
@@ -39,14 +36,17 @@ public class InicioViewController {
 
     private final HuellaService huellaService = new HuellaService();
     private final HabitoService habitoService = new HabitoService();
+    private final CargadorDatos cargador = new CargadorDatos("Inicio");
 
     /**
-     * Inicializa el tablero principal tras la carga del FXML.
-     * Recupera el usuario de la sesión y coordina la carga de estadísticas,
-     * el historial reciente y el resumen de hábitos.
+     * Carga el tablero principal cada vez que se muestra.
+     * Recupera el usuario de la sesión y lanza en segundo plano la carga de
+     * estadísticas, el historial reciente y el resumen de hábitos; cada bloque
+     * se pinta en cuanto llegan sus datos.
      */
-    @FXML
-    public void initialize() {
+    @Override
+    public void refrescar() {
+        cargador.reiniciar();
         Usuario usuarioActual = Sesion.getInstancia().getUsuario();
         if (usuarioActual != null) {
             cargarEstadisticas(usuarioActual.getId().longValue());
@@ -62,7 +62,13 @@ public class InicioViewController {
      * @param userId Identificador único del usuario para filtrar los datos.
      */
     private void cargarEstadisticas(long userId) {
-        Map<String, Double> stats = huellaService.obtenerEstadisticas(userId);
+        cargador.cargar("estadisticas", () -> huellaService.obtenerEstadisticas(userId), this::mostrarEstadisticas);
+    }
+
+    /**
+     * Pinta las métricas recibidas en los indicadores y en la barra de progreso.
+     */
+    private void mostrarEstadisticas(Map<String, Double> stats) {
         double total = stats.getOrDefault("total", 0.0);
         double conteo = stats.getOrDefault("conteo", 0.0);
 
@@ -85,50 +91,54 @@ public class InicioViewController {
      * @param userId Identificador del usuario.
      */
     private void cargarHabitosResumen(int userId) {
-        List<Habito> habitos = habitoService.obtenerHabitosPorUsuario(userId);
-        if (lblHabitosActivos != null) {
-            lblHabitosActivos.setText(String.valueOf(habitos.size()));
-        }
+        cargador.cargar("habitos", () -> habitoService.obtenerHabitosPorUsuario(userId), habitos -> {
+            if (lblHabitosActivos != null) {
+                lblHabitosActivos.setText(String.valueOf(habitos.size()));
+            }
+        });
     }
 
     /**
      * Carga el historial de las últimas acciones registradas.
-     * Limita la visualización a las 4 actividades más recientes para mantener
-     * la estética y limpieza del Dashboard.
+     * Pide solo la primera página de 4 actividades más recientes para mantener
+     * la estética y limpieza del Dashboard sin leer el historial completo.
      * @param userId Identificador del usuario.
      */
     private void cargarListaActividades(int userId) {
-        List<Huella> historial = huellaService.obtenerHistorial(userId);
-        vboxActividades.getChildren().clear();
-        int max = Math.min(historial.size(), 4);
-        for (int i = 0; i < max; i++) {
-            vboxActividades.getChildren().add(crearFilaActividad(historial.get(i)));
-        }
+        cargador.cargar("recientes", () -> {
+            Pagina<HuellaFila> pagina = huellaService.obtenerPaginaHistorial(userId, null, 4);
+            return (pagina != null) ? pagina.elementos() : null;
+        }, recientes -> {
+            vboxActividades.getChildren().clear();
+            for (HuellaFila h : recientes) {
+                vboxActividades.getChildren().add(crearFilaActividad(h));
+            }
+        });
     }
 
     /**
      * Construye un componente visual de fila para representar una actividad individual.
      * Asigna iconos representativos y formatea los textos de fecha y valor.
-     * @param h Objeto de tipo Huella con los datos de la actividad.
+     * @param h Fila del historial con los datos de la actividad.
      * @return HBox configurado para ser insertado en la lista de actividades recientes.
      */
-    private HBox crearFilaActividad(Huella h) {
+    private HBox crearFilaActividad(HuellaFila h) {
         HBox row = new HBox(15);
         row.getStyleClass().add("activity-item");
         row.setAlignment(javafx.geometry.Pos.CENTER_LEFT);
 
-        String nombreAct = (h.getIdActividad() != null) ? h.getIdActividad().getNombre() : "Actividad";
+        String nombreAct = (h.actividad() != null) ? h.actividad() : "Actividad";
         Label icon = new Label(asignarIcono(nombreAct));
 
         VBox texts = new VBox(2,
                 new Label(nombreAct),
-                new Label(h.getFecha().toString())
+                new Label(h.fecha().toString())
         );
 
         Region spacer = new Region();
         HBox.setHgrow(spacer, Priority.ALWAYS);
 
-        row.getChildren().addAll(icon, texts, spacer, new Label(h.getValor() + " " + h.getUnidad()));
+        row.getChildren().addAll(icon, texts, spacer, new Label(h.valor() + " " + h.unidad()));
         return row;
     }
 
@@ -153,18 +163,15 @@ public class InicioViewController {
     @FXML private void irAHabitos() { cambiarEscena("/view/habitos.fxml"); }
     @FXML private void irAAnalisis() { cambiarEscena("/view/analisis.fxml"); }
     @FXML private void irARecomendaciones() { cambiarEscena("/view/recomendaciones.fxml"); }
+    @FXML private void irADiagnostico() { cambiarEscena("/view/diagnostico.fxml"); }
 
     /**
-     * Gestiona el reemplazo de la escena actual en la ventana principal.
-     * @param fxml Ruta del recurso FXML a cargar.
+     * Gestiona el reemplazo de la vista actual en la ventana principal.
+     * Las cargas pendientes del tablero se cancelan antes de salir.
+     * @param fxml Ruta del recurso FXML a mostrar.
      */
     private void cambiarEscena(String fxml) {
-        try {
-            Stage stage = (Stage) lblHuellaTotal.getScene().getWindow();
-            FXMLLoader loader = new FXMLLoader(getClass().getResource(fxml));
-            Scene scene = new Scene(loader.load());
-            scene.getStylesheets().add(getClass().getResource("/style.css").toExternalForm());
-            stage.setScene(scene);
-        } catch (Exception e) { e.printStackTrace(); }
+        cargador.cancelar();
+        Navegador.getInstance().mostrar(fxml);
     }
 }
\ No newline at end of file
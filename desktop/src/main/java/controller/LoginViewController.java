@@ -1,13 +1,13 @@
 package controller;
 
 import model.Usuario;
+import services.Calentamiento;
 import services.UsuarioService;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.stage.Stage;
+
+import java.util.Optional;
 
 /**
  * Controlador para la pantalla de inicio de sesión (Login).
@@ -26,10 +26,17 @@ public class LoginViewController {
      */
     private final UsuarioService usuarioService = new UsuarioService();
 
+    /**
+     * Ejecuta la comprobación de credenciales fuera del hilo de JavaFX: la
+     * consulta y la verificación BCrypt tardan lo bastante como para congelar la ventana.
+     */
+    private final CargadorDatos cargador = new CargadorDatos("Login");
+
     /**
      * Gestiona el proceso de autenticación cuando el usuario pulsa el botón de entrar.
      * Recoge los datos del formulario, limpia espacios innecesarios y solicita
-     * la validación al servicio. Si tiene éxito, guarda el usuario en la sesión global.
+     * la validación al servicio en segundo plano, con el botón desactivado hasta
+     * que responde. Si tiene éxito, guarda el usuario en la sesión global.
      * @param event Evento de acción del botón.
      */
     @FXML
@@ -43,17 +50,35 @@ public class LoginViewController {
             return;
         }
 
-        // Delegación de la validación al servicio de negocio
-        Usuario u = usuarioService.login(email, pass);
+        // Delegación de la validación al servicio de negocio; el login devuelve null
+        // si las credenciales no son válidas, así que se envuelve para no tomarlo por un fallo
+        loginButton.setDisable(true);
+        cargador.cargar("login", () -> Optional.ofNullable(usuarioService.login(email, pass)),
+                this::alResponder,
+                () -> {
+                    loginButton.setDisable(false);
+                    mostrarAlerta("Error", "❌ No se pudo conectar con la base de datos. Inténtalo de nuevo.");
+                });
+    }
 
-        if (u != null) {
-            // Establecemos el usuario logueado en el Singleton de sesión para uso global
-            utils.Sesion.getInstancia().setUsuario(u);
-            System.out.println("Login exitoso: " + u.getNombre());
-            abrirVista("/view/inicio.fxml");
-        } else {
+    /**
+     * Entra en la aplicación con el usuario validado o avisa de que las
+     * credenciales no son correctas. Se ejecuta en el hilo de JavaFX.
+     */
+    private void alResponder(Optional<Usuario> resultado) {
+        if (resultado.isEmpty()) {
+            loginButton.setDisable(false);
             mostrarAlerta("Error", "❌ Credenciales incorrectas");
+            return;
         }
+        Usuario u = resultado.get();
+        // Establecemos el usuario logueado en el Singleton de sesión para uso global
+        utils.Sesion.getInstancia().setUsuario(u);
+        System.out.println("Login exitoso: " + u.getNombre());
+        cargador.cancelar();
+        abrirVista("/view/inicio.fxml");
+        // Las demás pantallas se precargan cuando sus datos ya están en las cachés
+        Calentamiento.iniciar(u.getId(), Navegador.getInstance()::precargar);
     }
 
     /**
@@ -61,27 +86,16 @@ public class LoginViewController {
      */
     @FXML
     void showRegister() {
+        cargador.cancelar();
         abrirVista("/view/registro.fxml");
     }
 
     /**
-     * Realiza el cambio de escena en la ventana actual.
-     * Carga el archivo FXML correspondiente y aplica los estilos visuales definidos.
+     * Realiza el cambio de vista en la ventana actual a través del {@link Navegador}.
      * @param ruta Ruta relativa del archivo .fxml dentro del proyecto.
      */
     private void abrirVista(String ruta) {
-        try {
-            Stage stage = (Stage) emailField.getScene().getWindow();
-            FXMLLoader loader = new FXMLLoader(getClass().getResource(ruta));
-            Scene scene = new Scene(loader.load());
-            // Aplicación de la hoja de estilos para mantener la coherencia visual
-            scene.getStylesheets().add(getClass().getResource("/style.css").toExternalForm());
-            stage.setScene(scene);
-            stage.show();
-        } catch (Exception e) {
-            System.err.println("Error al cargar la vista: " + ruta);
-            e.printStackTrace();
-        }
+        Navegador.getInstance().mostrar(ruta);
     }
 
     /**
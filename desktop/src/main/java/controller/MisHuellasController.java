@@ -0,0 +1,369 @@
+package controller;
+
+import javafx.animation.PauseTransition;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.fxml.FXML;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Scene;
+import javafx.scene.control.*;
+import javafx.scene.layout.HBox;
+import javafx.stage.Modality;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+import model.FiltroHuellas;
+import model.HuellaFila;
+import model.Usuario;
+import model.Categoria;
+import services.HuellaService;
+import services.CategoriaService;
+import utils.Sesion;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Future;
+
+/**
+ * Controlador de la vista "Mis Huellas".
+ * Gestiona el mantenimiento (CRUD) de los registros de impacto ambiental.
+ * Ofrece herramientas avanzadas de filtrado por texto y categoría, resueltas en la
+ * base de datos, además de presentar la información en una tabla dinámica con
+ * estilos personalizados.
+ */
+public class MisHuellasController implements Refrescable {
+
+    @FXML private TableView<HuellaFila> tablaHuellas;
+    @FXML private TableColumn<HuellaFila, String> colActividad;
+    @FXML private TableColumn<HuellaFila, String> colValor;
+    @FXML private TableColumn<HuellaFila, String> colCategoria;
+    @FXML private TableColumn<HuellaFila, String> colFecha;
+    @FXML private TableColumn<HuellaFila, String> colImpacto;
+    @FXML private TableColumn<HuellaFila, Void> colAcciones;
+
+    @FXML private TextField txtBuscar;
+    @FXML private ComboBox<String> comboCategorias;
+    @FXML private HBox barraError;
+    @FXML private Label lblError;
+
+    private final HuellaService huellaService = new HuellaService();
+    private final CategoriaService categoriaService = new CategoriaService();
+    private final CargadorDatos cargador = new CargadorDatos("Mis Huellas");
+
+    /**
+     * Registros por página que se piden a la base de datos al desplazarse por la tabla.
+     */
+    private static final int TAMANO_PAGINA = HuellaService.TAMANO_PAGINA_HISTORIAL;
+
+    /**
+     * Máximo de páginas que se mantienen en memoria a la vez.
+     */
+    private static final int MAX_PAGINAS = 8;
+
+    /**
+     * Tiempo que se espera tras la última pulsación antes de lanzar la búsqueda.
+     */
+    private static final Duration ESPERA_BUSQUEDA = Duration.millis(250);
+
+    /**
+     * Historial mostrado en la tabla (completo o filtrado), cargado por páginas bajo demanda.
+     */
+    private HistorialPaginado historial;
+
+    /**
+     * Búsqueda lanzada que todavía no ha devuelto resultados.
+     */
+    private Future<?> busquedaEnCurso;
+
+    /**
+     * Número de la última búsqueda lanzada; las respuestas de búsquedas anteriores se descartan.
+     */
+    private int ultimaBusqueda = 0;
+
+    /**
+     * Número de la búsqueda cuyo historial está en la tabla.
+     */
+    private int busquedaMostrada = 0;
+
+    /**
+     * Acción del botón Reintentar de la barra de error.
+     */
+    private Runnable reintento;
+
+    /**
+     * Retrasa la búsqueda mientras el usuario sigue escribiendo.
+     */
+    private final PauseTransition esperaBusqueda = new PauseTransition(ESPERA_BUSQUEDA);
+
+    /**
+     * Identificador de cada categoría del desplegable, por nombre.
+     */
+    private final Map<String, Integer> idsCategoria = new HashMap<>();
+
+    /**
+     * Inicializa los componentes de la vista.
+     * Configura el comportamiento de las columnas y de los filtros; los datos se
+     * piden al mostrar la pantalla ({@link #refrescar()}).
+     */
+    @FXML
+    public void initialize() {
+        configurarColumnas();
+        prepararComboCategorias();
+        configurarFiltros();
+    }
+
+    /**
+     * Abre el historial con el filtro actual cada vez que se muestra la pantalla,
+     * para recoger los registros añadidos o borrados desde otras vistas. Las
+     * categorías del desplegable se piden solo la primera vez.
+     */
+    @Override
+    public void refrescar() {
+        cargador.reiniciar();
+        if (idsCategoria.isEmpty()) cargarCategorias();
+        cargarDatos();
+    }
+
+    /**
+     * Define el mapeo de datos para cada columna de la tabla.
+     * Implementa un renderizado personalizado para la columna de categorías,
+     * asignando estilos CSS (badges) según el tipo de actividad.
+     */
+    private void configurarColumnas() {
+        // Las filas de páginas que aún se están cargando llegan como null
+        colActividad.setCellValueFactory(cellData -> {
+            if (cellData.getValue() == null) return new SimpleStringProperty("Cargando…");
+            return new SimpleStringProperty(cellData.getValue().actividad() != null ?
+                    cellData.getValue().actividad() : "N/A");
+        });
+
+        colValor.setCellValueFactory(cellData -> {
+            if (cellData.getValue() == null) return new SimpleStringProperty("");
+            return new SimpleStringProperty(cellData.getValue().valor() + " " + cellData.getValue().unidad());
+        });
+
+        // Configuración de celdas personalizadas para la columna Categoría
+        colCategoria.setCellFactory(column -> new TableCell<HuellaFila, String>() {
+            @Override
+            protected void updateItem(String item, boolean empty) {
+                super.updateItem(item, empty);
+                if (empty || item == null) {
+                    setGraphic(null);
+                } else {
+                    Label label = new Label(item);
+                    label.getStyleClass().add("category-badge");
+                    String lower = item.toLowerCase();
+                    // Lógica visual para diferenciar categorías por colores
+                    if (lower.contains("transporte")) label.getStyleClass().add("badge-transporte");
+                    else if (lower.contains("energía") || lower.contains("energia")) label.getStyleClass().add("badge-energia");
+                    else if (lower.contains("alimentación") || lower.contains("alimentacion")) label.getStyleClass().add("badge-alimentacion");
+                    setGraphic(label);
+                }
+            }
+        });
+
+        colCategoria.setCellValueFactory(cellData -> {
+            if (cellData.getValue() == null) return new SimpleStringProperty(null);
+            if (cellData.getValue().categoria() != null) {
+                return new SimpleStringProperty(cellData.getValue().categoria());
+            }
+            return new SimpleStringProperty("-");
+        });
+
+        colFecha.setCellValueFactory(cellData -> {
+            if (cellData.getValue() == null) return new SimpleStringProperty("");
+            return new SimpleStringProperty(cellData.getValue().fecha() != null ? cellData.getValue().fecha().toString() : "");
+        });
+
+        // El impacto viene calculado de la base de datos; aquí solo se formatea
+        colImpacto.setCellValueFactory(cellData -> {
+            if (cellData.getValue() == null) return new SimpleStringProperty("");
+            Double impacto = cellData.getValue().impactoKg();
+            return new SimpleStringProperty(String.format("%.2f kg CO₂", impacto != null ? impacto : 0.0));
+        });
+        colImpacto.getStyleClass().add("impacto-bold");
+        // Inserción de botones de borrado dinámicos en cada fila
+        colAcciones.setCellFactory(param -> new TableCell<>() {
+            private final Button btnEliminar = new Button("🗑");
+            {
+                btnEliminar.getStyleClass().add("sidebar-button-exit");
+                btnEliminar.setOnAction(event -> {
+                    HuellaFila h = getTableView().getItems().get(getIndex());
+                    if (h != null) confirmarEliminacion(h);
+                });
+            }
+            @Override
+            protected void updateItem(Void item, boolean empty) {
+                super.updateItem(item, empty);
+                setGraphic(empty ? null : btnEliminar);
+            }
+        });
+    }
+
+    /**
+     * Lanza un cuadro de diálogo de confirmación antes de borrar un registro.
+     * Si el usuario acepta, se comunica con el servicio para eliminar el dato físicamente.
+     * @param h La fila del historial seleccionada para eliminar.
+     */
+    private void confirmarEliminacion(HuellaFila h) {
+        Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
+        alert.setTitle("Eliminar Registro");
+        alert.setHeaderText("¿Seguro que quieres borrar esta huella?");
+        Optional<ButtonType> result = alert.showAndWait();
+        if (result.isPresent() && result.get() == ButtonType.OK) {
+            if (!huellaService.borrarRegistro(Sesion.getInstancia().getUsuario().getId(), h)) {
+                Alert error = new Alert(Alert.AlertType.ERROR);
+                error.setHeaderText(null);
+                error.setContentText("No se pudo borrar el registro. Inténtalo de nuevo.");
+                error.showAndWait();
+            }
+            cargarDatos(); // Refrescamos la tabla tras la eliminación
+        }
+    }
+
+    /**
+     * Deja en el ComboBox de categorías la opción por defecto "Todas las categorías",
+     * que permite resetear el filtro.
+     */
+    private void prepararComboCategorias() {
+        comboCategorias.getItems().clear();
+        idsCategoria.clear();
+        comboCategorias.getItems().add("Todas las categorías");
+        comboCategorias.getSelectionModel().selectFirst();
+    }
+
+    /**
+     * Añade al ComboBox las categorías de la base de datos cuando llegan.
+     */
+    private void cargarCategorias() {
+        cargador.cargar("categorias", categoriaService::obtenerCategorias, categorias -> {
+            if (categorias == null) return;
+            for (Categoria cat : categorias) {
+                comboCategorias.getItems().add(cat.getNombre());
+                idsCategoria.put(cat.getNombre(), cat.getId());
+            }
+        });
+    }
+
+    /**
+     * Establece los "listeners" para los campos de búsqueda y categoría.
+     * El texto se busca cuando el usuario deja de escribir durante un instante;
+     * el cambio de categoría se aplica en el momento.
+     */
+    private void configurarFiltros() {
+        esperaBusqueda.setOnFinished(e -> cargarDatos());
+        txtBuscar.textProperty().addListener((obs, old, nv) -> esperaBusqueda.playFromStart());
+        comboCategorias.valueProperty().addListener((obs, old, nv) -> {
+            esperaBusqueda.stop();
+            cargarDatos();
+        });
+    }
+
+    /**
+     * Construye el filtro de búsqueda a partir del texto escrito y la categoría seleccionada.
+     */
+    private FiltroHuellas filtroActual() {
+        String cat = comboCategorias.getValue();
+        Integer idCategoria = (cat == null) ? null : idsCategoria.get(cat);
+        return new FiltroHuellas(txtBuscar.getText(), idCategoria);
+    }
+
+    /**
+     * Recupera el historial de huellas del usuario logueado aplicando los filtros actuales.
+     * La búsqueda se hace en la base de datos y en segundo plano: solo se cuentan los
+     * resultados y se carga la primera página, y el resto se pide según el usuario se
+     * desplaza por la tabla. Si se lanza una búsqueda nueva antes de que termine la
+     * anterior, la anterior se cancela y su respuesta se descarta. Si la búsqueda o
+     * alguna de sus páginas falla, se muestra la barra de error con la opción de reintentar.
+     */
+    private void cargarDatos() {
+        Usuario u = Sesion.getInstancia().getUsuario();
+        if (u == null) return;
+
+        if (busquedaEnCurso != null) busquedaEnCurso.cancel(false);
+        int busqueda = ++ultimaBusqueda;
+        busquedaEnCurso = HistorialPaginado.abrir(cargador, huellaService, u.getId(), filtroActual(),
+                TAMANO_PAGINA, MAX_PAGINAS, lista -> {
+                    if (busqueda != ultimaBusqueda) {
+                        lista.cancelar();
+                        return;
+                    }
+                    if (historial != null) historial.cancelar();
+                    historial = lista;
+                    busquedaMostrada = busqueda;
+                    busquedaEnCurso = null;
+                    ocultarError();
+                    tablaHuellas.setItems(lista);
+                }, () -> falloCarga(busqueda));
+    }
+
+    /**
+     * Muestra la barra de error cuando falla la búsqueda o una página de su historial.
+     * Los fallos de búsquedas ya sustituidas por otra se ignoran.
+     */
+    private void falloCarga(int busqueda) {
+        if (busqueda != ultimaBusqueda) return;
+        if (busqueda == busquedaMostrada) {
+            lblError.setText("⚠️ No se pudieron cargar algunos registros.");
+            reintento = historial::reintentar;
+        } else {
+            busquedaEnCurso = null;
+            lblError.setText("⚠️ No se pudo cargar el historial.");
+            reintento = this::cargarDatos;
+        }
+        barraError.setManaged(true);
+        barraError.setVisible(true);
+    }
+
+    private void ocultarError() {
+        barraError.setManaged(false);
+        barraError.setVisible(false);
+        reintento = null;
+    }
+
+    /**
+     * Vuelve a lanzar la carga que falló desde el botón de la barra de error.
+     */
+    @FXML private void reintentarCarga() {
+        Runnable accion = reintento;
+        ocultarError();
+        if (accion != null) accion.run();
+    }
+
+    /**
+     * Abre el formulario modal para registrar una nueva actividad.
+     * Tras cerrar el formulario, se recarga la tabla para reflejar los cambios.
+     */
+    @FXML private void abrirFormularioNuevaHuella() {
+        try {
+            FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/nueva_huella.fxml"));
+            Stage stage = new Stage();
+            stage.setScene(new Scene(loader.load()));
+            stage.initModality(Modality.APPLICATION_MODAL);
+            stage.showAndWait();
+            cargarDatos();
+        } catch (IOException e) { e.printStackTrace(); }
+    }
+
+    // --- MÉTODOS DE NAVEGACIÓN ---
+
+    @FXML private void irAInicio() { cambiarEscena("/view/inicio.fxml"); }
+    @FXML private void irAHabitos() { cambiarEscena("/view/habitos.fxml"); }
+    @FXML private void irAAnalisis() { cambiarEscena("/view/analisis.fxml"); }
+    @FXML private void irARecomendaciones() { cambiarEscena("/view/recomendaciones.fxml"); }
+    @FXML private void irADiagnostico() { cambiarEscena("/view/diagnostico.fxml"); }
+
+    /**
+     * Invalida la sesión actual y redirige a la pantalla de Login.
+     */
+    @FXML private void handleLogout() {
+        Sesion.getInstancia().setUsuario(null);
+        cambiarEscena("/view/login.fxml");
+    }
+
+    private void cambiarEscena(String fxml) {
+        cargador.cancelar();
+        Navegador.getInstance().mostrar(fxml);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,202 @@
+package controller;
+
+import javafx.application.Platform;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+import utils.EventoEscena;
+import utils.Medicion;
+import utils.Metricas;
+import utils.Sesion;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Navegación entre las pantallas de la ventana principal.
+ * Cada vista FXML se analiza una sola vez: su raíz y su controlador se guardan
+ * en una caché acotada, de la que sale primero la vista usada hace más tiempo.
+ * Cada vez que se muestra una vista, también la primera, se pide a su
+ * controlador que cargue los datos ({@link Refrescable}); al volver a una vista
+ * guardada solo se sustituye la raíz de la escena. La escena y la hoja de
+ * estilos se crean una única vez al arrancar.
+ * Tras iniciar sesión se precargan las pantallas del menú lateral: sus FXML se
+ * analizan en un hilo virtual y al hilo de JavaFX solo llega la vista ya
+ * construida, que se guarda en la caché sin cargar todavía sus datos.
+ * Las vistas de acceso (login y registro) no se guardan, y volver a ellas
+ * descarta las demás, que muestran datos del usuario que ha salido.
+ * El tamaño de la caché se ajusta con {@code navegacion.vistas.max} y la
+ * precarga se desactiva con {@code navegacion.precarga=false}.
+ */
+public class Navegador {
+
+    private static final int VISTAS_POR_DEFECTO = 8;
+
+    /**
+     * Vistas que nunca se guardan en la caché.
+     */
+    private static final Set<String> VISTAS_ACCESO = Set.of("/view/login.fxml", "/view/registro.fxml");
+
+    /**
+     * Pantallas del menú lateral, las siguientes más probables tras el inicio.
+     */
+    private static final List<String> PRECARGA = List.of(
+            "/view/mis_huellas.fxml", "/view/habitos.fxml", "/view/analisis.fxml", "/view/recomendaciones.fxml");
+
+    /**
+     * Raíz de una vista cargada y el controlador que creó el {@link FXMLLoader}.
+     */
+    private record Vista(Parent raiz, Object controlador) {}
+
+    private static Navegador instance;
+
+    private final Map<String, Vista> vistas;
+    private Scene escena;
+
+    /**
+     * Se incrementa al descartar las vistas, para abandonar una precarga de la sesión anterior.
+     * Solo se modifica en el hilo de JavaFX; el hilo de precarga lo lee.
+     */
+    private volatile int sesion = 0;
+
+    private Navegador() {
+        int max = Integer.getInteger("navegacion.vistas.max", VISTAS_POR_DEFECTO);
+        // Orden de acceso: la primera entrada es la vista usada hace más tiempo
+        this.vistas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Vista> eldest) {
+                return size() > max;
+            }
+        };
+    }
+
+    /**
+     * Obtiene el navegador de la ventana principal.
+     * * @return La instancia única de {@link Navegador}.
+     */
+    public static synchronized Navegador getInstance() {
+        if (instance == null) {
+            instance = new Navegador();
+        }
+        return instance;
+    }
+
+    /**
+     * Crea la escena de la ventana principal con la primera vista y la hoja de estilos.
+     * @param stage Escenario principal de la aplicación.
+     * @param fxml Vista inicial.
+     * @throws IOException Si la vista no se puede cargar.
+     */
+    public void iniciar(Stage stage, String fxml) throws IOException {
+        Vista vista = obtenerVista(fxml);
+        escena = new Scene(vista.raiz());
+        escena.getStylesheets().add(getClass().getResource("/style.css").toExternalForm());
+        stage.setScene(escena);
+        if (vista.controlador() instanceof Refrescable pantalla) pantalla.refrescar();
+    }
+
+    /**
+     * Muestra una vista en la ventana principal, cargándola solo si no está en la caché.
+     * Debe llamarse desde el hilo de JavaFX.
+     * @param fxml Ruta del recurso FXML.
+     */
+    public void mostrar(String fxml) {
+        EventoEscena evento = EventoEscena.iniciar(fxml);
+        Medicion m = Metricas.medir("Navegador.mostrar");
+        try (m) {
+            Vista vista = vistas.get(fxml);
+            boolean guardada = vista != null;
+            evento.desdeCache(guardada);
+
+            if (VISTAS_ACCESO.contains(fxml)) descartarVistas();
+            if (!guardada) vista = obtenerVista(fxml);
+            escena.setRoot(vista.raiz());
+
+            if (vista.controlador() instanceof Refrescable pantalla) {
+                pantalla.refrescar();
+            }
+        } catch (Exception e) {
+            m.fallo();
+            System.err.println("Error al cargar la vista: " + fxml);
+            e.printStackTrace();
+        } finally {
+            evento.terminar();
+        }
+    }
+
+    /**
+     * Carga en segundo plano las pantallas del menú lateral que aún no estén en
+     * la caché. Se llama tras iniciar sesión, con la primera pantalla ya visible;
+     * puede llamarse desde cualquier hilo.
+     */
+    public void precargar() {
+        if (!Boolean.parseBoolean(System.getProperty("navegacion.precarga", "true"))) return;
+        Platform.runLater(() -> {
+            int deSesion = sesion;
+            List<String> pendientes = PRECARGA.stream().filter(fxml -> !vistas.containsKey(fxml)).toList();
+            Thread.ofVirtual().name("precarga-vistas").start(() -> precargarEnSegundoPlano(pendientes, deSesion));
+        });
+    }
+
+    /**
+     * Analiza las vistas pendientes fuera del hilo de JavaFX, una detrás de otra.
+     * Las vistas aún no forman parte de ninguna escena, así que pueden construirse
+     * en este hilo; los controladores no piden datos hasta que la vista se muestra.
+     */
+    private void precargarEnSegundoPlano(List<String> pendientes, int deSesion) {
+        for (String fxml : pendientes) {
+            if (deSesion != sesion || Sesion.getInstancia().getUsuario() == null) return;
+            try {
+                Vista vista = analizar(fxml);
+                Platform.runLater(() -> guardarPrecargada(fxml, vista, deSesion));
+            } catch (Exception e) {
+                System.err.println("No se pudo precargar la vista " + fxml + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Guarda en la caché, ya en el hilo de JavaFX, una vista precargada, salvo que
+     * la sesión haya cambiado o la vista se haya cargado entretanto al mostrarla.
+     */
+    private void guardarPrecargada(String fxml, Vista vista, int deSesion) {
+        if (deSesion != sesion || vistas.containsKey(fxml)) return;
+        vistas.put(fxml, vista);
+    }
+
+    /**
+     * Analiza un FXML y, salvo que sea una vista de acceso, lo guarda en la caché.
+     */
+    private Vista obtenerVista(String fxml) throws IOException {
+        Vista vista = analizar(fxml);
+        if (!VISTAS_ACCESO.contains(fxml)) vistas.put(fxml, vista);
+        return vista;
+    }
+
+    /**
+     * Analiza un FXML y crea su controlador. No toca la caché ni la escena, así
+     * que puede llamarse desde cualquier hilo.
+     */
+    private Vista analizar(String fxml) throws IOException {
+        Medicion m = Metricas.medir("Navegador.cargarVista");
+        try (m) {
+            FXMLLoader loader = new FXMLLoader(getClass().getResource(fxml));
+            return new Vista(loader.load(), loader.getController());
+        } catch (IOException e) {
+            m.fallo();
+            throw e;
+        }
+    }
+
+    /**
+     * Olvida todas las vistas guardadas y detiene la precarga en curso.
+     */
+    private void descartarVistas() {
+        vistas.clear();
+        sesion++;
+    }
+}
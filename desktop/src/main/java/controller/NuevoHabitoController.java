@@ -6,6 +6,7 @@ import javafx.scene.control.*;
 import javafx.stage.Stage;
 import model.Actividad;
 import model.Habito;
+import model.HabitoFila;
 import services.HabitoService;
 import services.ActividadService;
 import utils.Sesion;
@@ -27,7 +28,6 @@ public class NuevoHabitoController {
     private final ActividadService actividadService = new ActividadService();
 
     private Actividad actividadSugerida;
-    private Habito habitoEnEdicion;
 
     /**
      * Inicializa el formulario configurando las opciones de frecuencia y
@@ -59,20 +59,27 @@ public class NuevoHabitoController {
 
     /**
      * Prepara el controlador para trabajar en modo edición.
-     * Almacena el objeto hábito original y rellena los campos de texto y
-     * desplegables con sus valores actuales.
-     * @param h El objeto {@link Habito} que se desea modificar.
+     * Rellena el desplegable de actividades y los campos de texto con los valores
+     * actuales del hábito.
+     * @param h La fila {@link HabitoFila} del hábito que se desea modificar.
      */
-    public void prepararEdicion(Habito h) {
-        this.habitoEnEdicion = h;
-        this.actividadSugerida = h.getIdActividad();
-
+    public void prepararEdicion(HabitoFila h) {
         Platform.runLater(() -> {
+            if (comboActividades != null) {
+                for (Actividad a : comboActividades.getItems()) {
+                    if (a.getId().equals(h.idActividad())) {
+                        actividadSugerida = a;
+                        comboActividades.getSelectionModel().select(a);
+                        comboActividades.setValue(a);
+                        break;
+                    }
+                }
+            }
             if (txtFrecuencia != null) {
-                txtFrecuencia.setText(String.valueOf(h.getFrecuencia()));
+                txtFrecuencia.setText(String.valueOf(h.frecuencia()));
             }
             if (comboTipo != null) {
-                comboTipo.setValue(h.getTipo());
+                comboTipo.setValue(h.tipo());
             }
         });
     }
@@ -98,8 +105,8 @@ public class NuevoHabitoController {
 
     /**
      * Valida y procesa la persistencia del hábito.
-     * Si existe un hábito en edición, actualiza sus valores; de lo contrario,
-     * crea una nueva instancia vinculada al usuario actual y a la actividad elegida.
+     * Construye el hábito vinculado al usuario actual y a la actividad elegida; si
+     * ya existía uno con esa clave (modo edición), el merge actualiza sus valores.
      * Realiza conversiones de tipos y gestiona posibles errores de formato numérico.
      */
     @FXML
@@ -111,8 +118,8 @@ public class NuevoHabitoController {
         }
 
         try {
-            // Lógica de reutilización: editar objeto existente o instanciar uno nuevo
-            Habito h = (habitoEnEdicion != null) ? habitoEnEdicion : new Habito();
+            // La clave compuesta identifica el hábito: editar y crear guardan la misma entidad
+            Habito h = new Habito();
 
             // Sincronización de la clave primaria compuesta necesaria para Hibernate
             h.getId().setIdUsuario(Sesion.getInstancia().getUsuario().getId());
@@ -1,11 +1,8 @@
 package controller;
 
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
-import javafx.stage.Stage;
 import services.HuellaService;
 import utils.Sesion;
 import java.util.*;
@@ -94,6 +91,7 @@ public class RecomendacionesViewController {
     @FXML private void irAMisHuellas() { cambiarEscena("/view/mis_huellas.fxml"); }
     @FXML private void irAHabitos() { cambiarEscena("/view/habitos.fxml"); }
     @FXML private void irAAnalisis() { cambiarEscena("/view/analisis.fxml"); }
+    @FXML private void irADiagnostico() { cambiarEscena("/view/diagnostico.fxml"); }
 
     /**
      * Finaliza la sesión del usuario actual y limpia el contexto de seguridad.
@@ -105,19 +103,11 @@ public class RecomendacionesViewController {
     }
 
     /**
-     * Ejecuta la transición entre vistas, asegurando la propagación de la hoja de estilos.
+     * Ejecuta la transición entre vistas; las ya visitadas se reutilizan desde la caché del {@link Navegador}.
      * @param fxml Destino de la navegación.
      */
     private void cambiarEscena(String fxml) {
-        try {
-            Stage stage = (Stage) flowRecomendaciones.getScene().getWindow();
-            FXMLLoader loader = new FXMLLoader(getClass().getResource(fxml));
-            Scene scene = new Scene(loader.load());
-            scene.getStylesheets().add(getClass().getResource("/style.css").toExternalForm());
-            stage.setScene(scene);
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        Navegador.getInstance().mostrar(fxml);
     }
 
     /**
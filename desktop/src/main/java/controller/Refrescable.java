@@ -0,0 +1,19 @@
+package controller;
+
+/**
+ * Pantalla cuyo controlador puede volver a cargar sus datos sin reconstruirse.
+ * {@link Navegador} guarda las vistas ya cargadas y, cuando el usuario vuelve a
+ * una de ellas, llama a {@link #refrescar()} en lugar de analizar otra vez el
+ * FXML y crear un controlador nuevo.
+ * Como las vistas pueden analizarse por adelantado en otro hilo, el
+ * {@code initialize()} de estas pantallas solo prepara los controles y no pide
+ * datos: la primera carga también llega por {@link #refrescar()}.
+ */
+public interface Refrescable {
+
+    /**
+     * Pide los datos de la pantalla. Se invoca en el hilo de JavaFX justo
+     * después de mostrarla, la primera vez y cada vez que se vuelve a ella.
+     */
+    void refrescar();
+}
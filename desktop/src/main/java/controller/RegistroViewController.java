@@ -3,10 +3,7 @@ package controller;
 import model.Usuario;
 import services.UsuarioService;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.stage.Stage;
 import java.time.LocalDate;
 
 /**
@@ -65,16 +62,7 @@ public class RegistroViewController {
      */
     @FXML
     private void irALogin() {
-        try {
-            Stage stage = (Stage) nombreField.getScene().getWindow();
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/login.fxml"));
-            Scene scene = new Scene(loader.load());
-            scene.getStylesheets().add(getClass().getResource("/style.css").toExternalForm());
-            stage.setScene(scene);
-            stage.show();
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        Navegador.getInstance().mostrar("/view/login.fxml");
     }
 
     /**
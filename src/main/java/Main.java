@@ -1,8 +0,0 @@
-/**
- * Lanza la aplicacion
- */
-public class Main {
-    public static void main(String[] args) {
-        App.main(args);
-    }
-}